@@ -0,0 +1,90 @@
+package com.reliaquest.api.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.reliaquest.api.util.NameTrie;
+
+/**
+ * Latency and footprint of NameTrie completions versus a scan of every name, with names drawn from a fixed
+ * vocabulary the way real directories repeat first and last names.
+ *
+ * <p>{@code ./gradlew api:bench -Pbenchmark=AutocompleteBenchmark -PbenchArgs='<names> <iterations>'}
+ */
+public class AutocompleteBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "bel", "car", "do", "el", "fran", "gio", "ha", "is", "jo", "ka",
+            "li", "mar", "ne", "o", "pe", "qui", "ro", "sa", "ta", "u", "vi", "wil", "xa", "yo", "ze"};
+
+    private static final int SCANS = 10;
+
+    private static final String[] TITLES = {"Mr.", "Mrs.", "Ms.", "Dr."};
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Random random = new Random(42);
+        String[] firstNames = vocabulary(random, 2_000);
+        String[] lastNames = vocabulary(random, 5_000);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = random.nextInt(5) == 0 ? TITLES[random.nextInt(TITLES.length)] + " " : "";
+            names.add(title + firstNames[random.nextInt(firstNames.length)] + " "
+                    + lastNames[random.nextInt(lastNames.length)]);
+        }
+
+        long started = System.nanoTime();
+        NameTrie trie = new NameTrie(names, 20);
+        System.out.printf("%d names (%d distinct) indexed in %.1f ms, %d nodes, %d KB%n", count, trie.size(),
+                (System.nanoTime() - started) / 1e6, trie.nodes(), trie.footprintBytes() / 1024);
+        System.out.printf("%-12s %8s %12s %12s%n", "prefix", "results", "trie us", "scan us");
+        for (String prefix : List.of("m", "mar", "marjo", "dr k", "zeze", "qqq")) {
+            run(prefix, names, trie, iterations);
+        }
+    }
+
+    private static void run(String prefix, List<String> names, NameTrie trie, int iterations) {
+        List<String> queryWords = NameTrie.words(prefix);
+        int results = 0;
+        for (int i = 0; i < iterations / 10; i++) {
+            results = trie.complete(queryWords, 10, rank -> true).length;
+        }
+        scan(queryWords, names);
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            trie.complete(queryWords, 10, rank -> true);
+        }
+        double trieMicros = (System.nanoTime() - started) / 1e3 / iterations;
+        started = System.nanoTime();
+        for (int i = 0; i < SCANS; i++) {
+            scan(queryWords, names);
+        }
+        double scanMicros = (System.nanoTime() - started) / 1e3 / SCANS;
+        System.out.printf("%-12s %8d %12.1f %12.1f%n", prefix, results, trieMicros, scanMicros);
+    }
+
+    /**
+     * What a client does without the autocomplete endpoint: match and sort every name
+     */
+    private static List<String> scan(List<String> queryWords, List<String> names) {
+        return names.stream()
+                .filter(name -> NameTrie.matches(name, queryWords))
+                .distinct()
+                .sorted(NameTrie.NAME_ORDER)
+                .limit(10)
+                .toList();
+    }
+
+    private static String[] vocabulary(Random random, int size) {
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int syllables = 2 + random.nextInt(2); syllables > 0; syllables--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+        }
+        return words;
+    }
+}
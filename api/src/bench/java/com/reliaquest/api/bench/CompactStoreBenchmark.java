@@ -0,0 +1,66 @@
+package com.reliaquest.api.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.util.CompactEmployees;
+
+/**
+ * Heap taken per employee by a list of Employee objects, as Jackson leaves them after reading the Server API
+ * response, versus the CompactEmployees built from it. Heap is measured as used memory after a full collection.
+ *
+ * <p>{@code ./gradlew api:bench -Pbenchmark=CompactStoreBenchmark -PbenchArgs='<employees>'}
+ */
+public class CompactStoreBenchmark {
+
+    private static final String[] TITLES = {"Financial Advisor", "Documentation Engineer", "Regional Director",
+            "Senior Javascript Developer", "Integration Specialist", "Accountant", "Software Engineer",
+            "Office Manager", "Sales Associate", "Technology Director"};
+
+    public static void main(String[] args) {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long baseline = usedAfterGc();
+        List<Employee> employeeList = generate(employees);
+        long listBytes = usedAfterGc() - baseline;
+
+        CompactEmployees store = new CompactEmployees(employeeList);
+        long bothBytes = usedAfterGc() - baseline;
+        long storeBytes = bothBytes - listBytes;
+
+        System.out.printf("%d employees%n", employees);
+        System.out.printf("%-20s %12s %12s%n", "form", "heap MB", "bytes/row");
+        System.out.printf("%-20s %12.1f %12.1f%n", "List<Employee>", listBytes / 1e6, (double) listBytes / employees);
+        System.out.printf("%-20s %12.1f %12.1f%n", "CompactEmployees", storeBytes / 1e6,
+                (double) storeBytes / employees);
+        System.out.printf("footprintBytes() estimate %.1f MB, %.1fx smaller than the list%n",
+                store.footprintBytes() / 1e6, (double) listBytes / storeBytes);
+        if (employeeList.size() != store.size()) {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Every string is its own instance, as it would be after deserialization
+     */
+    private static List<Employee> generate(int employees) {
+        Random random = new Random(42);
+        List<Employee> employeeList = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            employeeList.add(new Employee(new UUID(random.nextLong(), random.nextLong()), "Employee Name " + i,
+                    30_000 + random.nextInt(470_000), 16 + random.nextInt(60),
+                    new String(TITLES[random.nextInt(TITLES.length)]), "employee.name" + i + "@company.com"));
+        }
+        return employeeList;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,87 @@
+package com.reliaquest.api.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.reliaquest.api.util.AdaptiveConcurrencyLimit;
+
+/**
+ * Latency and goodput of an upstream that serves a fixed number of requests at a time, with and without the adaptive
+ * concurrency limit in front of it. Clients run a closed loop and back off briefly when shed.
+ *
+ * <p>{@code ./gradlew api:bench -Pbenchmark=ConcurrencyLimitBenchmark -PbenchArgs='<clients> <capacity> <seconds>'}
+ */
+public class ConcurrencyLimitBenchmark {
+
+    private static final long SERVICE_MILLIS = 5;
+
+    private static final long SHED_BACKOFF_MILLIS = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        System.out.printf("%d clients, upstream serves %d at a time in %d ms%n", clients, capacity, SERVICE_MILLIS);
+        System.out.printf("%-10s %10s %10s %8s %8s %8s%n", "mode", "ok/s", "shed/s", "p50 ms", "p99 ms", "limit");
+        run("unlimited", null, clients, capacity, seconds);
+        run("adaptive", new AdaptiveConcurrencyLimit(20, 4, clients, TimeUnit.SECONDS.toNanos(10)), clients, capacity,
+                seconds);
+    }
+
+    private static void run(String mode, AdaptiveConcurrencyLimit limit, int clients, int capacity, int seconds)
+            throws InterruptedException {
+        Semaphore upstream = new Semaphore(capacity, true);
+        AtomicLongArray latencies = new AtomicLongArray(10_000_000);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int client = 0; client < clients; client++) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    if (limit != null && !limit.tryAcquire()) {
+                        shed.incrementAndGet();
+                        sleep(SHED_BACKOFF_MILLIS);
+                        continue;
+                    }
+                    long started = System.nanoTime();
+                    upstream.acquireUninterruptibly();
+                    sleep(SERVICE_MILLIS);
+                    upstream.release();
+                    long rtt = System.nanoTime() - started;
+                    if (limit != null) {
+                        limit.release(rtt, false);
+                    }
+                    int index = completed.getAndIncrement();
+                    if (index < latencies.length()) {
+                        latencies.set(index, rtt);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 10, TimeUnit.SECONDS);
+
+        long[] sorted = new long[Math.min(completed.get(), latencies.length())];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        System.out.printf("%-10s %10d %10d %8.1f %8.1f %8s%n", mode, completed.get() / seconds, shed.get() / seconds,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+                limit != null ? String.valueOf(limit.limit()) : "-");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
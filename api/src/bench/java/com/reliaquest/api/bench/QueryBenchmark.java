@@ -0,0 +1,88 @@
+package com.reliaquest.api.bench;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.request.EmployeeQuery;
+import com.reliaquest.api.request.EmployeeQuery.SortField;
+import com.reliaquest.api.request.EmployeeQuery.SortOrder;
+import com.reliaquest.api.util.EmployeeIndex;
+
+/**
+ * Latency of selective queries through EmployeeIndex versus a full scan of the employee list.
+ *
+ * <p>{@code ./gradlew api:bench -Pbenchmark=QueryBenchmark -PbenchArgs='<employees> <iterations>'}
+ */
+public class QueryBenchmark {
+
+    private static final String[] TITLES = {"Financial Advisor", "Documentation Engineer", "Regional Director",
+            "Senior Javascript Developer", "Integration Specialist", "Accountant", "Software Engineer",
+            "Office Manager", "Sales Associate", "Technology Director"};
+
+    public static void main(String[] args) {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Random random = new Random(42);
+        List<Employee> employeeList = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            employeeList.add(new Employee(new UUID(random.nextLong(), random.nextLong()), "Employee " + i,
+                    30_000 + random.nextInt(470_000), 16 + random.nextInt(60), TITLES[random.nextInt(TITLES.length)],
+                    "employee" + i + "@company.com"));
+        }
+
+        long started = System.nanoTime();
+        EmployeeIndex index = new EmployeeIndex(employeeList);
+        System.out.printf("%d employees indexed in %.1f ms%n", employees, (System.nanoTime() - started) / 1e6);
+        System.out.printf("%-34s %8s %12s %12s%n", "query", "matches", "index us", "scan us");
+        run("salary >= 490k, by salary desc", new EmployeeQuery(
+                null, null, null, 490_000, null, SortField.SALARY, SortOrder.DESC, 20, null), employeeList, index, iterations);
+        run("engineer, age 30-40, salary >= 150k", new EmployeeQuery(
+                "Software Engineer", 30, 40, 150_000, null, SortField.SALARY, SortOrder.DESC, 20, null),
+                employeeList, index, iterations);
+        run("age 25, by name", new EmployeeQuery(
+                null, 25, 25, null, null, SortField.NAME, null, 20, null), employeeList, index, iterations);
+    }
+
+    private static void run(String name, EmployeeQuery query, List<Employee> employeeList, EmployeeIndex index,
+            int iterations) {
+        int matches = 0;
+        for (int i = 0; i < iterations; i++) {
+            matches = index.query(query, 1000).total();
+            scan(query, employeeList);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            index.query(query, 1000);
+        }
+        double indexMicros = (System.nanoTime() - started) / 1e3 / iterations;
+        started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            scan(query, employeeList);
+        }
+        double scanMicros = (System.nanoTime() - started) / 1e3 / iterations;
+        System.out.printf("%-34s %8d %12.1f %12.1f%n", name, matches, indexMicros, scanMicros);
+    }
+
+    /**
+     * What a client does without the query endpoint: filter and sort the whole list
+     */
+    private static List<Employee> scan(EmployeeQuery query, List<Employee> employeeList) {
+        Comparator<Employee> order = switch (query.sort()) {
+            case NAME -> Comparator.comparing(Employee::getName);
+            case SALARY -> Comparator.comparing(Employee::getSalary);
+            case AGE -> Comparator.comparing(Employee::getAge);
+        };
+        return employeeList.stream()
+                .filter(emp -> query.title() == null || emp.getTitle().equalsIgnoreCase(query.title()))
+                .filter(emp -> query.minAge() == null || emp.getAge() >= query.minAge())
+                .filter(emp -> query.maxAge() == null || emp.getAge() <= query.maxAge())
+                .filter(emp -> query.minSalary() == null || emp.getSalary() >= query.minSalary())
+                .sorted(query.order() == SortOrder.DESC ? order.reversed() : order)
+                .limit(query.limit())
+                .toList();
+    }
+}
@@ -0,0 +1,170 @@
+package com.reliaquest.api.bench;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time from launching the api or server to its first successful request, and its resident memory at that point, for
+ * each startup mode: plain, lazy initialization, Spring AOT, class data sharing, and all three together. Each run is a
+ * fresh JVM on the benchmark's own JDK. The api is pointed at a server started once beforehand, so its first request
+ * goes all the way to the Server API. Build the jars and archives first:
+ *
+ * <p>{@code ./gradlew bootJar cdsArchive}
+ *
+ * <p>{@code ./gradlew api:bench -Pbenchmark=StartupBenchmark -PbenchArgs='<api|server> <runs>'}
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private static final List<String> SERVER_ARGS = List.of("--mock.rate-limit.limit=1000000");
+
+    private static final HttpClient CLIENT =
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    public static void main(String[] args) throws Exception {
+        String module = args.length > 0 ? args[0] : "api";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Path build = Path.of("..", module, "build").toAbsolutePath().normalize();
+        Path bootJar = build.resolve("libs/" + module + "-1.0.0.jar");
+        Path cdsJar = build.resolve("cds/" + module + ".jar");
+        Path archive = build.resolve("cds/" + module + ".jsa");
+
+        Process server = null;
+        List<String> appArgs = new ArrayList<>();
+        String path = "/api/v1/employee";
+        if (module.equals("api")) {
+            int serverPort = freePort();
+            List<String> command = new ArrayList<>(List.of(java, "-jar", serverJar().toString()));
+            command.add("--server.port=" + serverPort);
+            command.addAll(SERVER_ARGS);
+            server = start(command);
+            firstSuccess(serverPort, path, System.nanoTime(), server);
+            appArgs.add("--api.base.uri=http://localhost:" + serverPort + "/api/v1");
+            path = "/employee";
+        } else {
+            appArgs.addAll(SERVER_ARGS);
+        }
+
+        try {
+            System.out.printf("%s, median of %d runs%n", module, runs);
+            System.out.printf("%-8s %14s %10s%n", "mode", "first ok ms", "RSS MB");
+            String lazy = "--spring.profiles.active=fast-startup";
+            run("plain", List.of(java, "-jar", bootJar.toString()), appArgs, path, runs);
+            run("lazy", List.of(java, "-jar", bootJar.toString(), lazy), appArgs, path, runs);
+            run("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", bootJar.toString()), appArgs, path, runs);
+            if (Files.exists(archive)) {
+                String sharedArchive = "-XX:SharedArchiveFile=" + archive;
+                run("cds", List.of(java, sharedArchive, "-jar", cdsJar.toString()), appArgs, path, runs);
+                run("all", List.of(java, sharedArchive, "-Dspring.aot.enabled=true", "-jar", cdsJar.toString(), lazy),
+                        appArgs, path, runs);
+            } else {
+                System.out.printf("No %s, run ./gradlew %s:cdsArchive for the cds modes%n", archive, module);
+            }
+        } finally {
+            if (server != null) {
+                server.destroy();
+                server.waitFor();
+            }
+        }
+    }
+
+    private static void run(String mode, List<String> launch, List<String> appArgs, String path, int runs)
+            throws Exception {
+        long[] millis = new long[runs];
+        long[] rssKb = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            int port = freePort();
+            List<String> command = new ArrayList<>(launch);
+            command.add("--server.port=" + port);
+            command.addAll(appArgs);
+            long started = System.nanoTime();
+            Process process = start(command);
+            try {
+                millis[i] = (firstSuccess(port, path, started, process) - started) / 1_000_000;
+                rssKb[i] = rssKb(process.pid());
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+        System.out.printf("%-8s %14d %10.1f%n", mode, median(millis), median(rssKb) / 1024.0);
+    }
+
+    /**
+     * Polls until the request succeeds
+     *
+     * @return {@link System#nanoTime()} of the first 2xx response
+     */
+    private static long firstSuccess(int port, String path, long started, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(TIMEOUT)
+                .build();
+        while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Exited with " + process.exitValue() + " before serving " + path);
+            }
+            try {
+                HttpResponse<Void> response = CLIENT.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    return System.nanoTime();
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful request within " + TIMEOUT);
+    }
+
+    /**
+     * Resident set size from /proc, or -1 where there is none
+     */
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static Process start(List<String> command) throws IOException {
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static Path serverJar() {
+        return Path.of("..", "server", "build", "libs", "server-1.0.0.jar").toAbsolutePath().normalize();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,161 @@
+package com.reliaquest.api.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.reliaquest.api.model.CapturedRequest;
+import com.reliaquest.api.util.TrafficCapture;
+
+/**
+ * Re-issues a TrafficCapture against a running api, each request at its captured arrival offset divided by
+ * {@code speed}, and reports latency percentiles per endpoint and a latency histogram. Requests are sent without waiting
+ * for earlier ones to be answered, and latency counts from when a request was due rather than when it was sent, so a
+ * slow api cannot slow the replay down and hide its own queueing. Replaying the same capture before and after a change
+ * compares them on identical traffic; the api should talk to a mock server started with a fixed
+ * {@code mock.employees.seed}, so that captured ids and names still exist.
+ *
+ * <p>{@code ./gradlew api:bench -Pbenchmark=TrafficReplay -PbenchArgs='<capture> [<api url>] [<speed>]'}
+ */
+public class TrafficReplay {
+
+    private static final Pattern UUID_SEGMENT =
+            Pattern.compile("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private static final Pattern SEARCH_SEGMENT = Pattern.compile("/search/[^/]+");
+
+    private static final List<String> RESTRICTED_HEADERS = List.of("Connection", "Content-Length", "Host", "Upgrade");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: TrafficReplay <capture> [<api url>] [<speed>]");
+            System.exit(2);
+        }
+        List<CapturedRequest> requests = new ArrayList<>(TrafficCapture.read(Path.of(args[0])));
+        String baseUrl = args.length > 1 ? args[1] : "http://localhost:8111";
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1;
+        requests.sort(Comparator.comparingLong(CapturedRequest::offsetMicros));
+        if (requests.isEmpty()) {
+            System.out.println("Capture holds no requests.");
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        List<CompletableFuture<?>> pending = new ArrayList<>(requests.size());
+        long maxLagNanos = 0;
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        for (CapturedRequest request : requests) {
+            long dueNanos = startNanos + (long) (TimeUnit.MICROSECONDS.toNanos(request.offsetMicros()) / speed);
+            for (long now = System.nanoTime(); now < dueNanos; now = System.nanoTime()) {
+                LockSupport.parkNanos(dueNanos - now);
+            }
+            maxLagNanos = Math.max(maxLagNanos, System.nanoTime() - dueNanos);
+            String endpoint = endpoint(request);
+            pending.add(client.sendAsync(toHttpRequest(baseUrl, request), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>())
+                                .add(System.nanoTime() - dueNanos);
+                        String status = failure != null ? "failed" : String.valueOf(response.statusCode());
+                        statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+                        if (failure != null || response.statusCode() >= 400) {
+                            failures.computeIfAbsent(endpoint, key -> new AtomicInteger()).incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(failure -> null).join();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        System.out.printf("%d requests from %s at %.1fx to %s in %.1f s, dispatch lag at most %.1f ms%n",
+                requests.size(), args[0], speed, baseUrl, seconds, maxLagNanos / 1e6);
+        System.out.println("statuses " + new TreeMap<>(statuses));
+        System.out.printf("%-42s %7s %7s %8s %8s %8s %8s%n", "endpoint", "count", "errors", "p50 ms", "p90 ms",
+                "p99 ms", "max ms");
+        for (Map.Entry<String, ConcurrentLinkedQueue<Long>> entry : new TreeMap<>(latencies).entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            AtomicInteger errors = failures.get(entry.getKey());
+            System.out.printf("%-42s %7d %7d %8.1f %8.1f %8.1f %8.1f%n", entry.getKey(), sorted.length,
+                    errors == null ? 0 : errors.get(), percentile(sorted, 0.5), percentile(sorted, 0.9),
+                    percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+        }
+        histogram(latencies.values().stream().flatMap(Collection::stream).mapToLong(Long::longValue).toArray());
+    }
+
+    private static HttpRequest toHttpRequest(String baseUrl, CapturedRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.uri()))
+                .method(request.method(), request.body().length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body()));
+        request.headers().forEach((name, value) -> {
+            if (RESTRICTED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                builder.header(name, value);
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Method, path with ids and search strings replaced, and query parameter names, so that requests to one handler
+     * are reported together
+     */
+    private static String endpoint(CapturedRequest request) {
+        String[] uri = request.uri().split("\\?", 2);
+        String path = UUID_SEGMENT.matcher(uri[0]).replaceAll("/{id}");
+        path = SEARCH_SEGMENT.matcher(path).replaceAll("/search/{searchString}");
+        if (uri.length > 1) {
+            path += Arrays.stream(uri[1].split("&"))
+                    .map(parameter -> parameter.split("=", 2)[0])
+                    .distinct()
+                    .sorted()
+                    .collect(Collectors.joining(",", "?", ""));
+        }
+        return request.method() + " " + path;
+    }
+
+    /**
+     * Counts per power-of-two bucket of microseconds, labelled with its upper bound and drawn to scale
+     */
+    private static void histogram(long[] latencies) {
+        int[] buckets = new int[32];
+        for (long nanos : latencies) {
+            long micros = Math.max(1, nanos / 1000);
+            buckets[Math.min(buckets.length - 1, 64 - Long.numberOfLeadingZeros(micros - 1))]++;
+        }
+        int largest = 0;
+        int first = -1;
+        int last = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            largest = Math.max(largest, buckets[i]);
+            first = first < 0 && buckets[i] > 0 ? i : first;
+            last = buckets[i] > 0 ? i : last;
+        }
+        System.out.printf("%n%12s %7s%n", "up to", "count");
+        for (int i = first; i <= last; i++) {
+            System.out.printf("%9.3f ms %7d %s%n", (1L << i) / 1000.0, buckets[i],
+                    "#".repeat((int) Math.ceil(50.0 * buckets[i] / largest)));
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+    }
+}
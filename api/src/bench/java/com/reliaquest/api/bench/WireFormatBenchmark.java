@@ -0,0 +1,77 @@
+package com.reliaquest.api.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Payload size and decode cost of one full employee list fetch, JSON versus Smile.
+ *
+ * <p>{@code ./gradlew api:bench -Pbenchmark=WireFormatBenchmark -PbenchArgs='<employees> <iterations>'}
+ */
+public class WireFormatBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Tiger", "Jill", "Bill", "Ashton", "Cedric", "Airi", "Brielle", "Herrod"};
+
+    private static final String[] LAST_NAMES = {"Nixon", "Jenkins", "Bob", "Cox", "Kelly", "Satou", "Williamson"};
+
+    private static final String[] TITLES = {"Financial Advisor", "Documentation Engineer", "Regional Director",
+            "Senior Javascript Developer", "Integration Specialist", "Accountant"};
+
+    public static void main(String[] args) throws Exception {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Map<String, Object> response = response(employees, new Random(42));
+
+        System.out.printf("%d employees, %d decodes per format%n", employees, iterations);
+        System.out.printf("%-6s %12s %14s %14s%n", "format", "bytes", "decode ms", "employees/s");
+        for (ObjectMapper mapper : List.of(new ObjectMapper(), new ObjectMapper(new SmileFactory()))) {
+            byte[] payload = mapper.writeValueAsBytes(response);
+            for (int i = 0; i < iterations; i++) {
+                mapper.readTree(payload);
+            }
+            long started = System.nanoTime();
+            long checksum = 0;
+            for (int i = 0; i < iterations; i++) {
+                JsonNode tree = mapper.readTree(payload);
+                checksum += tree.get("data").size();
+            }
+            double millis = (System.nanoTime() - started) / 1e6 / iterations;
+            System.out.printf("%-6s %12d %14.3f %14.0f%n",
+                    mapper.getFactory().getFormatName(), payload.length, millis, employees / millis * 1e3);
+            if (checksum != (long) employees * iterations) {
+                throw new IllegalStateException("Decoded " + checksum + " employees.");
+            }
+        }
+    }
+
+    /**
+     * Builds a Server API list response with the same field names and value shapes
+     */
+    private static Map<String, Object> response(int employees, Random random) {
+        List<Map<String, Object>> data = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            Map<String, Object> employee = new LinkedHashMap<>();
+            employee.put("id", new UUID(random.nextLong(), random.nextLong()).toString());
+            employee.put("employee_name", first + " " + last);
+            employee.put("employee_salary", 30_000 + random.nextInt(470_000));
+            employee.put("employee_age", 16 + random.nextInt(60));
+            employee.put("employee_title", TITLES[random.nextInt(TITLES.length)]);
+            employee.put("employee_email", (first.charAt(0) + last + i).toLowerCase() + "@company.com");
+            data.add(employee);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("data", data);
+        response.put("status", "Successfully processed request.");
+        return response;
+    }
+}
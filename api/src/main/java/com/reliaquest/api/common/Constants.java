@@ -3,6 +3,8 @@ package com.reliaquest.api.common;
 public interface Constants {
 	
     String EMPLOYEE_URI = "/employee";
+    String SALARIES_URI = "/employee/salaries";
+    String EMPLOYEE_BATCH_URI = "/employee/batch";
     String SUCCESS_MSG = "Successfully processed request.";
     String INTERNAL_SERVER_ERROR = "Internal Server Error";
     
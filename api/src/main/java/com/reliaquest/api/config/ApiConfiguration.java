@@ -1,23 +1,183 @@
 package com.reliaquest.api.config;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Ordered;
+import org.springframework.format.FormatterRegistry;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.service.EmployeeWriteQueue;
+import com.reliaquest.api.service.IEmployeeService;
+import com.reliaquest.api.service.UpstreamPool;
+import com.reliaquest.api.util.AdaptiveConcurrencyLimit;
+import com.reliaquest.api.util.EmployeeIdCache;
+import com.reliaquest.api.util.SharedRateBudget;
+import com.reliaquest.api.util.SlowRequestLog;
+import com.reliaquest.api.util.TrafficCapture;
+
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Initializes third party objects required by Service class
  */
+@Slf4j
 @Configuration
-public class ApiConfiguration {
+public class ApiConfiguration implements WebMvcConfigurer {
     @Bean
-    public RestTemplate getRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate getRestTemplate(@Value("${api.wire-format:json}") String wireFormat) {
+        RestTemplate restTemplate = new RestTemplate();
+        if ("smile".equalsIgnoreCase(wireFormat)) {
+            restTemplate.getInterceptors().add(new WireFormatInterceptor());
+        }
+        return restTemplate;
     }
 
     @Bean
     public ObjectMapper getObjectMapper() {
         return new ObjectMapper();
     }
+
+    /**
+     * Adaptive concurrency limit in front of the employee endpoints, see AdaptiveConcurrencyLimit.
+     * Switches like this one are checked when the bean is created rather than by a condition, which Spring AOT would
+     * fix at build time.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${api.limit.enabled:true}") boolean enabled,
+            @Value("${api.limit.initial:20}") int initialLimit,
+            @Value("${api.limit.min:4}") int minLimit,
+            @Value("${api.limit.max:200}") int maxLimit,
+            @Value("${api.limit.probe-interval:30s}") Duration probeInterval) {
+        if (enabled) {
+            log.info("Concurrency limit starts at {}, between {} and {}", initialLimit, minLimit, maxLimit);
+        }
+        AdaptiveConcurrencyLimit limit =
+                new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, probeInterval.toNanos());
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limit));
+        registration.addUrlPatterns("/employee/*");
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public SlowRequestLog slowRequestLog(
+            @Value("${api.timing.slow-requests:32}") int capacity,
+            @Value("${api.timing.slow-window:5m}") Duration window) {
+        return new SlowRequestLog(capacity, window.toMillis());
+    }
+
+    /**
+     * Per-phase timing of the employee endpoints, around the concurrency limit so that shed requests are timed too
+     */
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(
+            @Value("${api.timing.enabled:true}") boolean enabled, SlowRequestLog slowRequestLog) {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTimingFilter(slowRequestLog));
+        registration.addUrlPatterns("/employee/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    /**
+     * Incoming requests recorded to {@code api.capture.file} for TrafficReplay. Without a file the bean is null and
+     * nothing is captured.
+     */
+    @Bean(destroyMethod = "close")
+    public TrafficCapture trafficCapture(
+            @Value("${api.capture.file:#{null}}") Path file,
+            @Value("${api.capture.queue:10000}") int queueCapacity) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        log.info("Capturing employee requests to {}", file);
+        return new TrafficCapture(file, queueCapacity);
+    }
+
+    /**
+     * Outermost of the employee filters, so that requests shed by the concurrency limit are captured too
+     */
+    @Bean
+    public FilterRegistrationBean<TrafficCaptureFilter> trafficCaptureFilter(
+            @Value("${api.capture.max-body:65536}") int maxBody, ObjectProvider<TrafficCapture> trafficCapture) {
+        TrafficCapture capture = trafficCapture.getIfAvailable();
+        FilterRegistrationBean<TrafficCaptureFilter> registration =
+                new FilterRegistrationBean<>(new TrafficCaptureFilter(capture, maxBody));
+        registration.addUrlPatterns("/employee/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        registration.setEnabled(capture != null);
+        return registration;
+    }
+
+    /**
+     * Server API rate budget shared through {@code api.budget.file} by every api process on the host that names the
+     * same file. The defaults are the strictest limit the mock server picks at random. Without a file the bean is null,
+     * which leaves UpstreamPool without a shared budget.
+     */
+    @Bean(destroyMethod = "close")
+    public SharedRateBudget sharedRateBudget(
+            @Value("${api.budget.file:#{null}}") Path file,
+            @Value("${api.budget.limit:5}") int limit,
+            @Value("${api.budget.window:90s}") Duration window) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        log.info("Sharing a Server API budget of {} requests per {} through {}", limit, window, file);
+        return new SharedRateBudget(file, limit, window);
+    }
+
+    /**
+     * Employees by id, see EmployeeIdCache
+     */
+    @Bean
+    public EmployeeIdCache employeeIdCache(
+            @Value("${api.id-cache.max:10000}") int maxSize,
+            @Value("${api.id-cache.ttl:30s}") Duration ttl,
+            @Value("${api.id-cache.missing-ttl:5s}") Duration missingTtl) {
+        return new EmployeeIdCache(maxSize, ttl.toNanos(), missingTtl.toNanos());
+    }
+
+    /**
+     * Asynchronous creates and deletes, logged to {@code api.write-queue.file}, see EmployeeWriteQueue.
+     * Without a file the bean is null and requests asking to be answered asynchronously are written synchronously.
+     * It is created eagerly even with lazy initialization, so that writes still queued from before a restart are
+     * drained without waiting for the first asynchronous request.
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    public EmployeeWriteQueue employeeWriteQueue(
+            @Value("${api.write-queue.file:#{null}}") Path file,
+            @Value("${api.write-queue.retry-min:1s}") Duration retryMin,
+            @Value("${api.write-queue.retry-max:1m}") Duration retryMax,
+            @Value("${api.write-queue.max-completed:10000}") int maxCompleted,
+            IEmployeeService employeeService,
+            UpstreamPool upstreamPool) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        log.info("Queueing asynchronous employee writes in {}", file);
+        return new EmployeeWriteQueue(employeeService, upstreamPool, file, retryMin, retryMax, maxCompleted);
+    }
+
+    /**
+     * Lets request parameters bind to enums regardless of case, e.g. {@code sort=salary}
+     */
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        ApplicationConversionService.addApplicationConverters(registry);
+    }
 }
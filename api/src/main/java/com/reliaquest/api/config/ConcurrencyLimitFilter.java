@@ -0,0 +1,67 @@
+package com.reliaquest.api.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.ErrorResponse;
+import com.reliaquest.api.util.AdaptiveConcurrencyLimit;
+import com.reliaquest.api.util.UpstreamCalls;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds requests beyond the adaptive concurrency limit before they reach a controller or the Server API.
+ * The 503 body is serialized once, so rejecting a request costs no allocation beyond the servlet's own.
+ * The limit learns only from the request's Server API calls, recorded in UpstreamCalls: their latency, and whether a
+ * replica answered 429 or 5xx or could not be reached. A request that made no call, such as one the shared rate budget
+ * turned away or one that failed in the api itself, is released without a sample.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimit limit;
+
+    private final byte[] rejection;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit limit) {
+        this.limit = limit;
+        try {
+            this.rejection = new ObjectMapper().writeValueAsBytes(
+                    new ErrorResponse("Too many concurrent requests, retry later.", "Service Unavailable"));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(rejection.length);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.getOutputStream().write(rejection);
+            return;
+        }
+        UpstreamCalls calls = UpstreamCalls.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            calls.finish();
+            if (calls.count() > 0) {
+                limit.release(calls.nanos(), calls.overloaded());
+            } else {
+                limit.release();
+            }
+        }
+    }
+}
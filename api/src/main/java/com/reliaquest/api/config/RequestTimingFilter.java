@@ -0,0 +1,38 @@
+package com.reliaquest.api.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.reliaquest.api.util.RequestTiming;
+import com.reliaquest.api.util.SlowRequestLog;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times each request by phase, see RequestTiming, and offers it to the slow request log once it is written.
+ * The {@code Server-Timing} header itself is added by ServerTimingAdvice, just before the body is serialized.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private final SlowRequestLog slowRequests;
+
+    public RequestTimingFilter(SlowRequestLog slowRequests) {
+        this.slowRequests = slowRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            timing.finish();
+            slowRequests.record(request.getMethod(), request.getRequestURI(), response.getStatus(), timing);
+        }
+    }
+}
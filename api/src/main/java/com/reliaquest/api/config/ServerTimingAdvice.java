@@ -0,0 +1,61 @@
+package com.reliaquest.api.config;
+
+import java.util.Map;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.reliaquest.api.util.RequestTiming;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Adds the {@code Server-Timing} header of a timed request before its body is serialized, which then starts the
+ * serialize phase. The header cannot include serialization, so clients that send {@code TE: trailers} also get the
+ * complete timing as a trailer.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return body;
+        }
+        response.getHeaders().set(SERVER_TIMING, timing.serverTiming());
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse
+                && acceptsTrailers(servletRequest.getServletRequest())) {
+            servletResponse.getServletResponse()
+                    .setTrailerFields(() -> Map.of(SERVER_TIMING, timing.serverTiming()));
+        }
+        timing.serializing();
+        return body;
+    }
+
+    private static boolean acceptsTrailers(HttpServletRequest request) {
+        String te = request.getHeader("TE");
+        return te != null && te.contains("trailers") && "HTTP/1.1".equals(request.getProtocol());
+    }
+}
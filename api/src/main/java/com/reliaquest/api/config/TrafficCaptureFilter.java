@@ -0,0 +1,59 @@
+package com.reliaquest.api.config;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import com.reliaquest.api.util.TrafficCapture;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records each request to a TrafficCapture once it is answered, stamped with the time it arrived.
+ * The body is the part the controller read, up to {@code maxBody} bytes; only the headers that change how a request is
+ * answered are kept.
+ */
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final List<String> CAPTURED_HEADERS =
+            List.of(HttpHeaders.ACCEPT, HttpHeaders.CONTENT_TYPE, HttpHeaders.TE, "Prefer");
+
+    private final TrafficCapture capture;
+
+    private final int maxBody;
+
+    public TrafficCaptureFilter(TrafficCapture capture, int maxBody) {
+        this.capture = capture;
+        this.maxBody = maxBody;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long arrivalNanos = System.nanoTime();
+        ContentCachingRequestWrapper cached = new ContentCachingRequestWrapper(request, maxBody);
+        try {
+            chain.doFilter(cached, response);
+        } finally {
+            String uri = request.getQueryString() == null
+                    ? request.getRequestURI()
+                    : request.getRequestURI() + "?" + request.getQueryString();
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String name : CAPTURED_HEADERS) {
+                String value = request.getHeader(name);
+                if (value != null) {
+                    headers.put(name, value);
+                }
+            }
+            capture.record(arrivalNanos, request.getMethod(), uri, headers, cached.getContentAsByteArray());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.reliaquest.api.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Asks the Server API for Smile, a binary JSON encoding, with JSON as the fallback.
+ * Smile error bodies are transcoded back to JSON because error handling reads them as text.
+ */
+public class WireFormatInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final List<MediaType> ACCEPT = List.of(
+            APPLICATION_SMILE, MediaType.parseMediaType("application/json;q=0.9"));
+
+    private final SmileFactory smileFactory = new SmileFactory();
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        request.getHeaders().setAccept(ACCEPT);
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().isError()
+                && APPLICATION_SMILE.isCompatibleWith(response.getHeaders().getContentType())) {
+            return new JsonErrorResponse(response, transcode(response.getBody()));
+        }
+        return response;
+    }
+
+    private byte[] transcode(InputStream smile) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (var parser = smileFactory.createParser(smile);
+                var generator = jsonFactory.createGenerator(json)) {
+            if (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        return json.toByteArray();
+    }
+
+    /**
+     * Error response with its Smile body replaced by the equivalent JSON
+     */
+    private static class JsonErrorResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+
+        private final byte[] body;
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        JsonErrorResponse(ClientHttpResponse response, byte[] body) {
+            this.response = response;
+            this.body = body;
+            headers.putAll(response.getHeaders());
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
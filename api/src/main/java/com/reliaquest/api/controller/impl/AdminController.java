@@ -0,0 +1,31 @@
+package com.reliaquest.api.controller.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.reliaquest.api.model.SlowRequest;
+import com.reliaquest.api.util.SlowRequestLog;
+
+/**
+ * Controller class for operational views of the api itself
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    @Autowired
+    private SlowRequestLog slowRequestLog;
+
+    /**
+     * Slowest recent requests with the time they spent in each phase, slowest first
+     */
+    @GetMapping("/slow-requests")
+    public ResponseEntity<List<SlowRequest>> slowRequests() {
+        return ResponseEntity.ok(slowRequestLog.slowest());
+    }
+}
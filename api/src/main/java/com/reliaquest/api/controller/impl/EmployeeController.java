@@ -3,15 +3,22 @@ package com.reliaquest.api.controller.impl;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.reliaquest.api.controller.IEmployeeController;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.ProjectedEmployees;
 import com.reliaquest.api.request.CreateEmployeeRequest;
+import com.reliaquest.api.service.EmployeeDirectory;
 import com.reliaquest.api.service.EmployeeService;
 
 /**
  * Controller class that provides definition to all the endpoints
+ * Listing, searching and salary reads go through the cached EmployeeDirectory, which already holds the changes made here.
+ * With a {@code fields} parameter, listing and searching return only the named properties of each Employee.
  */
 @RestController
 @RequestMapping("/employee")
@@ -20,17 +27,31 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
 	@Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
+
     @Override
     public ResponseEntity<List<Employee>> getAllEmployees() {
-        return ResponseEntity.ok(employeeService.getAllEmployees());
+        return ResponseEntity.ok(employeeDirectory.employees());
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<ProjectedEmployees> getAllEmployees(@RequestParam String fields) {
+        return ResponseEntity.ok(employeeDirectory.employees(EmployeeService.parseFields(fields)));
     }
 
     @Override
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
-        List<Employee> employeeList = employeeService.getEmployeesByNameSearch(searchString);
+        List<Employee> employeeList = employeeDirectory.searchByName(searchString);
         return ResponseEntity.ok(employeeList);
     }
 
+    @GetMapping(value = "/search/{searchString}", params = "fields")
+    public ResponseEntity<ProjectedEmployees> getEmployeesByNameSearch(
+            @PathVariable String searchString, @RequestParam String fields) {
+        return ResponseEntity.ok(employeeDirectory.searchByName(searchString, EmployeeService.parseFields(fields)));
+    }
+
     @Override
     public ResponseEntity<Employee> getEmployeeById(String id) {
         Employee employee = employeeService.getEmployeeById(id);
@@ -39,12 +60,12 @@ public class EmployeeController implements IEmployeeController<Employee, CreateE
 
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-        return ResponseEntity.ok(employeeService.getHighestSalaryOfEmployees());
+        return ResponseEntity.ok(employeeDirectory.highestSalary());
     }
 
     @Override
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-        List<String> top10HighlyPaidEmployees = employeeService.getTopTenHighestEarningEmployeeNames();
+        List<String> top10HighlyPaidEmployees = employeeDirectory.topTenHighestEarningEmployeeNames();
         return ResponseEntity.ok(top10HighlyPaidEmployees);
     }
 
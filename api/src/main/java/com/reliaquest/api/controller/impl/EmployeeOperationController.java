@@ -0,0 +1,121 @@
+package com.reliaquest.api.controller.impl;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.reliaquest.api.model.EmployeeOperation;
+import com.reliaquest.api.model.ErrorResponse;
+import com.reliaquest.api.request.CreateEmployeeRequest;
+import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.service.EmployeeWriteQueue;
+
+/**
+ * Controller class for asynchronous creates and deletes, asked for with a {@code Prefer: respond-async} header.
+ * They are answered with 202 and the queued EmployeeOperation, whose state {@code Location} points at.
+ * The header is read as the RFC 7240 list of preferences it may be, e.g. {@code respond-async, wait=10}. Without
+ * respond-async among them, or without a configured EmployeeWriteQueue, the write is made synchronously.
+ */
+@RestController
+@RequestMapping("/employee")
+public class EmployeeOperationController {
+
+    private static final String PREFER = "Prefer";
+
+    private static final String RESPOND_ASYNC = "respond-async";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired(required = false)
+    private EmployeeWriteQueue employeeWriteQueue;
+
+    @PostMapping(headers = PREFER)
+    public ResponseEntity<?> createEmployeeAsync(
+            @RequestHeader HttpHeaders headers, @RequestBody CreateEmployeeRequest employeeRequest) {
+        if (employeeWriteQueue == null || !respondAsync(headers.get(PREFER))) {
+            return ResponseEntity.ok(employeeService.createEmployee(employeeRequest));
+        }
+        return accepted(employeeWriteQueue.create(employeeRequest));
+    }
+
+    @DeleteMapping(value = "/{id}", headers = PREFER)
+    public ResponseEntity<?> deleteEmployeeByIdAsync(@RequestHeader HttpHeaders headers, @PathVariable String id) {
+        if (employeeWriteQueue == null || !respondAsync(headers.get(PREFER))) {
+            return ResponseEntity.ok(employeeService.deleteEmployeeById(id));
+        }
+        return accepted(employeeWriteQueue.delete(id));
+    }
+
+    /**
+     * Current state of an asynchronous create or delete
+     */
+    @GetMapping("/operations/{operationId}")
+    public ResponseEntity<?> getOperation(@PathVariable String operationId) {
+        EmployeeOperation operation = null;
+        if (employeeWriteQueue != null) {
+            try {
+                operation = employeeWriteQueue.get(UUID.fromString(operationId));
+            } catch (IllegalArgumentException e) {
+                // not an operation id
+            }
+        }
+        if (operation == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("Operation " + operationId + " not found.", "Not Found"));
+        }
+        return ResponseEntity.ok(operation);
+    }
+
+    /**
+     * Whether any of the {@code Prefer} header values names respond-async. Each value is a comma separated list of
+     * preferences, a token optionally followed by {@code =value} and {@code ;parameters}, where quoted strings may hold
+     * commas.
+     */
+    static boolean respondAsync(List<String> prefer) {
+        for (String value : prefer) {
+            int start = 0;
+            boolean quoted = false;
+            for (int i = 0; i <= value.length(); i++) {
+                char c = i < value.length() ? value.charAt(i) : ',';
+                if (c == '"' && (i == 0 || value.charAt(i - 1) != '\\')) {
+                    quoted = !quoted;
+                } else if (c == ',' && !quoted) {
+                    String preference = value.substring(start, i);
+                    int end = preference.length();
+                    for (int j = 0; j < preference.length(); j++) {
+                        if (preference.charAt(j) == '=' || preference.charAt(j) == ';') {
+                            end = j;
+                            break;
+                        }
+                    }
+                    if (preference.substring(0, end).trim().equalsIgnoreCase(RESPOND_ASYNC)) {
+                        return true;
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<EmployeeOperation> accepted(EmployeeOperation operation) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/employee/operations/" + operation.id()))
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(operation);
+    }
+}
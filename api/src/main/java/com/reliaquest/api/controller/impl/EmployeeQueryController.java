@@ -0,0 +1,60 @@
+package com.reliaquest.api.controller.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.GroupAggregate;
+import com.reliaquest.api.request.EmployeeQuery;
+import com.reliaquest.api.service.EmployeeAggregator;
+import com.reliaquest.api.service.EmployeeAutocomplete;
+import com.reliaquest.api.service.EmployeeDirectory;
+
+/**
+ * Controller class for Employee queries, aggregates and autocomplete served from the cached directory
+ */
+@RestController
+@RequestMapping("/employee")
+public class EmployeeQueryController {
+
+    @Autowired
+    private EmployeeDirectory employeeDirectory;
+
+    @Autowired
+    private EmployeeAggregator employeeAggregator;
+
+    @Autowired
+    private EmployeeAutocomplete employeeAutocomplete;
+
+    /**
+     * Filters by title, age and salary range, then sorts and pages the matches
+     */
+    @GetMapping("/query")
+    public ResponseEntity<EmployeePage> queryEmployees(EmployeeQuery query) {
+        return ResponseEntity.ok(employeeDirectory.query(query));
+    }
+
+    /**
+     * Headcount and salary count, sum, min, max and average per title or age band
+     */
+    @GetMapping("/aggregate")
+    public ResponseEntity<List<GroupAggregate>> aggregateEmployees(
+            @RequestParam(defaultValue = "TITLE") EmployeeAggregator.GroupBy groupBy) {
+        return ResponseEntity.ok(employeeAggregator.aggregate(groupBy));
+    }
+
+    /**
+     * Names with a word starting with each word of the prefix, ignoring case, in alphabetical order
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> autocompleteNames(
+            @RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(employeeAutocomplete.complete(prefix, limit));
+    }
+}
@@ -0,0 +1,28 @@
+package com.reliaquest.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+
+/**
+ * Error the api answers itself, without the Server API having produced it; EmployeeExceptionHandlerAdvice turns it
+ * into an ErrorResponse with the given status
+ */
+@Getter
+public class EmployeeException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public EmployeeException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public static EmployeeException badRequest(String message) {
+        return new EmployeeException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    public static EmployeeException notFound(String message) {
+        return new EmployeeException(HttpStatus.NOT_FOUND, message);
+    }
+}
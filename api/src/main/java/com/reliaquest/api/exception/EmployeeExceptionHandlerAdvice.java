@@ -23,6 +23,12 @@ public class EmployeeExceptionHandlerAdvice {
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @ExceptionHandler(EmployeeException.class)
+    public ResponseEntity<ErrorResponse> handleEmployeeException(EmployeeException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .body(new ErrorResponse(ex.getMessage(), ex.getStatus().getReasonPhrase()));
+    }
+
     @ExceptionHandler(HttpClientErrorException.BadRequest.class)
     public ResponseEntity<ErrorResponse> handleBadRequestException(HttpClientErrorException.BadRequest ex) {
         ErrorResponse errorResponse = parseErrorResponse(ex.getResponseBodyAsString(), "Bad Request");
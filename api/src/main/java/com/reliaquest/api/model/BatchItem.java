@@ -0,0 +1,13 @@
+package com.reliaquest.api.model;
+
+/**
+ * Outcome of one element of a Server API batch request, listed in request order
+ */
+public record BatchItem<T>(Status status, T data, String error) {
+
+    public enum Status {
+        OK,
+        NOT_FOUND,
+        INVALID
+    }
+}
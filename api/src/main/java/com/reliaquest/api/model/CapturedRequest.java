@@ -0,0 +1,9 @@
+package com.reliaquest.api.model;
+
+import java.util.Map;
+
+/**
+ * Request recorded by TrafficCapture: when it arrived, in microseconds since the capture started, its method, path with
+ * query string, the headers that change how it is answered, and its body, empty if it had none
+ */
+public record CapturedRequest(long offsetMicros, String method, String uri, Map<String, String> headers, byte[] body) {}
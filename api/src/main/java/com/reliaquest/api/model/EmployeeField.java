@@ -0,0 +1,68 @@
+package com.reliaquest.api.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Employee property as named in JSON, for the {@code fields} projection of list reads
+ */
+public enum EmployeeField {
+    ID("id", Employee::getId),
+    NAME("employee_name", Employee::getName),
+    SALARY("employee_salary", Employee::getSalary),
+    AGE("employee_age", Employee::getAge),
+    TITLE("employee_title", Employee::getTitle),
+    EMAIL("employee_email", Employee::getEmail);
+
+    private final String property;
+
+    private final Function<Employee, Object> getter;
+
+    EmployeeField(String property, Function<Employee, Object> getter) {
+        this.property = property;
+        this.getter = getter;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public Object get(Employee employee) {
+        return getter.apply(employee);
+    }
+
+    /**
+     * Parses comma separated properties, with or without the employee_ prefix and ignoring case
+     *
+     * @return the named fields, or every field when none are named
+     * @throws IllegalArgumentException for a property Employee does not have
+     */
+    public static Set<EmployeeField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(EmployeeField.class);
+        }
+        Set<EmployeeField> parsed = EnumSet.noneOf(EmployeeField.class);
+        for (String name : fields.split(",")) {
+            parsed.add(of(name.trim()));
+        }
+        return parsed;
+    }
+
+    /**
+     * The fields as a {@code fields} parameter for the Server API
+     */
+    public static String join(Set<EmployeeField> fields) {
+        return fields.stream().map(EmployeeField::property).collect(Collectors.joining(","));
+    }
+
+    private static EmployeeField of(String name) {
+        for (EmployeeField field : values()) {
+            if (field.property.equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + name + ".");
+    }
+}
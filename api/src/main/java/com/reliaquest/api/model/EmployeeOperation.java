@@ -0,0 +1,68 @@
+package com.reliaquest.api.model;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.reliaquest.api.request.CreateEmployeeRequest;
+
+/**
+ * Create or delete accepted for asynchronous writing, and how it ended.
+ * A create holds its input and, once written, the created Employee and its id. A delete holds the id it was given,
+ * which may be the operation id of a create, and once written the deleted Employee.
+ * An UNKNOWN create may or may not have added an employee; its error says why it could not be told.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeeOperation(
+        UUID id,
+        Type type,
+        Status status,
+        CreateEmployeeRequest input,
+        String employeeId,
+        Employee employee,
+        String error) {
+
+    public static EmployeeOperation create(CreateEmployeeRequest input) {
+        return new EmployeeOperation(UUID.randomUUID(), Type.CREATE, Status.QUEUED, input, null, null, null);
+    }
+
+    public static EmployeeOperation delete(String employeeId) {
+        return new EmployeeOperation(UUID.randomUUID(), Type.DELETE, Status.QUEUED, null, employeeId, null, null);
+    }
+
+    public EmployeeOperation succeeded(Employee employee) {
+        String written = type == Type.CREATE && employee.getId() != null ? employee.getId().toString() : employeeId;
+        return new EmployeeOperation(id, type, Status.SUCCEEDED, input, written, employee, null);
+    }
+
+    public EmployeeOperation failed(String error) {
+        return new EmployeeOperation(id, type, Status.FAILED, input, employeeId, null, error);
+    }
+
+    public EmployeeOperation unknown(String error) {
+        return new EmployeeOperation(id, type, Status.UNKNOWN, input, employeeId, null, error);
+    }
+
+    public EmployeeOperation coalesced() {
+        return new EmployeeOperation(id, type, Status.COALESCED, input, employeeId, null, null);
+    }
+
+    public boolean queued() {
+        return status == Status.QUEUED;
+    }
+
+    public enum Type {
+        CREATE,
+        DELETE
+    }
+
+    public enum Status {
+        /** Waiting to be written, or being written */
+        QUEUED,
+        SUCCEEDED,
+        FAILED,
+        /** A create deleted before it was written, and that delete; neither reached the Server API */
+        COALESCED,
+        /** A create retried after an attempt that may have reached the Server API, when that could not be settled */
+        UNKNOWN
+    }
+}
@@ -0,0 +1,8 @@
+package com.reliaquest.api.model;
+
+import java.util.List;
+
+/**
+ * One page of Employee query results with the total number of matches
+ */
+public record EmployeePage(int total, int offset, List<Employee> employees) {}
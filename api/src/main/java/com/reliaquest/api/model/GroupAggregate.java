@@ -0,0 +1,8 @@
+package com.reliaquest.api.model;
+
+/**
+ * Headcount and salary statistics of one group of Employees.
+ * Salary statistics cover the employees with a known salary and are null when there are none.
+ */
+public record GroupAggregate(
+        String group, int count, long totalSalary, Integer minSalary, Integer maxSalary, Double averageSalary) {}
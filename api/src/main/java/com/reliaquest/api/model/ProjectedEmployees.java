@@ -0,0 +1,40 @@
+package com.reliaquest.api.model;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Employees written as a JSON array holding only the requested fields of each.
+ * The other properties of the Employees are not read, so they may be left unset.
+ */
+@JsonSerialize(using = ProjectedEmployees.Serializer.class)
+public record ProjectedEmployees(List<Employee> employees, Set<EmployeeField> fields) {
+
+    static class Serializer extends StdSerializer<ProjectedEmployees> {
+
+        Serializer() {
+            super(ProjectedEmployees.class);
+        }
+
+        @Override
+        public void serialize(ProjectedEmployees value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartArray();
+            for (Employee employee : value.employees()) {
+                generator.writeStartObject();
+                for (EmployeeField field : value.fields()) {
+                    generator.writeFieldName(field.property());
+                    provider.defaultSerializeValue(field.get(employee), generator);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
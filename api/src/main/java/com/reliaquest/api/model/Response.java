@@ -2,11 +2,10 @@ package com.reliaquest.api.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.JsonNode;
 
 /**
- * Response record for Server API interaction
+ * Response record for Server API interaction, with the data decoded into its type while the body is read
  */
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 @JsonIgnoreProperties(ignoreUnknown = true)
-public record Response(JsonNode data, String status, String error) {}
+public record Response<T>(T data, String status, String error) {}
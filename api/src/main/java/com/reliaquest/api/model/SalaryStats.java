@@ -0,0 +1,8 @@
+package com.reliaquest.api.model;
+
+import java.util.List;
+
+/**
+ * Employee count, salary range and top earners as aggregated by the Server API
+ */
+public record SalaryStats(int count, Integer minSalary, Integer maxSalary, List<Employee> topEarners) {}
@@ -0,0 +1,9 @@
+package com.reliaquest.api.model;
+
+import java.util.Map;
+
+/**
+ * One of the slowest recent api requests, with the milliseconds it spent in each phase
+ */
+public record SlowRequest(
+        String method, String path, int status, String finishedAt, double totalMillis, Map<String, Double> phases) {}
@@ -0,0 +1,28 @@
+package com.reliaquest.api.request;
+
+/**
+ * Request record for Employee query endpoint, bound from query parameters.
+ * Unset bounds are open, ranges are inclusive and title matches ignore case.
+ */
+public record EmployeeQuery(
+        String title,
+        Integer minAge,
+        Integer maxAge,
+        Integer minSalary,
+        Integer maxSalary,
+        SortField sort,
+        SortOrder order,
+        Integer limit,
+        Integer offset) {
+
+    public enum SortField {
+        NAME,
+        SALARY,
+        AGE
+    }
+
+    public enum SortOrder {
+        ASC,
+        DESC
+    }
+}
@@ -1,19 +1,29 @@
 package com.reliaquest.api.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.reliaquest.api.request.CreateEmployeeRequest;
-import com.reliaquest.api.request.DeleteEmployeeRequest;
+import com.reliaquest.api.util.Upstream;
 
 /**
- * Component class to handle interaction with Server API
+ * Component class to handle interaction with Server API.
+ * Reads are spread over the replicas in UpstreamPool and retried on another replica after a 429, 5xx or connection
+ * failure. Writes always go to the primary replica, and a 404 from another replica is checked against the primary,
+ * which has every write.
  */
 @Component
 public class ApiService {
@@ -21,29 +31,61 @@ public class ApiService {
     @Autowired
     private RestTemplate restTemplate;
 
-    @Value("${api.base.uri}")
-    private String apiBaseUri;
+    @Autowired
+    private UpstreamPool upstreamPool;
 
     /**
-     * Makes GET call to Server API endpoint
+     * Makes GET call to Server API endpoint, decoding the body straight into the given type
      */
-    public ResponseEntity<JsonNode> get(String endpointUri) {
-        return restTemplate.getForEntity(apiBaseUri + endpointUri, JsonNode.class);
+    public <T> ResponseEntity<T> get(String endpointUri, ParameterizedTypeReference<T> responseType) {
+        return read(baseUri -> restTemplate.exchange(baseUri + endpointUri, HttpMethod.GET, null, responseType));
     }
 
     /**
      * Makes post call to Server API endpoint with given post body
      */
-    public ResponseEntity<JsonNode> post(String endpointUri, CreateEmployeeRequest employeeRequest) {
-        return restTemplate.postForEntity(apiBaseUri + endpointUri, employeeRequest, JsonNode.class);
+    public <T> ResponseEntity<T> post(
+            String endpointUri, CreateEmployeeRequest employeeRequest, ParameterizedTypeReference<T> responseType) {
+        HttpEntity<CreateEmployeeRequest> employeeCreateRequest = new HttpEntity<>(employeeRequest);
+        return upstreamPool.call(
+                upstreamPool.primary(),
+                baseUri -> restTemplate.exchange(
+                        baseUri + endpointUri, HttpMethod.POST, employeeCreateRequest, responseType));
     }
 
     /**
-     * Makes delete call to Server API endpoint with employee name to be deleted
+     * Makes delete call to a Server API batch endpoint with the ids of the employees to be deleted.
+     * Deleting by id rather than by name never removes another employee that has the same name.
      */
-    public ResponseEntity<JsonNode> delete(String endpointUri, String name) {
-        HttpEntity<DeleteEmployeeRequest> employeeDeleteRequest = new HttpEntity<>(new DeleteEmployeeRequest(name));
-        return restTemplate.exchange(
-                apiBaseUri + endpointUri, HttpMethod.DELETE, employeeDeleteRequest, JsonNode.class);
+    public <T> ResponseEntity<T> delete(
+            String endpointUri, List<UUID> ids, ParameterizedTypeReference<T> responseType) {
+        HttpEntity<List<UUID>> employeeDeleteRequest = new HttpEntity<>(ids);
+        return upstreamPool.call(
+                upstreamPool.primary(),
+                baseUri -> restTemplate.exchange(
+                        baseUri + endpointUri, HttpMethod.DELETE, employeeDeleteRequest, responseType));
+    }
+
+    private <T> ResponseEntity<T> read(Function<String, ResponseEntity<T>> call) {
+        List<Upstream> tried = new ArrayList<>();
+        Upstream upstream = upstreamPool.choose(tried);
+        while (true) {
+            try {
+                return upstreamPool.call(upstream, call);
+            } catch (HttpClientErrorException.NotFound e) {
+                Upstream primary = upstreamPool.primary();
+                if (primary == upstream || tried.contains(primary)) {
+                    throw e;
+                }
+                tried.add(upstream);
+                upstream = primary;
+            } catch (HttpClientErrorException.TooManyRequests | HttpServerErrorException | ResourceAccessException e) {
+                tried.add(upstream);
+                upstream = upstreamPool.choose(tried);
+                if (upstream == null) {
+                    throw e;
+                }
+            }
+        }
     }
 }
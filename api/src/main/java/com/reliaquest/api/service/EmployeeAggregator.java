@@ -0,0 +1,127 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.reliaquest.api.model.GroupAggregate;
+import com.reliaquest.api.util.EmployeeAggregates;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group-by aggregates over the EmployeeDirectory.
+ * Built once from the directory snapshot, then kept current by applying each EmployeeChangedEvent to the affected
+ * groups, so reads cost O(groups). Rebuilt after {@code api.aggregate.resync} to pick up changes made outside this API.
+ * Events with a version the directory view already held when the aggregates were built are skipped.
+ * A rebuild fetches the view and aggregates it outside the lock events are applied under, so writes never wait for a
+ * reload; events that arrive meanwhile are recorded and applied to the new aggregates once they are swapped in.
+ */
+@Slf4j
+@Service
+public class EmployeeAggregator {
+
+    public enum GroupBy {
+        TITLE,
+        AGE_BAND
+    }
+
+    private final EmployeeDirectory employeeDirectory;
+
+    private final int ageBandWidth;
+
+    private final long resyncNanos;
+
+    private final Object rebuildLock = new Object();
+
+    private EmployeeAggregates aggregates;
+
+    /** Events received while a rebuild runs, null otherwise */
+    private List<EmployeeChangedEvent> racing;
+
+    private long builtAtNanos;
+
+    private long version;
+
+    public EmployeeAggregator(
+            EmployeeDirectory employeeDirectory,
+            @Value("${api.aggregate.age-band:10}") int ageBandWidth,
+            @Value("${api.aggregate.resync:1m}") Duration resync) {
+        this.employeeDirectory = employeeDirectory;
+        this.ageBandWidth = ageBandWidth;
+        this.resyncNanos = resync.toNanos();
+    }
+
+    /**
+     * Aggregates salaries per group
+     *
+     * @param groupBy grouping dimension
+     * @return one aggregate per non-empty group, ordered by group
+     */
+    public List<GroupAggregate> aggregate(GroupBy groupBy) {
+        synchronized (this) {
+            if (isFresh()) {
+                return aggregated(groupBy);
+            }
+        }
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                if (isFresh()) {
+                    return aggregated(groupBy);
+                }
+                racing = new ArrayList<>();
+            }
+            try {
+                long started = System.nanoTime();
+                EmployeeDirectory.View view = employeeDirectory.view();
+                EmployeeAggregates built = new EmployeeAggregates(ageBandWidth, view.index().store());
+                synchronized (this) {
+                    aggregates = built;
+                    version = view.version();
+                    racing.forEach(this::apply);
+                    builtAtNanos = System.nanoTime();
+                    log.info("Aggregated {} employees in {} ms", built.size(), (builtAtNanos - started) / 1_000_000);
+                    return aggregated(groupBy);
+                }
+            } finally {
+                synchronized (this) {
+                    racing = null;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (racing != null) {
+            racing.add(event);
+        }
+        apply(event);
+    }
+
+    private boolean isFresh() {
+        return aggregates != null && System.nanoTime() - builtAtNanos < resyncNanos;
+    }
+
+    private List<GroupAggregate> aggregated(GroupBy groupBy) {
+        return switch (groupBy) {
+            case TITLE -> aggregates.byTitle();
+            case AGE_BAND -> aggregates.byAgeBand();
+        };
+    }
+
+    private void apply(EmployeeChangedEvent event) {
+        if (aggregates == null || event.version() <= version) {
+            return;
+        }
+        version = event.version();
+        switch (event.type()) {
+            case CREATED -> aggregates.add(event.employee());
+            case DELETED -> aggregates.remove(event.employee().getId());
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.reliaquest.api.util.CompactEmployees;
+import com.reliaquest.api.util.NameTrie;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Name autocomplete over the EmployeeDirectory.
+ * A NameTrie is built from the directory snapshot and counts employees per name. Each EmployeeChangedEvent adjusts
+ * the counts, and new names go to a small sorted overlay until there are {@code api.autocomplete.max-pending} of them;
+ * the trie is then rebuilt, as it is after {@code api.autocomplete.resync}. Events the trie was built with are skipped.
+ * A rebuild fetches the view and builds the trie outside the lock events are applied under, so writes never wait for a
+ * reload; events that arrive meanwhile are recorded and applied to the new trie once it is swapped in.
+ */
+@Slf4j
+@Service
+public class EmployeeAutocomplete {
+
+    private final EmployeeDirectory employeeDirectory;
+
+    private final int maxLimit;
+
+    private final int maxPending;
+
+    private final long resyncNanos;
+
+    private final Object rebuildLock = new Object();
+
+    private NameTrie trie;
+
+    private int[] counts;
+
+    private final TreeMap<String, Integer> added = new TreeMap<>(NameTrie.NAME_ORDER);
+
+    private int pending;
+
+    private long builtAtNanos;
+
+    private long version;
+
+    /** Events received while a rebuild runs, null otherwise */
+    private List<EmployeeChangedEvent> racing;
+
+    public EmployeeAutocomplete(
+            EmployeeDirectory employeeDirectory,
+            @Value("${api.autocomplete.max-limit:20}") int maxLimit,
+            @Value("${api.autocomplete.max-pending:1000}") int maxPending,
+            @Value("${api.autocomplete.resync:1m}") Duration resync) {
+        this.employeeDirectory = employeeDirectory;
+        this.maxLimit = maxLimit;
+        this.maxPending = maxPending;
+        this.resyncNanos = resync.toNanos();
+    }
+
+    /**
+     * Suggests employee names for a prefix
+     *
+     * @param prefix text typed so far; every word in it must start a word of the name, ignoring case
+     * @param limit maximum number of names, capped at {@code api.autocomplete.max-limit}
+     * @return distinct names in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> queryWords = NameTrie.words(prefix);
+        int max = Math.min(limit, maxLimit);
+        if (queryWords.isEmpty() || max <= 0) {
+            return List.of();
+        }
+        synchronized (this) {
+            if (isFresh()) {
+                return complete(queryWords, max);
+            }
+        }
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                if (isFresh()) {
+                    return complete(queryWords, max);
+                }
+                racing = new ArrayList<>();
+            }
+            try {
+                rebuild();
+                synchronized (this) {
+                    return complete(queryWords, max);
+                }
+            } finally {
+                synchronized (this) {
+                    racing = null;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (racing != null) {
+            racing.add(event);
+        }
+        apply(event);
+    }
+
+    private boolean isFresh() {
+        return trie != null && pending <= maxPending && System.nanoTime() - builtAtNanos < resyncNanos;
+    }
+
+    private List<String> complete(List<String> queryWords, int max) {
+        List<String> names = new ArrayList<>(max);
+        for (int rank : trie.complete(queryWords, max, rank -> counts[rank] > 0)) {
+            names.add(trie.name(rank));
+        }
+        for (String name : added.keySet()) {
+            if (NameTrie.matches(name, queryWords)) {
+                int at = 0;
+                while (at < names.size() && NameTrie.NAME_ORDER.compare(names.get(at), name) < 0) {
+                    at++;
+                }
+                if (at < max) {
+                    names.add(at, name);
+                }
+                if (names.size() > max) {
+                    names.remove(max);
+                }
+            }
+        }
+        return names;
+    }
+
+    private void apply(EmployeeChangedEvent event) {
+        String name = event.employee().getName();
+        if (trie == null || name == null || event.version() <= version) {
+            return;
+        }
+        version = event.version();
+        int delta = event.type() == EmployeeChangedEvent.Type.CREATED ? 1 : -1;
+        int rank = trie.rank(name);
+        if (rank >= 0) {
+            counts[rank] = Math.max(0, counts[rank] + delta);
+        } else if (delta > 0) {
+            added.merge(name, 1, Integer::sum);
+        } else {
+            added.computeIfPresent(name, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        pending++;
+    }
+
+    /**
+     * Builds a trie from the directory view without holding the lock, then swaps it in and applies the events that
+     * raced the build
+     */
+    private void rebuild() {
+        long started = System.nanoTime();
+        EmployeeDirectory.View view = employeeDirectory.view();
+        CompactEmployees employees = view.index().store();
+        Map<String, Integer> employeesByName = new HashMap<>();
+        for (int row = 0; row < employees.rows(); row++) {
+            String name = employees.name(row);
+            if (name != null && !employees.isDeleted(row)) {
+                employeesByName.merge(name, 1, Integer::sum);
+            }
+        }
+        NameTrie built = new NameTrie(employeesByName.keySet(), maxLimit);
+        int[] builtCounts = new int[built.size()];
+        employeesByName.forEach((name, count) -> builtCounts[built.rank(name)] = count);
+        synchronized (this) {
+            trie = built;
+            counts = builtCounts;
+            added.clear();
+            pending = 0;
+            version = view.version();
+            racing.forEach(this::apply);
+            builtAtNanos = System.nanoTime();
+        }
+        log.info(
+                "Indexed {} names in {} ms, {} trie nodes, ~{} KB",
+                built.size(),
+                (System.nanoTime() - started) / 1_000_000,
+                built.nodes(),
+                built.footprintBytes() / 1024);
+    }
+}
@@ -0,0 +1,16 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.model.Employee;
+
+/**
+ * Published by EmployeeService after an Employee is created or deleted through the Server API.
+ * Versions start at 1 and are published in increasing order, so a listener that has seen a version has seen all
+ * earlier ones.
+ */
+public record EmployeeChangedEvent(Type type, Employee employee, long version) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
@@ -0,0 +1,294 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeField;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.ProjectedEmployees;
+import com.reliaquest.api.request.EmployeeQuery;
+import com.reliaquest.api.util.CompactEmployees;
+import com.reliaquest.api.util.EmployeeIndex;
+import com.reliaquest.api.util.RequestTiming;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cached, indexed view of all employees for reads.
+ * The view is reloaded from the Server API once it is older than {@code api.directory.ttl}; if a reload fails, the
+ * previous view keeps serving for another TTL. Changes made through this API are written through instead: each
+ * EmployeeChangedEvent is logged by version and folded into the view on the next read, without a reload: created
+ * employees are appended to the compact store and its indexes, and deleted ones left behind as tombstones until the
+ * next reload rebuilds the view from scratch. A reload
+ * remembers the last version published before its fetch started, and the changes after it are applied again on top
+ * of the fetched employees, so a write that raced the fetch does not disappear and come back.
+ * Reads of some fields only are answered from the view while it is fresh; otherwise just those fields are fetched,
+ * and the view is left to the next full read.
+ */
+@Slf4j
+@Service
+public class EmployeeDirectory {
+
+    private final IEmployeeService employeeService;
+
+    private final long ttlNanos;
+
+    private final int maxLimit;
+
+    private final ConcurrentSkipListMap<Long, EmployeeChangedEvent> changes = new ConcurrentSkipListMap<>();
+
+    private volatile long latestVersion;
+
+    private volatile Snapshot snapshot;
+
+    public EmployeeDirectory(
+            IEmployeeService employeeService,
+            @Value("${api.directory.ttl:5s}") Duration ttl,
+            @Value("${api.directory.max-limit:1000}") int maxLimit) {
+        this.employeeService = employeeService;
+        this.ttlNanos = ttl.toNanos();
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Runs a query against the current view
+     *
+     * @param query filters, sort and page
+     * @return page of matching Employees
+     */
+    public EmployeePage query(EmployeeQuery query) {
+        EmployeeIndex index = index();
+        long started = System.nanoTime();
+        EmployeePage page = index.query(query, maxLimit);
+        RequestTiming.record(RequestTiming.Phase.PROCESS, started);
+        return page;
+    }
+
+    /**
+     * All employees in the current view, in Server API order followed by those created since the last reload
+     */
+    public List<Employee> employees() {
+        return select(index().store(), null, null);
+    }
+
+    /**
+     * The given fields of all employees, from the view while it is fresh, otherwise fetched from the Server API
+     */
+    public ProjectedEmployees employees(Set<EmployeeField> fields) {
+        EmployeeIndex warm = warmIndex();
+        List<Employee> employees = warm == null
+                ? employeeService.getAllEmployees(fields)
+                : select(warm.store(), null, fields);
+        return new ProjectedEmployees(employees, fields);
+    }
+
+    /**
+     * Employees in the current view whose name contains the search string, ignoring case
+     */
+    public List<Employee> searchByName(String searchString) {
+        return select(index().store(), searchString, null);
+    }
+
+    /**
+     * The given fields of employees whose name contains the search string, from the view while it is fresh,
+     * otherwise fetched from the Server API
+     */
+    public ProjectedEmployees searchByName(String searchString, Set<EmployeeField> fields) {
+        EmployeeIndex warm = warmIndex();
+        List<Employee> matches = warm == null
+                ? employeeService.getEmployeesByNameSearch(searchString, fields)
+                : select(warm.store(), searchString, fields);
+        return new ProjectedEmployees(matches, fields);
+    }
+
+    /**
+     * Highest salary from the view while it is fresh, otherwise aggregated by the Server API
+     */
+    public Integer highestSalary() {
+        EmployeeIndex warm = warmIndex();
+        if (warm == null) {
+            return employeeService.getHighestSalaryOfEmployees();
+        }
+        List<Employee> highest = topEarners(warm, 1);
+        return highest.isEmpty() ? null : highest.get(0).getSalary();
+    }
+
+    /**
+     * Names of the ten highest earners from the view while it is fresh, otherwise aggregated by the Server API
+     */
+    public List<String> topTenHighestEarningEmployeeNames() {
+        EmployeeIndex warm = warmIndex();
+        if (warm == null) {
+            return employeeService.getTopTenHighestEarningEmployeeNames();
+        }
+        return topEarners(warm, 10).stream().map(Employee::getName).toList();
+    }
+
+    public EmployeeIndex index() {
+        return view().index();
+    }
+
+    /**
+     * Returns the current view, first reloading it if it is stale or folding in changes it has not seen
+     */
+    public View view() {
+        Snapshot current = snapshot;
+        if (current != null && current.isFresh(ttlNanos) && current.view().version() == latestVersion) {
+            return current.view();
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && current.isFresh(ttlNanos)) {
+                if (current.view().version() != latestVersion) {
+                    snapshot = new Snapshot(apply(current.view()), current.loadedAtNanos());
+                }
+                return snapshot.view();
+            }
+            long fetchVersion = latestVersion;
+            try {
+                long started = System.nanoTime();
+                List<Employee> employees = employeeService.getAllEmployees();
+                changes.headMap(fetchVersion, true).clear();
+                View view = apply(new View(new EmployeeIndex(employees), fetchVersion));
+                log.info(
+                        "Indexed {} employees in {} ms, ~{} KB",
+                        view.index().size(),
+                        (System.nanoTime() - started) / 1_000_000,
+                        view.index().store().footprintBytes() / 1024);
+                snapshot = new Snapshot(view, System.nanoTime());
+                return view;
+            } catch (RuntimeException e) {
+                if (current == null) {
+                    throw e;
+                }
+                log.warn("Failed to reload employees, serving previous snapshot: {}", e.getMessage());
+                snapshot = new Snapshot(apply(current.view()), System.nanoTime());
+                return snapshot.view();
+            }
+        }
+    }
+
+    /**
+     * The view if it can be read without fetching every employee, or null
+     */
+    private EmployeeIndex warmIndex() {
+        Snapshot current = snapshot;
+        return current != null && current.isFresh(ttlNanos) ? view().index() : null;
+    }
+
+    /**
+     * Materializes the rows whose name contains the search string, or all rows when it is null.
+     * Null fields materialize whole employees.
+     */
+    private List<Employee> select(CompactEmployees store, String searchString, Set<EmployeeField> fields) {
+        long started = System.nanoTime();
+        String searchStringLowerCase = searchString != null ? searchString.toLowerCase() : null;
+        List<Employee> employees = new ArrayList<>(searchString == null ? store.size() : 10);
+        for (int row = 0; row < store.rows(); row++) {
+            if (store.isDeleted(row)) {
+                continue;
+            }
+            if (searchStringLowerCase != null) {
+                String name = store.name(row);
+                if (name == null || !name.toLowerCase().contains(searchStringLowerCase)) {
+                    continue;
+                }
+            }
+            employees.add(fields == null ? store.employee(row) : store.employee(row, fields));
+        }
+        RequestTiming.record(RequestTiming.Phase.PROCESS, started);
+        return employees;
+    }
+
+    private List<Employee> topEarners(EmployeeIndex index, int limit) {
+        long started = System.nanoTime();
+        List<Employee> employees = index.topBySalary(limit);
+        RequestTiming.record(RequestTiming.Phase.PROCESS, started);
+        return employees;
+    }
+
+    /**
+     * Logs a change made through this API; the next read applies it
+     */
+    @Order(0)
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        changes.put(event.version(), event);
+        latestVersion = Math.max(latestVersion, event.version());
+    }
+
+    /**
+     * Applies the logged changes newer than the view's version. Creates replace an employee with the same id and
+     * deletes remove it, so applying a change the view already holds leaves it as it is. Replaced and deleted rows are
+     * tombstoned, and new or replaced employees appended in the order they were created.
+     */
+    private View apply(View view) {
+        NavigableMap<Long, EmployeeChangedEvent> newer = new TreeMap<>(changes.tailMap(view.version(), false));
+        if (newer.isEmpty()) {
+            return view;
+        }
+        CompactEmployees store = view.index().store();
+        Map<UUID, Employee> created = new LinkedHashMap<>();
+        Set<UUID> touched = new HashSet<>();
+        for (EmployeeChangedEvent change : newer.values()) {
+            UUID id = change.employee().getId();
+            if (id == null) {
+                continue;
+            }
+            touched.add(id);
+            if (change.type() == EmployeeChangedEvent.Type.CREATED) {
+                created.put(id, change.employee());
+            } else {
+                created.remove(id);
+            }
+        }
+        BitSet deleted = new BitSet();
+        for (int row : store.rowsWithIds(touched)) {
+            Employee employee = created.get(store.id(row));
+            if (employee != null && employee.equals(store.employee(row))) {
+                created.remove(employee.getId());
+            } else {
+                deleted.set(row);
+            }
+        }
+        if (deleted.isEmpty() && created.isEmpty()) {
+            return new View(view.index(), newer.lastKey());
+        }
+        EmployeeIndex index = view.index().with(deleted, new ArrayList<>(created.values()));
+        log.debug(
+                "Applied changes up to version {}: {} rows deleted, {} appended, {} employees",
+                newer.lastKey(),
+                deleted.cardinality(),
+                created.size(),
+                index.size());
+        return new View(index, newer.lastKey());
+    }
+
+    /**
+     * Indexed employees including every change up to {@code version}
+     */
+    public record View(EmployeeIndex index, long version) {}
+
+    private record Snapshot(View view, long loadedAtNanos) {
+
+        boolean isFresh(long ttlNanos) {
+            return System.nanoTime() - loadedAtNanos < ttlNanos;
+        }
+    }
+}
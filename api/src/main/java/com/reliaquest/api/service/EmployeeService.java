@@ -1,17 +1,29 @@
 package com.reliaquest.api.service;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.reliaquest.api.common.Constants;
+import com.reliaquest.api.exception.EmployeeException;
 import com.reliaquest.api.exception.ErrorResponseBuilder;
+import com.reliaquest.api.model.BatchItem;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeField;
 import com.reliaquest.api.model.Response;
+import com.reliaquest.api.model.SalaryStats;
 import com.reliaquest.api.request.CreateEmployeeRequest;
+import com.reliaquest.api.util.EmployeeIdCache;
 import com.reliaquest.api.util.EmployeeProcessor;
+import com.reliaquest.api.util.RequestTiming;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -20,12 +32,33 @@ public class EmployeeService implements IEmployeeService {
 
     private final ApiService apiService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EmployeeIdCache employeeIdCache;
+
     private final EmployeeProcessor employeeProcessor = new EmployeeProcessor();
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public EmployeeService(ApiService apiService) {
+    private final ParameterizedTypeReference<Response<List<Employee>>> employeesResponse =
+            responseType(new TypeReference<List<Employee>>() {});
+
+    private final ParameterizedTypeReference<Response<Employee>> employeeResponse =
+            responseType(new TypeReference<Employee>() {});
+
+    private final ParameterizedTypeReference<Response<SalaryStats>> salaryStatsResponse =
+            responseType(new TypeReference<SalaryStats>() {});
+
+    private final ParameterizedTypeReference<Response<List<BatchItem<Employee>>>> batchResponse =
+            responseType(new TypeReference<List<BatchItem<Employee>>>() {});
+
+    private long version;
+
+    public EmployeeService(
+            ApiService apiService, ApplicationEventPublisher eventPublisher, EmployeeIdCache employeeIdCache) {
 		this.apiService = apiService;
+		this.eventPublisher = eventPublisher;
+		this.employeeIdCache = employeeIdCache;
     	
     }
     
@@ -38,8 +71,26 @@ public class EmployeeService implements IEmployeeService {
     @Override
     public List<Employee> getAllEmployees() {
         log.info("Fetching All employees from server API");
-        ResponseEntity<JsonNode> responseEntity = apiService.get(Constants.EMPLOYEE_URI);
-        return processResponse(responseEntity, new TypeReference<List<Employee>>() {});
+        ResponseEntity<Response<List<Employee>>> responseEntity =
+                apiService.get(Constants.EMPLOYEE_URI, employeesResponse);
+        List<Employee> employees = processResponse(responseEntity);
+        employeeIdCache.refresh(employees);
+        return employees;
+    }
+
+    /**
+     * Fetches only the given fields of all employees; the others are left null.
+     * Partial employees are not put in the id cache.
+     *
+     * @param fields fields to fetch
+     * @return List of Employees
+     */
+    @Override
+    public List<Employee> getAllEmployees(Set<EmployeeField> fields) {
+        log.info("Fetching fields {} of all employees from server API", fields);
+        ResponseEntity<Response<List<Employee>>> responseEntity =
+                apiService.get(Constants.EMPLOYEE_URI + "?fields=" + EmployeeField.join(fields), employeesResponse);
+        return processResponse(responseEntity);
     }
 
     /**
@@ -50,45 +101,94 @@ public class EmployeeService implements IEmployeeService {
      */
     @Override
     public List<Employee> getEmployeesByNameSearch(String searchString) {
+        return matchingName(getAllEmployees(), searchString);
+    }
+
+    /**
+     * Fetches the given fields, and the name to match on, of all employees and keeps those matching the search string
+     *
+     * @param searchString String to search in employee names
+     * @param fields       fields to fetch
+     * @return List of Employees
+     */
+    @Override
+    public List<Employee> getEmployeesByNameSearch(String searchString, Set<EmployeeField> fields) {
+        Set<EmployeeField> fetched = EnumSet.copyOf(fields);
+        fetched.add(EmployeeField.NAME);
+        return matchingName(getAllEmployees(fetched), searchString);
+    }
+
+    private List<Employee> matchingName(List<Employee> employeeList, String searchString) {
         String searchStringLowerCase = searchString.toLowerCase();
-        List<Employee> employeeList = getAllEmployees();
-        return employeeProcessor.getAllEmployeesWithMatchingName(employeeList, searchStringLowerCase);
+        long started = System.nanoTime();
+        List<Employee> matches = employeeProcessor.getAllEmployeesWithMatchingName(employeeList, searchStringLowerCase);
+        RequestTiming.record(RequestTiming.Phase.PROCESS, started);
+        return matches;
     }
 
     /**
-     * Fetches Employee with given Id
+     * Fetches Employee with given Id, from the id cache when it holds the id.
+     * Ids that are not UUIDs are rejected without calling the Server API.
      *
      * @param id Employee ID
      * @return Employee
      */
     @Override
     public Employee getEmployeeById(String id) {
+        UUID uuid = parseId(id);
+        EmployeeIdCache.Entry cached = employeeIdCache.get(uuid);
+        if (cached != null) {
+            if (cached.missing()) {
+                throw EmployeeException.notFound("Employee " + uuid + " not found.");
+            }
+            return cached.employee();
+        }
         log.info("Fetching Employee with given ID: {}", id);
-        ResponseEntity<?> responseEntity = apiService.get(Constants.EMPLOYEE_URI + "/" + id);
-        return processResponse(responseEntity, new TypeReference<>() {});
+        Employee employee;
+        try {
+            ResponseEntity<Response<Employee>> responseEntity =
+                    apiService.get(Constants.EMPLOYEE_URI + "/" + uuid, employeeResponse);
+            employee = processResponse(responseEntity);
+        } catch (HttpClientErrorException.NotFound e) {
+            employeeIdCache.putMissing(uuid);
+            throw EmployeeException.notFound("Employee " + uuid + " not found.");
+        }
+        employeeIdCache.put(employee);
+        return employee;
     }
 
     /**
-     * Fetches highest salary out of all Employees
+     * Fetches highest salary out of all Employees, aggregated by the Server API
      *
      * @return Highest salary
      */
     @Override
     public Integer getHighestSalaryOfEmployees() {
-        List<Employee> employeeList = getAllEmployees();
-        return employeeProcessor.getHighestSalaryOfAllEmployees(employeeList);
+        return getSalaryStats(0).maxSalary();
     }
 
     /**
-     * Fetches top ten employees with Highest salary
+     * Fetches top ten employees with Highest salary, aggregated by the Server API
      *
      * @return List of Employee names
      */
     @Override
     public List<String> getTopTenHighestEarningEmployeeNames() {
-        List<Employee> employeeList = getAllEmployees();
-        List<String> sortedEmployeeNames = employeeProcessor.getEmployeesNamesSortedBySalary(employeeList);
-        return sortedEmployeeNames.subList(0, Math.min(sortedEmployeeNames.size(), 10));
+        return getSalaryStats(10).topEarners().stream().map(Employee::getName).toList();
+    }
+
+    /**
+     * Fetches salary aggregates instead of every employee; the top earners also go to the id cache
+     *
+     * @param top number of top earners to include
+     * @return count, salary range and top earners
+     */
+    public SalaryStats getSalaryStats(int top) {
+        ResponseEntity<Response<SalaryStats>> responseEntity =
+                apiService.get(Constants.SALARIES_URI + "?top=" + top, salaryStatsResponse);
+        SalaryStats salaryStats = processResponse(responseEntity);
+        salaryStats.topEarners().forEach(employeeIdCache::put);
+        return salaryStats;
     }
 
     /**
@@ -100,8 +200,12 @@ public class EmployeeService implements IEmployeeService {
     @Override
     public Employee createEmployee(CreateEmployeeRequest employeeRequest) {
         log.info("Creating employee with provided parameters: {}", employeeRequest);
-        ResponseEntity<JsonNode> responseEntity = apiService.post(Constants.EMPLOYEE_URI, employeeRequest);
-        return processResponse(responseEntity, new TypeReference<>() {});
+        ResponseEntity<Response<Employee>> responseEntity =
+                apiService.post(Constants.EMPLOYEE_URI, employeeRequest, employeeResponse);
+        Employee employee = processResponse(responseEntity);
+        employeeIdCache.put(employee);
+        publishChange(EmployeeChangedEvent.Type.CREATED, employee);
+        return employee;
     }
 
     /**
@@ -112,25 +216,86 @@ public class EmployeeService implements IEmployeeService {
      */
     @Override
     public String deleteEmployeeById(String id) {
-        Employee employee = getEmployeeById(id);
-        String employeeName = employee.getName();
+        return deleteEmployee(id).getName();
+    }
+
+    /**
+     * Delete employee given its Employee ID, by id through the Server API batch endpoint. The id cache is not
+     * consulted: an employee it still holds may already be gone upstream.
+     *
+     * @param id Employee ID
+     * @return the deleted Employee
+     */
+    @Override
+    public Employee deleteEmployee(String id) {
+        UUID uuid = parseId(id);
         log.info("Deleting employee record with given ID: {}", id);
-        apiService.delete(Constants.EMPLOYEE_URI, employeeName);
-        return employeeName;
+        ResponseEntity<Response<List<BatchItem<Employee>>>> responseEntity =
+                apiService.delete(Constants.EMPLOYEE_BATCH_URI, List.of(uuid), batchResponse);
+        List<BatchItem<Employee>> items = processResponse(responseEntity);
+        if (items.size() != 1 || items.get(0).status() != BatchItem.Status.OK) {
+            employeeIdCache.putMissing(uuid);
+            throw EmployeeException.notFound("Employee " + uuid + " not found.");
+        }
+        Employee employee = items.get(0).data();
+        employeeIdCache.remove(uuid);
+        publishChange(EmployeeChangedEvent.Type.DELETED, employee);
+        return employee;
+    }
+
+    /**
+     * Parses a {@code fields} parameter, answering 400 for a property Employee does not have
+     *
+     * @param fields comma separated Employee properties
+     * @return the named fields, or every field when none are named
+     */
+    public static Set<EmployeeField> parseFields(String fields) {
+        try {
+            return EmployeeField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw EmployeeException.badRequest(e.getMessage());
+        }
+    }
+
+    static UUID parseId(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw EmployeeException.badRequest("Invalid employee id.");
+        }
+    }
+
+    /**
+     * Numbers the change and publishes it under one lock, so listeners see versions in order
+     */
+    private synchronized void publishChange(EmployeeChangedEvent.Type type, Employee employee) {
+        eventPublisher.publishEvent(new EmployeeChangedEvent(type, employee, ++version));
+    }
+
+    /**
+     * Type of a Server API response carrying the given data, for the RestTemplate to decode the body into directly
+     * rather than through a JSON tree
+     */
+    private <T> ParameterizedTypeReference<Response<T>> responseType(TypeReference<T> dataType) {
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+        return ParameterizedTypeReference.forType(
+                typeFactory.constructParametricType(Response.class, typeFactory.constructType(dataType)));
     }
 
     /**
      * Helps in processing response sent from server API
      *
-     * @param responseEntity Entity returned by Server API
-     * @param responseType   Object Type of Entity returned
-     * @return Parsed entity
+     * @param responseEntity Entity returned by Server API, already decoded
+     * @return Data of the response
      */
-    private <T> T processResponse(ResponseEntity<?> responseEntity, TypeReference<T> responseType) {
+    private <T> T processResponse(ResponseEntity<Response<T>> responseEntity) {
         if (responseEntity.getStatusCode().is2xxSuccessful()) {
-            Response response = objectMapper.convertValue(responseEntity.getBody(), Response.class);
-            if (Constants.SUCCESS_MSG.equalsIgnoreCase(response.status())) {
-                return objectMapper.convertValue(response.data(), responseType);
+            long started = System.nanoTime();
+            Response<T> response = responseEntity.getBody();
+            if (response != null && Constants.SUCCESS_MSG.equalsIgnoreCase(response.status())) {
+                T data = response.data();
+                RequestTiming.record(RequestTiming.Phase.CONVERT, started);
+                return data;
             } else {
                 throw new RuntimeException(Constants.INTERNAL_SERVER_ERROR);
             }
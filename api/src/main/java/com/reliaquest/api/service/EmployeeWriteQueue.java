@@ -0,0 +1,335 @@
+package com.reliaquest.api.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeOperation;
+import com.reliaquest.api.request.CreateEmployeeRequest;
+import com.reliaquest.api.util.EmployeeOperationLog;
+import com.reliaquest.api.util.Upstream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates and deletes accepted ahead of the Server API, logged durably in an EmployeeOperationLog and then written by
+ * one background thread in the order they were accepted. Operations still queued when the api stops are written after
+ * it restarts.
+ * The writer spends the rate budget rather than fighting it: while the primary replica reports no budget left or is
+ * ejected, it waits for that to pass, and after a 429, 5xx or connection failure it retries the same operation after a
+ * backoff doubling from {@code retryMin} to {@code retryMax}. Other client errors fail the operation.
+ * A delete may name a create by its operation id. If that create is still queued, both are resolved as COALESCED
+ * without calling the Server API; a delete of an id that already has a delete queued returns the queued one.
+ * The last {@code maxCompleted} finished operations are kept for status lookups.
+ * <p>
+ * Writes are at least once. A 5xx or connection failure can come after the Server API made the change, and an
+ * operation being written when the api stopped is written again after it restarts. Before such a create is sent again,
+ * the employees with its name are fetched: one with all of its fields is taken as the one it made, and the create
+ * succeeds without another call, while several leave it UNKNOWN. An identical employee that already existed is
+ * mistaken for the one the create made. A retried delete whose employee is already gone fails as not found.
+ */
+@Slf4j
+public class EmployeeWriteQueue implements Closeable {
+
+    private static final long MAX_SLEEP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final IEmployeeService employeeService;
+
+    private final UpstreamPool upstreamPool;
+
+    private final long retryMinNanos;
+
+    private final long retryMaxNanos;
+
+    private final Map<UUID, EmployeeOperation> queued = new LinkedHashMap<>();
+
+    private final Map<UUID, EmployeeOperation> completed;
+
+    private final EmployeeOperationLog operationLog;
+
+    private final Thread writer;
+
+    private UUID writing;
+
+    /**
+     * The create whose last attempt may have reached the Server API; only the writer reads and sets it after startup
+     */
+    private UUID inDoubt;
+
+    private long retryDelayNanos;
+
+    private volatile long retryAtNanos;
+
+    private volatile boolean running = true;
+
+    public EmployeeWriteQueue(
+            IEmployeeService employeeService,
+            UpstreamPool upstreamPool,
+            Path file,
+            Duration retryMin,
+            Duration retryMax,
+            int maxCompleted) throws IOException {
+        this.employeeService = employeeService;
+        this.upstreamPool = upstreamPool;
+        this.retryMinNanos = retryMin.toNanos();
+        this.retryMaxNanos = retryMax.toNanos();
+        this.completed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, EmployeeOperation> eldest) {
+                return size() > maxCompleted;
+            }
+        };
+        for (EmployeeOperation operation : EmployeeOperationLog.replay(file).values()) {
+            (operation.queued() ? queued : completed).put(operation.id(), operation);
+        }
+        this.operationLog = new EmployeeOperationLog(file);
+        operationLog.rewrite(retained());
+        if (!queued.isEmpty()) {
+            log.info("Resuming {} queued employee writes from {}", queued.size(), file);
+            EmployeeOperation oldest = queued.values().iterator().next();
+            if (oldest.type() == EmployeeOperation.Type.CREATE) {
+                inDoubt = oldest.id();
+            }
+        }
+        this.writer = new Thread(this::drain, "employee-write-queue");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Accepts a create
+     *
+     * @throws UncheckedIOException if it could not be logged, in which case it is not queued either
+     */
+    public synchronized EmployeeOperation create(CreateEmployeeRequest input) {
+        return enqueue(EmployeeOperation.create(input));
+    }
+
+    /**
+     * Accepts a delete of an employee id, or of the employee a create operation makes
+     *
+     * @throws UncheckedIOException if it could not be logged, in which case it is not queued either
+     */
+    public synchronized EmployeeOperation delete(String id) {
+        UUID uuid = EmployeeService.parseId(id);
+        String employeeId = uuid.toString();
+        for (EmployeeOperation operation : queued.values()) {
+            if (operation.type() == EmployeeOperation.Type.DELETE && operation.employeeId().equals(employeeId)) {
+                return operation;
+            }
+        }
+        EmployeeOperation create = queued.get(uuid);
+        if (create != null && create.type() == EmployeeOperation.Type.CREATE && !uuid.equals(writing)) {
+            queued.remove(uuid);
+            record(create.coalesced());
+            return record(EmployeeOperation.delete(employeeId).coalesced());
+        }
+        return enqueue(EmployeeOperation.delete(employeeId));
+    }
+
+    /**
+     * @return the operation's current state, or null if it is unknown or no longer kept
+     */
+    public synchronized EmployeeOperation get(UUID id) {
+        EmployeeOperation operation = queued.get(id);
+        return operation != null ? operation : completed.get(id);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        operationLog.close();
+    }
+
+    private EmployeeOperation enqueue(EmployeeOperation operation) {
+        record(operation);
+        queued.put(operation.id(), operation);
+        notifyAll();
+        return operation;
+    }
+
+    /**
+     * Appends the operation's state to the log, and keeps it if it is finished
+     */
+    private EmployeeOperation record(EmployeeOperation operation) {
+        try {
+            operationLog.append(operation);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!operation.queued()) {
+            completed.put(operation.id(), operation);
+        }
+        return operation;
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                long waitNanos = waitNanos();
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(Math.min(waitNanos, MAX_SLEEP_NANOS));
+                    continue;
+                }
+                write(take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * How long the writer should hold off before writing the next operation
+     */
+    private long waitNanos() {
+        synchronized (this) {
+            if (queued.isEmpty()) {
+                return 0;
+            }
+        }
+        long now = System.nanoTime();
+        long waitNanos = retryAtNanos != 0 ? retryAtNanos - now : 0;
+        Upstream primary = upstreamPool.primary();
+        if (!primary.isAvailable(now)) {
+            waitNanos = Math.max(waitNanos, primary.ejectedUntilNanos() - now);
+        }
+        if (primary.budget(now) <= 0) {
+            waitNanos = Math.max(waitNanos, primary.resetAtNanos() - now);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Waits for the oldest queued operation and marks it as being written, so that deletes no longer coalesce it
+     */
+    private synchronized EmployeeOperation take() throws InterruptedException {
+        while (queued.isEmpty()) {
+            wait();
+        }
+        EmployeeOperation operation = queued.values().iterator().next();
+        writing = operation.id();
+        return operation;
+    }
+
+    private void write(EmployeeOperation operation) {
+        EmployeeOperation outcome;
+        try {
+            outcome = operation.type() == EmployeeOperation.Type.CREATE ? created(operation) : deleted(operation);
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            retryLater(operation, e);
+            return;
+        } catch (HttpServerErrorException | ResourceAccessException e) {
+            if (operation.type() == EmployeeOperation.Type.CREATE) {
+                inDoubt = operation.id();
+            }
+            retryLater(operation, e);
+            return;
+        } catch (HttpClientErrorException e) {
+            outcome = operation.failed(e.getStatusCode().value() + " " + e.getResponseBodyAsString());
+        } catch (RuntimeException e) {
+            outcome = operation.failed(e.getMessage());
+        }
+        inDoubt = null;
+        finish(outcome);
+    }
+
+    private EmployeeOperation created(EmployeeOperation operation) {
+        if (operation.id().equals(inDoubt) && operation.input().name() != null) {
+            List<Employee> matches = written(operation.input());
+            if (matches.size() == 1) {
+                log.info("Create {} was already written as employee {}", operation.id(), matches.get(0).getId());
+                return operation.succeeded(matches.get(0));
+            }
+            if (matches.size() > 1) {
+                return operation.unknown(matches.size() + " employees match the create, which may have added one.");
+            }
+        }
+        return operation.succeeded(employeeService.createEmployee(operation.input()));
+    }
+
+    /**
+     * Employees with every field the create asked for
+     */
+    private List<Employee> written(CreateEmployeeRequest input) {
+        return employeeService.getEmployeesByNameSearch(input.name()).stream()
+                .filter(employee -> input.name().equals(employee.getName())
+                        && Objects.equals(input.salary(), employee.getSalary())
+                        && Objects.equals(input.age(), employee.getAge())
+                        && Objects.equals(input.title(), employee.getTitle())
+                        && (input.email() == null || input.email().equals(employee.getEmail())))
+                .toList();
+    }
+
+    private EmployeeOperation deleted(EmployeeOperation operation) {
+        String employeeId = resolve(operation.employeeId());
+        if (employeeId == null) {
+            return operation.failed("Create " + operation.employeeId() + " did not add an employee.");
+        }
+        return operation.succeeded(employeeService.deleteEmployee(employeeId));
+    }
+
+    /**
+     * The employee id a delete names: the id of the employee a create operation added, null if it added none, or the
+     * id itself
+     */
+    private synchronized String resolve(String id) {
+        EmployeeOperation create = get(UUID.fromString(id));
+        if (create == null || create.type() != EmployeeOperation.Type.CREATE) {
+            return id;
+        }
+        return create.status() == EmployeeOperation.Status.SUCCEEDED ? create.employeeId() : null;
+    }
+
+    private synchronized void retryLater(EmployeeOperation operation, RuntimeException e) {
+        writing = null;
+        retryDelayNanos = retryDelayNanos == 0 ? retryMinNanos : Math.min(retryMaxNanos, retryDelayNanos * 2);
+        retryAtNanos = System.nanoTime() + retryDelayNanos;
+        log.info("Retrying {} {} in {} ms: {}",
+                operation.type(), operation.id(), retryDelayNanos / 1_000_000, e.getMessage());
+    }
+
+    private synchronized void finish(EmployeeOperation outcome) {
+        writing = null;
+        retryDelayNanos = 0;
+        retryAtNanos = 0;
+        queued.remove(outcome.id());
+        try {
+            record(outcome);
+            if (operationLog.records() > 2L * (queued.size() + completed.size()) + 1024) {
+                operationLog.rewrite(retained());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            completed.put(outcome.id(), outcome);
+            log.error("Failed to log {} {} as {}", outcome.type(), outcome.id(), outcome.status(), e);
+        }
+    }
+
+    /**
+     * Finished operations, then queued ones in order
+     */
+    private List<EmployeeOperation> retained() {
+        List<EmployeeOperation> operations = new ArrayList<>(completed.values());
+        operations.addAll(queued.values());
+        return operations;
+    }
+}
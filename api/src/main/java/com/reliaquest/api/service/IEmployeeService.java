@@ -1,15 +1,21 @@
 package com.reliaquest.api.service;
 
 import java.util.List;
+import java.util.Set;
 
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeField;
 import com.reliaquest.api.request.CreateEmployeeRequest;
 
 public interface IEmployeeService {
     List<Employee> getAllEmployees();
 
+    List<Employee> getAllEmployees(Set<EmployeeField> fields);
+
     List<Employee> getEmployeesByNameSearch(String searchString);
 
+    List<Employee> getEmployeesByNameSearch(String searchString, Set<EmployeeField> fields);
+
     Employee getEmployeeById(String id);
 
     Integer getHighestSalaryOfEmployees();
@@ -19,4 +25,6 @@ public interface IEmployeeService {
     Employee createEmployee(CreateEmployeeRequest employeeInput);
 
     String deleteEmployeeById(String id);
+
+    Employee deleteEmployee(String id);
 }
@@ -0,0 +1,203 @@
+package com.reliaquest.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.reliaquest.api.util.RequestTiming;
+import com.reliaquest.api.util.SharedRateBudget;
+import com.reliaquest.api.util.Upstream;
+import com.reliaquest.api.util.UpstreamBalancer;
+import com.reliaquest.api.util.UpstreamCalls;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server API replicas from {@code api.base.uris}, or the single {@code api.base.uri}.
+ * Health is checked passively: a replica that refuses connections or answers 5xx is ejected for
+ * {@code api.upstream.eject}, doubling per consecutive failure up to {@code api.upstream.max-eject}. Every response
+ * also updates the replica's rate budget from its {@code X-RateLimit-*} headers.
+ * With a SharedRateBudget, every request first takes a permit from the budget all api processes on the host share,
+ * and is refused locally with a 429 once it is used up.
+ */
+@Slf4j
+@Component
+public class UpstreamPool {
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private static final byte[] BUDGET_USED_UP =
+            "{\"message\":\"Server API rate budget is used up, retry later.\",\"status\":\"Too Many Requests\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final List<Upstream> upstreams = new ArrayList<>();
+
+    private final UpstreamBalancer balancer;
+
+    private final long ejectNanos;
+
+    private final long maxEjectNanos;
+
+    private SharedRateBudget sharedBudget;
+
+    public UpstreamPool(
+            @Value("${api.base.uris:${api.base.uri}}") List<String> baseUris,
+            @Value("${api.upstream.balancer:round-robin}") UpstreamBalancer.Strategy strategy,
+            @Value("${api.upstream.eject:5s}") Duration eject,
+            @Value("${api.upstream.max-eject:1m}") Duration maxEject) {
+        for (String baseUri : baseUris) {
+            upstreams.add(new Upstream(upstreams.size(), baseUri.trim()));
+        }
+        this.balancer = UpstreamBalancer.of(strategy);
+        this.ejectNanos = eject.toNanos();
+        this.maxEjectNanos = maxEject.toNanos();
+        log.info("Server API replicas {}, balanced by {}", upstreams, strategy);
+    }
+
+    @Autowired(required = false)
+    public void setSharedBudget(SharedRateBudget sharedBudget) {
+        this.sharedBudget = sharedBudget;
+    }
+
+    public List<Upstream> upstreams() {
+        return upstreams;
+    }
+
+    /**
+     * Replica for writes: the first available one in configured order, so that all writes land on the same replica
+     * while it is healthy
+     */
+    public Upstream primary() {
+        long now = System.nanoTime();
+        for (Upstream upstream : upstreams) {
+            if (upstream.isAvailable(now)) {
+                return upstream;
+            }
+        }
+        return soonestAvailable(upstreams);
+    }
+
+    /**
+     * Replica for a read, chosen by the configured balancer among available replicas.
+     * If every remaining replica is ejected, the one closest to readmission is tried rather than failing outright.
+     *
+     * @param excluded replicas already tried for this request
+     * @return chosen replica, or null if all of them were excluded
+     */
+    public Upstream choose(Collection<Upstream> excluded) {
+        long now = System.nanoTime();
+        List<Upstream> remaining = new ArrayList<>(upstreams.size());
+        List<Upstream> available = new ArrayList<>(upstreams.size());
+        for (Upstream upstream : upstreams) {
+            if (!excluded.contains(upstream)) {
+                remaining.add(upstream);
+                if (upstream.isAvailable(now)) {
+                    available.add(upstream);
+                }
+            }
+        }
+        if (!available.isEmpty()) {
+            return balancer.choose(available, now);
+        }
+        return remaining.isEmpty() ? null : soonestAvailable(remaining);
+    }
+
+    /**
+     * Sends a request to a replica, tracking it as in flight and recording its health and rate budget
+     *
+     * @param upstream replica to call
+     * @param call request to make, given the replica's base URI
+     * @return response of the call; exceptions are rethrown after being recorded
+     * @throws HttpClientErrorException.TooManyRequests without calling the replica if the shared budget is used up
+     */
+    public <T> ResponseEntity<T> call(Upstream upstream, Function<String, ResponseEntity<T>> call) {
+        if (sharedBudget != null && !sharedBudget.tryAcquire(upstream.baseUri())) {
+            throw HttpClientErrorException.create(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                    HttpHeaders.EMPTY,
+                    BUDGET_USED_UP,
+                    StandardCharsets.UTF_8);
+        }
+        upstream.begin();
+        long started = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            ResponseEntity<T> response = call.apply(upstream.baseUri());
+            if (response != null) {
+                recordBudget(upstream, response.getHeaders());
+            }
+            if (upstream.succeeded()) {
+                log.info("Server API replica {} recovered", upstream);
+            }
+            return response;
+        } catch (HttpStatusCodeException e) {
+            recordBudget(upstream, e.getResponseHeaders());
+            if (sharedBudget != null && e instanceof HttpClientErrorException.TooManyRequests) {
+                sharedBudget.exhaust(upstream.baseUri());
+            }
+            if (e instanceof HttpServerErrorException) {
+                eject(upstream, e.getStatusCode().toString());
+            }
+            overloaded = e instanceof HttpClientErrorException.TooManyRequests || e instanceof HttpServerErrorException;
+            throw e;
+        } catch (ResourceAccessException e) {
+            eject(upstream, e.getMessage());
+            overloaded = true;
+            throw e;
+        } finally {
+            upstream.end();
+            RequestTiming.record(RequestTiming.Phase.UPSTREAM, started);
+            UpstreamCalls.record(System.nanoTime() - started, overloaded);
+        }
+    }
+
+    private void eject(Upstream upstream, String reason) {
+        long ejection = upstream.failed(System.nanoTime(), ejectNanos, maxEjectNanos);
+        if (upstreams.size() > 1) {
+            log.warn("Ejected Server API replica {} for {} ms: {}", upstream, ejection / 1_000_000, reason);
+        }
+    }
+
+    private void recordBudget(Upstream upstream, HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        String remaining = headers.getFirst(REMAINING_HEADER);
+        String reset = headers.getFirst(RESET_HEADER);
+        if (remaining != null && reset != null) {
+            try {
+                long left = Long.parseLong(remaining);
+                upstream.updateBudget(left, Long.parseLong(reset), System.nanoTime());
+                if (sharedBudget != null && left == 0) {
+                    sharedBudget.exhaust(upstream.baseUri());
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed rate limit headers from {}: {}, {}", upstream, remaining, reset);
+            }
+        }
+    }
+
+    private static Upstream soonestAvailable(List<Upstream> candidates) {
+        return candidates.stream()
+                .min(Comparator.comparingLong(Upstream::ejectedUntilNanos))
+                .orElseThrow();
+    }
+}
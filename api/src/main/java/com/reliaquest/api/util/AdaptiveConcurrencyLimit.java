@@ -0,0 +1,177 @@
+package com.reliaquest.api.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, in the style of a gradient controller.
+ * The no-load latency is the fastest request seen. Every probe interval it is measured again by briefly pinning the
+ * limit to its minimum, so that it can also go up when the upstream itself gets slower. In between, the limit is
+ * updated once per window of about {@code limit} requests, roughly once per round trip. The ratio of the no-load
+ * latency to the window's mean latency is the
+ * gradient: while requests do not queue it stays at one and the limit grows by about its square root, once they do it
+ * falls and the limit shrinks with it, settling just above the upstream's capacity.
+ * Upstream overload signals (429, 5xx, I/O errors) cut the limit multiplicatively, and windows in which less than
+ * half the limit was used do not grow it. Requests that never reached the upstream say nothing about it and are
+ * released without a sample.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BUFFER = 0.1;
+
+    private static final double BACKOFF = 0.9;
+
+    private static final double SMOOTHING = 0.5;
+
+    private static final int PROBE_SAMPLES = 20;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long probeIntervalNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private double estimatedLimit;
+
+    private long minRtt;
+
+    private long probedAtNanos;
+
+    private int probing;
+
+    private long probeMinRtt;
+
+    private long windowSum;
+
+    private int windowCount;
+
+    private int windowMaxConcurrent;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long probeIntervalNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeIntervalNanos = probeIntervalNanos;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        this.minRtt = Long.MAX_VALUE;
+        this.probedAtNanos = System.nanoTime();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return true if the request may proceed, in which case {@link #release} must follow
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request admitted by {@link #tryAcquire} and feeds its latency into the limit
+     *
+     * @param rttNanos time the request took
+     * @param overloaded whether the upstream signalled overload instead of answering
+     */
+    public void release(long rttNanos, boolean overloaded) {
+        int concurrent = inFlight.getAndDecrement();
+        update(rttNanos, concurrent, overloaded);
+    }
+
+    /**
+     * Ends a request admitted by {@link #tryAcquire} that never reached the upstream, leaving the limit as it is. While
+     * probing it still counts towards the probe, so that requests served locally cannot hold the limit at its minimum.
+     */
+    public void release() {
+        int concurrent = inFlight.getAndDecrement();
+        skip(concurrent);
+    }
+
+    private synchronized void skip(int concurrent) {
+        if (probing > 0 && concurrent <= minLimit && --probing == 0) {
+            endProbe();
+        }
+    }
+
+    private synchronized void update(long rttNanos, int concurrent, boolean overloaded) {
+        if (overloaded) {
+            estimatedLimit = clamp(estimatedLimit * BACKOFF);
+            if (probing == 0) {
+                limit = (int) estimatedLimit;
+            }
+            return;
+        }
+        if (probing > 0) {
+            if (concurrent <= minLimit) {
+                probeMinRtt = Math.min(probeMinRtt, rttNanos);
+                if (--probing == 0) {
+                    endProbe();
+                }
+            }
+            return;
+        }
+        if (System.nanoTime() - probedAtNanos >= probeIntervalNanos) {
+            startProbe();
+            return;
+        }
+        minRtt = Math.min(minRtt, rttNanos);
+        windowSum += rttNanos;
+        windowCount++;
+        windowMaxConcurrent = Math.max(windowMaxConcurrent, concurrent);
+        if (windowCount < estimatedLimit) {
+            return;
+        }
+        double rtt = (double) windowSum / windowCount;
+        boolean appLimited = windowMaxConcurrent < estimatedLimit / 2;
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxConcurrent = 0;
+        if (appLimited) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, minRtt * (1 + BUFFER) / rtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = clamp(estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING);
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Pins the limit to its minimum so the next requests measure latency without queueing
+     */
+    private void startProbe() {
+        probing = PROBE_SAMPLES;
+        probeMinRtt = Long.MAX_VALUE;
+        limit = minLimit;
+    }
+
+    private void endProbe() {
+        if (probeMinRtt != Long.MAX_VALUE) {
+            minRtt = probeMinRtt;
+        }
+        probedAtNanos = System.nanoTime();
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxConcurrent = 0;
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,351 @@
+package com.reliaquest.api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeField;
+
+/**
+ * Immutable column store of employees, the form in which the api caches them.
+ * Ids are two longs per row, salary and age are int columns with {@link #NONE} for missing values, and titles are
+ * codes into a dictionary of distinct titles. Names and emails are UTF-8 bytes back to back in one array, so each is
+ * held once without a String or array header of its own. Employee objects are only created for the rows a response
+ * returns; a row takes about a third of the heap of the Employee it was built from.
+ * <p>
+ * {@link #with} derives a store with rows deleted and employees appended without copying the others: rows keep their
+ * numbers, deleted rows stay behind as tombstones, and new rows are written past the end of every store sharing the
+ * columns, so earlier stores read on unchanged.
+ */
+public class CompactEmployees {
+
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private static final int NAME = 0;
+
+    private static final int EMAIL = 1;
+
+    private static final byte MISSING_ID = 1;
+
+    private final Appender appender;
+
+    private final Columns columns;
+
+    private final int rows;
+
+    private final int titleCount;
+
+    private final BitSet deleted;
+
+    private final int live;
+
+    public CompactEmployees(List<Employee> employees) {
+        this(new Appender(employees), new BitSet());
+    }
+
+    private CompactEmployees(Appender appender, BitSet deleted) {
+        this.appender = appender;
+        this.columns = appender.columns;
+        this.rows = appender.rows;
+        this.titleCount = appender.dictionary.size();
+        this.deleted = deleted;
+        this.live = rows - deleted.cardinality();
+    }
+
+    /**
+     * A store without the given rows and with the employees appended after the last row.
+     * Deriving from a store that was already extended copies its columns first. Calls must not run concurrently.
+     *
+     * @param deletedRows rows of this store to leave out
+     * @param appended employees for the rows from {@link #rows()} on
+     */
+    public CompactEmployees with(BitSet deletedRows, List<Employee> appended) {
+        Appender target = appender.rows == rows ? appender : new Appender(columns, rows, titleCount);
+        appended.forEach(target::append);
+        BitSet next = (BitSet) deleted.clone();
+        next.or(deletedRows);
+        return new CompactEmployees(target, next);
+    }
+
+    /**
+     * Number of employees, not counting deleted rows
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Number of rows, deleted ones included; rows are numbered from 0
+     */
+    public int rows() {
+        return rows;
+    }
+
+    public boolean isDeleted(int row) {
+        return deleted.get(row);
+    }
+
+    public UUID id(int row) {
+        return (columns.missing[row] & MISSING_ID) != 0 ? null : new UUID(columns.idHigh[row], columns.idLow[row]);
+    }
+
+    public boolean hasId(int row, UUID id) {
+        return (columns.missing[row] & MISSING_ID) == 0
+                && columns.idHigh[row] == id.getMostSignificantBits()
+                && columns.idLow[row] == id.getLeastSignificantBits();
+    }
+
+    /**
+     * Rows holding any of the ids, in row order, deleted rows left out. Compares the id columns without creating
+     * UUIDs, one binary search per row over the sorted high bits of the ids.
+     */
+    public int[] rowsWithIds(Set<UUID> ids) {
+        long[] highs = ids.stream().mapToLong(UUID::getMostSignificantBits).sorted().toArray();
+        int[] found = new int[Math.min(rows, 16)];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (Arrays.binarySearch(highs, columns.idHigh[row]) >= 0 && !deleted.get(row)
+                    && (columns.missing[row] & MISSING_ID) == 0
+                    && ids.contains(new UUID(columns.idHigh[row], columns.idLow[row]))) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = row;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @return the salary, or {@link #NONE}
+     */
+    public int salary(int row) {
+        return columns.salaries[row];
+    }
+
+    /**
+     * @return the age, or {@link #NONE}
+     */
+    public int age(int row) {
+        return columns.ages[row];
+    }
+
+    /**
+     * @return index of the row's title in {@link #titles()}, or -1 if it has none
+     */
+    public int titleCode(int row) {
+        return columns.titleCodes[row];
+    }
+
+    /**
+     * Distinct titles, indexed by title code
+     */
+    public List<String> titles() {
+        return List.of(Arrays.copyOf(columns.titles, titleCount));
+    }
+
+    public String title(int row) {
+        return columns.titleCodes[row] >= 0 ? columns.titles[columns.titleCodes[row]] : null;
+    }
+
+    public String name(int row) {
+        return text(row, NAME);
+    }
+
+    public String email(int row) {
+        return text(row, EMAIL);
+    }
+
+    /**
+     * Creates the Employee for a row
+     */
+    public Employee employee(int row) {
+        return new Employee(
+                id(row),
+                name(row),
+                columns.salaries[row] != NONE ? columns.salaries[row] : null,
+                columns.ages[row] != NONE ? columns.ages[row] : null,
+                title(row),
+                email(row));
+    }
+
+    /**
+     * Creates the Employee for a row with only the given fields set, decoding no other text
+     */
+    public Employee employee(int row, Set<EmployeeField> fields) {
+        return new Employee(
+                fields.contains(EmployeeField.ID) ? id(row) : null,
+                fields.contains(EmployeeField.NAME) ? name(row) : null,
+                fields.contains(EmployeeField.SALARY) && columns.salaries[row] != NONE ? columns.salaries[row] : null,
+                fields.contains(EmployeeField.AGE) && columns.ages[row] != NONE ? columns.ages[row] : null,
+                fields.contains(EmployeeField.TITLE) ? title(row) : null,
+                fields.contains(EmployeeField.EMAIL) ? email(row) : null);
+    }
+
+    /**
+     * Approximate heap taken by the store, not counting the title dictionary
+     */
+    public long footprintBytes() {
+        int capacity = columns.salaries.length;
+        return 8L * 16 + 8L * 2 * capacity + 4L * 3 * capacity + capacity + 4L * columns.textEnds.length
+                + columns.text.length + deleted.size() / 8;
+    }
+
+    /**
+     * Salary column; rows from {@link #rows()} on belong to later stores
+     */
+    int[] salaries() {
+        return columns.salaries;
+    }
+
+    /**
+     * Age column; rows from {@link #rows()} on belong to later stores
+     */
+    int[] ages() {
+        return columns.ages;
+    }
+
+    private String text(int row, int field) {
+        if ((columns.missing[row] & missingText(field)) != 0) {
+            return null;
+        }
+        int slot = 2 * row + field;
+        int from = slot > 0 ? columns.textEnds[slot - 1] : 0;
+        return new String(columns.text, from, columns.textEnds[slot] - from, StandardCharsets.UTF_8);
+    }
+
+    private static byte missingText(int field) {
+        return (byte) (MISSING_ID << (field + 1));
+    }
+
+    /**
+     * Column arrays; a store only reads its own rows of them, which are never written again
+     */
+    private record Columns(
+            long[] idHigh,
+            long[] idLow,
+            byte[] missing,
+            int[] salaries,
+            int[] ages,
+            int[] titleCodes,
+            String[] titles,
+            byte[] text,
+            int[] textEnds) {
+
+        Columns(int capacity, int textCapacity, int titleCapacity) {
+            this(new long[capacity], new long[capacity], new byte[capacity], new int[capacity], new int[capacity],
+                    new int[capacity], new String[titleCapacity], new byte[textCapacity], new int[2 * capacity]);
+        }
+
+        Columns resize(int capacity, int textCapacity, int titleCapacity) {
+            return new Columns(
+                    Arrays.copyOf(idHigh, capacity),
+                    Arrays.copyOf(idLow, capacity),
+                    Arrays.copyOf(missing, capacity),
+                    Arrays.copyOf(salaries, capacity),
+                    Arrays.copyOf(ages, capacity),
+                    Arrays.copyOf(titleCodes, capacity),
+                    Arrays.copyOf(titles, titleCapacity),
+                    Arrays.copyOf(text, textCapacity),
+                    Arrays.copyOf(textEnds, 2 * capacity));
+        }
+    }
+
+    /**
+     * Write position shared by the stores derived from one another; only the store at that position appends in place
+     */
+    private static final class Appender {
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        private Columns columns;
+
+        private int rows;
+
+        private int textLength;
+
+        /**
+         * Columns sized to the employees, as a reload builds them
+         */
+        Appender(List<Employee> employees) {
+            columns = new Columns(employees.size(), Math.max(16, employees.size() * 32), 16);
+            employees.forEach(this::append);
+            columns = columns.resize(rows, textLength, dictionary.size());
+        }
+
+        /**
+         * Copy of the first rows of the columns, for appending to a store that is not the latest
+         */
+        Appender(Columns from, int rows, int titleCount) {
+            this.rows = rows;
+            this.textLength = rows > 0 ? from.textEnds[2 * rows - 1] : 0;
+            this.columns = from.resize(Math.max(16, rows), Math.max(16, textLength), Math.max(16, titleCount));
+            for (int code = 0; code < titleCount; code++) {
+                dictionary.put(from.titles[code], code);
+            }
+        }
+
+        void append(Employee employee) {
+            if (rows == columns.salaries.length) {
+                grow(rows + 1, 0);
+            }
+            int row = rows;
+            byte missing = 0;
+            if (employee.getId() != null) {
+                columns.idHigh[row] = employee.getId().getMostSignificantBits();
+                columns.idLow[row] = employee.getId().getLeastSignificantBits();
+            } else {
+                missing |= MISSING_ID;
+            }
+            columns.salaries[row] = employee.getSalary() != null ? employee.getSalary() : NONE;
+            columns.ages[row] = employee.getAge() != null ? employee.getAge() : NONE;
+            int titleCode = employee.getTitle() != null ? titleCode(employee.getTitle()) : -1;
+            columns.titleCodes[row] = titleCode;
+            for (int field = NAME; field <= EMAIL; field++) {
+                String value = field == NAME ? employee.getName() : employee.getEmail();
+                if (value == null) {
+                    missing |= missingText(field);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    if (textLength + bytes.length > columns.text.length) {
+                        grow(columns.salaries.length, textLength + bytes.length);
+                    }
+                    System.arraycopy(bytes, 0, columns.text, textLength, bytes.length);
+                    textLength += bytes.length;
+                }
+                columns.textEnds[2 * row + field] = textLength;
+            }
+            columns.missing[row] = missing;
+            rows++;
+        }
+
+        private int titleCode(String title) {
+            Integer code = dictionary.get(title);
+            if (code == null) {
+                code = dictionary.size();
+                if (code == columns.titles.length) {
+                    columns = columns.resize(
+                            columns.salaries.length, columns.text.length, Math.max(16, code * 2));
+                }
+                columns.titles[code] = title;
+                dictionary.put(title, code);
+            }
+            return code;
+        }
+
+        private void grow(int minCapacity, int minTextCapacity) {
+            int capacity = columns.salaries.length;
+            int textCapacity = columns.text.length;
+            columns = columns.resize(
+                    minCapacity > capacity ? Math.max(minCapacity, capacity + (capacity >> 1) + 16) : capacity,
+                    minTextCapacity > textCapacity ? Math.max(minTextCapacity, textCapacity * 2) : textCapacity,
+                    columns.titles.length);
+        }
+    }
+}
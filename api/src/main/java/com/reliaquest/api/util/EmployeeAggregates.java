@@ -0,0 +1,167 @@
+package com.reliaquest.api.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.GroupAggregate;
+
+/**
+ * Salary statistics per title and per age band, maintained incrementally.
+ * Each group keeps a count of every salary in it, so min and max stay exact when employees leave.
+ * Adding a known id or removing an unknown one is a no-op. Not thread-safe.
+ */
+public class EmployeeAggregates {
+
+    private final int ageBandWidth;
+
+    private final Map<UUID, Member> members = new HashMap<>();
+
+    private final Map<String, SalaryGroup> byTitle = new TreeMap<>();
+
+    private final Map<Integer, SalaryGroup> byAgeBand = new TreeMap<>();
+
+    public EmployeeAggregates(int ageBandWidth, Collection<Employee> employees) {
+        if (ageBandWidth < 1) {
+            throw new IllegalArgumentException("Age band width must be positive");
+        }
+        this.ageBandWidth = ageBandWidth;
+        employees.forEach(this::add);
+    }
+
+    /**
+     * Aggregates the rows of a store without materializing them
+     */
+    public EmployeeAggregates(int ageBandWidth, CompactEmployees store) {
+        this(ageBandWidth, List.of());
+        for (int row = 0; row < store.rows(); row++) {
+            if (store.isDeleted(row)) {
+                continue;
+            }
+            add(store.id(row), new Member(
+                    store.title(row),
+                    store.age(row) != CompactEmployees.NONE ? store.age(row) : null,
+                    store.salary(row) != CompactEmployees.NONE ? store.salary(row) : null));
+        }
+    }
+
+    /**
+     * Adds an employee to its groups
+     *
+     * @return false if an employee with the same id was already counted
+     */
+    public boolean add(Employee employee) {
+        return add(employee.getId(), new Member(employee.getTitle(), employee.getAge(), employee.getSalary()));
+    }
+
+    private boolean add(UUID id, Member member) {
+        if (id == null || members.putIfAbsent(id, member) != null) {
+            return false;
+        }
+        if (member.title() != null) {
+            byTitle.computeIfAbsent(member.title(), title -> new SalaryGroup()).add(member.salary());
+        }
+        if (member.age() != null) {
+            byAgeBand.computeIfAbsent(band(member.age()), band -> new SalaryGroup()).add(member.salary());
+        }
+        return true;
+    }
+
+    /**
+     * Removes an employee from its groups, dropping groups left empty
+     *
+     * @return false if no employee with this id was counted
+     */
+    public boolean remove(UUID id) {
+        Member member = id != null ? members.remove(id) : null;
+        if (member == null) {
+            return false;
+        }
+        if (member.title() != null) {
+            removeFrom(byTitle, member.title(), member.salary());
+        }
+        if (member.age() != null) {
+            removeFrom(byAgeBand, band(member.age()), member.salary());
+        }
+        return true;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public List<GroupAggregate> byTitle() {
+        List<GroupAggregate> aggregates = new ArrayList<>(byTitle.size());
+        byTitle.forEach((title, group) -> aggregates.add(group.toAggregate(title)));
+        return aggregates;
+    }
+
+    /**
+     * Groups labelled by their inclusive age range, e.g. {@code 30-39}
+     */
+    public List<GroupAggregate> byAgeBand() {
+        List<GroupAggregate> aggregates = new ArrayList<>(byAgeBand.size());
+        byAgeBand.forEach((band, group) -> aggregates.add(group.toAggregate(band + "-" + (band + ageBandWidth - 1))));
+        return aggregates;
+    }
+
+    private int band(int age) {
+        return Math.floorDiv(age, ageBandWidth) * ageBandWidth;
+    }
+
+    private static <K> void removeFrom(Map<K, SalaryGroup> groups, K key, Integer salary) {
+        SalaryGroup group = groups.get(key);
+        group.remove(salary);
+        if (group.count == 0) {
+            groups.remove(key);
+        }
+    }
+
+    /**
+     * What removing an employee needs to know, rather than the whole Employee
+     */
+    private record Member(String title, Integer age, Integer salary) {}
+
+    private static class SalaryGroup {
+
+        private final TreeMap<Integer, Integer> salaries = new TreeMap<>();
+
+        private int count;
+
+        private int salaried;
+
+        private long totalSalary;
+
+        void add(Integer salary) {
+            count++;
+            if (salary != null) {
+                salaried++;
+                totalSalary += salary;
+                salaries.merge(salary, 1, Integer::sum);
+            }
+        }
+
+        void remove(Integer salary) {
+            count--;
+            if (salary != null) {
+                salaried--;
+                totalSalary -= salary;
+                salaries.computeIfPresent(salary, (value, occurrences) -> occurrences > 1 ? occurrences - 1 : null);
+            }
+        }
+
+        GroupAggregate toAggregate(String label) {
+            if (salaried == 0) {
+                return new GroupAggregate(label, count, 0, null, null, null);
+            }
+            double averageSalary = (double) totalSalary / salaried;
+            return new GroupAggregate(
+                    label, count, totalSalary, salaries.firstKey(), salaries.lastKey(), averageSalary);
+        }
+    }
+}
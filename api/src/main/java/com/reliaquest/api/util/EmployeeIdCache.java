@@ -0,0 +1,103 @@
+package com.reliaquest.api.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+import com.reliaquest.api.model.Employee;
+
+/**
+ * Employees by id, least recently used first out once there are {@code maxSize} of them.
+ * An entry lives for {@code ttl}; ids the Server API answered 404 for are remembered as missing for the shorter
+ * {@code missingTtl}. A full list refreshes the ids already held, drops those it lacks, and adds the rest while there
+ * is room, so that a list fetch never evicts an id that is being looked up. Only a 404 marks an id as missing: a list
+ * may predate a create that raced it, or come from a replica the create has not reached yet.
+ */
+public class EmployeeIdCache {
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final long missingTtlNanos;
+
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<UUID, Entry> entries;
+
+    public EmployeeIdCache(int maxSize, long ttlNanos, long missingTtlNanos) {
+        this(maxSize, ttlNanos, missingTtlNanos, System::nanoTime);
+    }
+
+    EmployeeIdCache(int maxSize, long ttlNanos, long missingTtlNanos, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.missingTtlNanos = missingTtlNanos;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > EmployeeIdCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the live entry for the id, or null if there is none
+     */
+    public synchronized Entry get(UUID id) {
+        Entry entry = entries.get(id);
+        if (entry != null && clock.getAsLong() - entry.expiresAtNanos() >= 0) {
+            entries.remove(id);
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void put(Employee employee) {
+        if (employee.getId() != null) {
+            entries.put(employee.getId(), new Entry(employee, clock.getAsLong() + ttlNanos));
+        }
+    }
+
+    public synchronized void putMissing(UUID id) {
+        entries.put(id, new Entry(null, clock.getAsLong() + missingTtlNanos));
+    }
+
+    public synchronized void remove(UUID id) {
+        entries.remove(id);
+    }
+
+    /**
+     * Applies a full list of employees fetched from the Server API
+     */
+    public synchronized void refresh(Collection<Employee> employees) {
+        Set<UUID> unseen = new HashSet<>(entries.keySet());
+        long expiresAtNanos = clock.getAsLong() + ttlNanos;
+        for (Employee employee : employees) {
+            UUID id = employee.getId();
+            if (id != null && (unseen.remove(id) || entries.size() < maxSize)) {
+                entries.put(id, new Entry(employee, expiresAtNanos));
+            }
+        }
+        entries.keySet().removeAll(unseen);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cached lookup result; a null employee means the id is known not to exist
+     */
+    public record Entry(Employee employee, long expiresAtNanos) {
+
+        public boolean missing() {
+            return employee == null;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.reliaquest.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.request.EmployeeQuery;
+import com.reliaquest.api.request.EmployeeQuery.SortField;
+import com.reliaquest.api.request.EmployeeQuery.SortOrder;
+
+/**
+ * Immutable snapshot of employees with secondary indexes for queries.
+ * Salary and age keep row numbers sorted by value, so a range is one binary search away;
+ * titles map to their rows. A query starts from the smallest candidate set and checks the other predicates per row.
+ * Employees are held in a CompactEmployees store, and only those on the returned page are materialized.
+ * Deleted rows of the store are in none of the indexes, so queries never see them.
+ */
+public class EmployeeIndex {
+
+    private static final int NONE = CompactEmployees.NONE;
+
+    private static final int NO_TITLE = -2;
+
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+
+    private final CompactEmployees store;
+
+    private final int[] salaries;
+
+    private final int[] ages;
+
+    private final int[] titleKeyOfCode;
+
+    private final int[] nameRanks;
+
+    private final int[] rowsByName;
+
+    private final RangeIndex salaryIndex;
+
+    private final RangeIndex ageIndex;
+
+    private final Map<String, Integer> titleKeys;
+
+    private final int[][] titleIndex;
+
+    public EmployeeIndex(List<Employee> employeeList) {
+        this(new CompactEmployees(employeeList));
+    }
+
+    /**
+     * Titles that differ only in case or surrounding space share a key, and each key keeps its rows
+     */
+    public EmployeeIndex(CompactEmployees store) {
+        this.store = store;
+        int rows = store.rows();
+        salaries = store.salaries();
+        ages = store.ages();
+        List<String> titles = store.titles();
+        titleKeys = new HashMap<>();
+        titleKeyOfCode = new int[titles.size()];
+        for (int code = 0; code < titles.size(); code++) {
+            titleKeyOfCode[code] = titleKeys.computeIfAbsent(normalize(titles.get(code)), key -> titleKeys.size());
+        }
+        titleIndex = new int[titleKeys.size()][];
+        Arrays.fill(titleIndex, new int[0]);
+        addTitleRows(titleIndex, store, titleKeyOfCode, 0, rows);
+        salaryIndex = new RangeIndex(salaries, store, 0, rows);
+        ageIndex = new RangeIndex(ages, store, 0, rows);
+
+        String[] names = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            names[row] = store.name(row);
+        }
+        rowsByName = IntStream.range(0, rows)
+                .filter(row -> !store.isDeleted(row))
+                .boxed()
+                .sorted(Comparator.comparing((Integer row) -> names[row], NAME_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        nameRanks = ranks(rowsByName, rows);
+    }
+
+    private EmployeeIndex(EmployeeIndex previous, CompactEmployees store, BitSet deletedRows) {
+        this.store = store;
+        int from = previous.store.rows();
+        int to = store.rows();
+        salaries = store.salaries();
+        ages = store.ages();
+        List<String> titles = store.titles();
+        if (titles.size() > previous.titleKeyOfCode.length) {
+            titleKeys = new HashMap<>(previous.titleKeys);
+            titleKeyOfCode = Arrays.copyOf(previous.titleKeyOfCode, titles.size());
+            for (int code = previous.titleKeyOfCode.length; code < titles.size(); code++) {
+                titleKeyOfCode[code] = titleKeys.computeIfAbsent(normalize(titles.get(code)), key -> titleKeys.size());
+            }
+        } else {
+            titleKeys = previous.titleKeys;
+            titleKeyOfCode = previous.titleKeyOfCode;
+        }
+        titleIndex = Arrays.copyOf(previous.titleIndex, titleKeys.size());
+        Arrays.fill(titleIndex, previous.titleIndex.length, titleIndex.length, new int[0]);
+        removeTitleRows(titleIndex, store, titleKeyOfCode, deletedRows);
+        addTitleRows(titleIndex, store, titleKeyOfCode, from, to);
+        salaryIndex = previous.salaryIndex.with(salaries, store, deletedRows, from, to);
+        ageIndex = previous.ageIndex.with(ages, store, deletedRows, from, to);
+        rowsByName = mergeByName(previous.rowsByName, store, deletedRows, from, to);
+        nameRanks = ranks(rowsByName, to);
+    }
+
+    /**
+     * The index of a store with the given rows deleted and the employees appended, derived from this one in time
+     * linear in the rows, without materializing or re-sorting the employees already indexed.
+     *
+     * @param deletedRows rows to delete, each holding an employee
+     * @param appended employees to add after the existing rows
+     */
+    public EmployeeIndex with(BitSet deletedRows, List<Employee> appended) {
+        return new EmployeeIndex(this, store.with(deletedRows, appended), deletedRows);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public CompactEmployees store() {
+        return store;
+    }
+
+    /**
+     * Runs the query against the indexes
+     *
+     * @param query filters, sort and page
+     * @param maxLimit largest page returned regardless of the requested limit
+     * @return matching employees in the requested order and the total number of matches
+     */
+    public EmployeePage query(EmployeeQuery query, int maxLimit) {
+        int title = query.title() != null ? titleKeys.getOrDefault(normalize(query.title()), -1) : NO_TITLE;
+        Candidates candidates = candidates(query, title);
+        int[] matches = new int[candidates.size()];
+        int count = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            int row = candidates.row(i);
+            if (matches(row, query, title)) {
+                matches[count++] = row;
+            }
+        }
+
+        SortField sort = query.sort() != null ? query.sort() : SortField.NAME;
+        boolean descending = query.order() == SortOrder.DESC;
+        if (!(candidates.sortedBy() == sort && !descending)) {
+            sort(matches, count, sort, descending);
+        }
+        int offset = Math.max(0, query.offset() != null ? query.offset() : 0);
+        int limit = Math.max(0, Math.min(maxLimit, query.limit() != null ? query.limit() : maxLimit));
+        List<Employee> page = new ArrayList<>(Math.max(0, Math.min(limit, count - offset)));
+        for (int i = offset; i < count && page.size() < limit; i++) {
+            page.add(store.employee(matches[i]));
+        }
+        return new EmployeePage(count, offset, page);
+    }
+
+    /**
+     * Employees with the highest salaries, read off the salary index from the top without sorting.
+     * Equal salaries keep row order, as a stable sort would; employees without a salary are left out.
+     */
+    public List<Employee> topBySalary(int limit) {
+        List<Employee> top = new ArrayList<>(Math.max(0, Math.min(limit, salaryIndex.values.length)));
+        int end = salaryIndex.values.length;
+        while (end > 0 && top.size() < limit) {
+            int start = end - 1;
+            while (start > 0 && salaryIndex.values[start - 1] == salaryIndex.values[end - 1]) {
+                start--;
+            }
+            for (int i = start; i < end && top.size() < limit; i++) {
+                top.add(store.employee(salaryIndex.rows[i]));
+            }
+            end = start;
+        }
+        return top;
+    }
+
+    /**
+     * Picks the most selective index for the query, falling back to all rows in name order
+     */
+    private Candidates candidates(EmployeeQuery query, int title) {
+        Candidates best = null;
+        if (title != NO_TITLE) {
+            int[] rows = title >= 0 ? titleIndex[title] : new int[0];
+            best = new Candidates(rows, 0, rows.length, null);
+        }
+        if (query.minSalary() != null || query.maxSalary() != null) {
+            best = smaller(best, salaryIndex.range(query.minSalary(), query.maxSalary(), SortField.SALARY));
+        }
+        if (query.minAge() != null || query.maxAge() != null) {
+            best = smaller(best, ageIndex.range(query.minAge(), query.maxAge(), SortField.AGE));
+        }
+        return best != null ? best : new Candidates(rowsByName, 0, rowsByName.length, SortField.NAME);
+    }
+
+    private boolean matches(int row, EmployeeQuery query, int title) {
+        return (title == NO_TITLE || (store.titleCode(row) >= 0 && titleKeyOfCode[store.titleCode(row)] == title))
+                && inRange(salaries[row], query.minSalary(), query.maxSalary())
+                && inRange(ages[row], query.minAge(), query.maxAge());
+    }
+
+    /**
+     * Sorts rows by key using packed {@code key << 32 | row} longs, which keeps equal keys in row order.
+     * Missing values sort last in either order.
+     */
+    private void sort(int[] rows, int count, SortField sort, boolean descending) {
+        long[] keyed = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            int key = switch (sort) {
+                case NAME -> nameRanks[row];
+                case SALARY -> salaries[row];
+                case AGE -> ages[row];
+            };
+            key = key == NONE ? Integer.MAX_VALUE : descending ? ~key : key;
+            keyed[i] = pack(key, row);
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < count; i++) {
+            rows[i] = (int) keyed[i];
+        }
+    }
+
+    private static Candidates smaller(Candidates current, Candidates range) {
+        return current == null || range.size() < current.size() ? range : current;
+    }
+
+    private static boolean inRange(int value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != NONE && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static long pack(int key, int row) {
+        return ((long) key << 32) | row;
+    }
+
+    private static String normalize(String title) {
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Appends rows {@code [from, to)} to the rows of their title keys
+     */
+    private static void addTitleRows(int[][] titleIndex, CompactEmployees store, int[] keyOfCode, int from, int to) {
+        int[] added = new int[titleIndex.length];
+        for (int row = from; row < to; row++) {
+            if (!store.isDeleted(row) && store.titleCode(row) >= 0) {
+                added[keyOfCode[store.titleCode(row)]]++;
+            }
+        }
+        for (int key = 0; key < titleIndex.length; key++) {
+            if (added[key] > 0) {
+                int size = titleIndex[key].length;
+                titleIndex[key] = Arrays.copyOf(titleIndex[key], size + added[key]);
+                added[key] = size;
+            }
+        }
+        for (int row = from; row < to; row++) {
+            if (!store.isDeleted(row) && store.titleCode(row) >= 0) {
+                int key = keyOfCode[store.titleCode(row)];
+                titleIndex[key][added[key]++] = row;
+            }
+        }
+    }
+
+    private static void removeTitleRows(
+            int[][] titleIndex, CompactEmployees store, int[] keyOfCode, BitSet deletedRows) {
+        Set<Integer> keys = new HashSet<>();
+        deletedRows.stream()
+                .filter(row -> store.titleCode(row) >= 0)
+                .forEach(row -> keys.add(keyOfCode[store.titleCode(row)]));
+        for (int key : keys) {
+            titleIndex[key] = Arrays.stream(titleIndex[key])
+                    .filter(row -> !deletedRows.get(row))
+                    .toArray();
+        }
+    }
+
+    /**
+     * Name order of the previous rows without the deleted ones, with rows {@code [from, to)} inserted after the
+     * rows whose names compare equal, as a stable sort would place them
+     */
+    private static int[] mergeByName(int[] byName, CompactEmployees store, BitSet deletedRows, int from, int to) {
+        int[] added = IntStream.range(from, to)
+                .boxed()
+                .sorted(Comparator.comparing(store::name, NAME_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] merged = new int[store.size()];
+        int count = 0;
+        int next = 0;
+        for (int row : added) {
+            String name = store.name(row);
+            int low = next;
+            int high = byName.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (NAME_ORDER.compare(store.name(byName[mid]), name) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for (; next < low; next++) {
+                if (!deletedRows.get(byName[next])) {
+                    merged[count++] = byName[next];
+                }
+            }
+            merged[count++] = row;
+        }
+        for (; next < byName.length; next++) {
+            if (!deletedRows.get(byName[next])) {
+                merged[count++] = byName[next];
+            }
+        }
+        return merged;
+    }
+
+    private static int[] ranks(int[] rowsByName, int rows) {
+        int[] ranks = new int[rows];
+        for (int rank = 0; rank < rowsByName.length; rank++) {
+            ranks[rowsByName[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Slice {@code [from, to)} of a row array, with the field it is sorted by if any
+     */
+    private record Candidates(int[] rows, int from, int to, SortField sortedBy) {
+
+        int size() {
+            return to - from;
+        }
+
+        int row(int i) {
+            return rows[from + i];
+        }
+    }
+
+    /**
+     * Row numbers sorted by an int column, rows without a value left out
+     */
+    private static class RangeIndex {
+
+        private final int[] rows;
+
+        private final int[] values;
+
+        RangeIndex(int[] column, CompactEmployees store, int from, int to) {
+            this(keyed(column, store, from, to));
+        }
+
+        private RangeIndex(long[] keyed) {
+            rows = new int[keyed.length];
+            values = new int[keyed.length];
+            for (int i = 0; i < keyed.length; i++) {
+                rows[i] = (int) keyed[i];
+                values[i] = (int) (keyed[i] >> 32);
+            }
+        }
+
+        private RangeIndex(int[] rows, int[] values) {
+            this.rows = rows;
+            this.values = values;
+        }
+
+        /**
+         * This index without the deleted rows, with rows {@code [from, to)} merged in
+         */
+        RangeIndex with(int[] column, CompactEmployees store, BitSet deletedRows, int from, int to) {
+            long[] added = keyed(column, store, from, to);
+            int[] mergedRows = new int[rows.length + added.length];
+            int[] mergedValues = new int[mergedRows.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < rows.length || j < added.length) {
+                if (j == added.length || (i < rows.length && pack(values[i], rows[i]) < added[j])) {
+                    if (!deletedRows.get(rows[i])) {
+                        mergedRows[count] = rows[i];
+                        mergedValues[count++] = values[i];
+                    }
+                    i++;
+                } else {
+                    mergedRows[count] = (int) added[j];
+                    mergedValues[count++] = (int) (added[j++] >> 32);
+                }
+            }
+            return new RangeIndex(Arrays.copyOf(mergedRows, count), Arrays.copyOf(mergedValues, count));
+        }
+
+        private static long[] keyed(int[] column, CompactEmployees store, int from, int to) {
+            return IntStream.range(from, to)
+                    .filter(row -> column[row] != NONE && !store.isDeleted(row))
+                    .mapToLong(row -> pack(column[row], row))
+                    .sorted()
+                    .toArray();
+        }
+
+        Candidates range(Integer min, Integer max, SortField sortedBy) {
+            int from = min == null ? 0 : firstAtLeast(min);
+            int to = max == null ? values.length : (max == Integer.MAX_VALUE ? values.length : firstAtLeast(max + 1));
+            return new Candidates(rows, from, Math.max(from, to), sortedBy);
+        }
+
+        private int firstAtLeast(int value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.reliaquest.api.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.EmployeeOperation;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only file of EmployeeOperations, one JSON line per state an operation reaches, synced before each append
+ * returns. Replaying keeps the last state of every operation in the order operations first appeared; a line that does
+ * not parse is the torn tail of a crash and ends the replay. Rewriting replaces the file with one line per operation
+ * through a temporary file, so a crash leaves either the old or the new file.
+ */
+@Slf4j
+public class EmployeeOperationLog implements Closeable {
+
+    private final Path file;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private FileChannel channel;
+
+    private long records;
+
+    public EmployeeOperationLog(Path file) throws IOException {
+        this.file = file;
+        this.channel = open(file);
+    }
+
+    /**
+     * Last state of every operation in the file, or none if there is no file
+     */
+    public static Map<UUID, EmployeeOperation> replay(Path file) throws IOException {
+        Map<UUID, EmployeeOperation> operations = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return operations;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    EmployeeOperation operation = mapper.readValue(line, EmployeeOperation.class);
+                    operations.put(operation.id(), operation);
+                } catch (JsonProcessingException e) {
+                    log.warn("Ignoring torn operation log tail in {}", file);
+                    break;
+                }
+            }
+        }
+        return operations;
+    }
+
+    public synchronized void append(EmployeeOperation operation) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(toLine(operation));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        channel.force(false);
+        records++;
+    }
+
+    /**
+     * Replaces the file with the given operations
+     */
+    public synchronized void rewrite(Collection<EmployeeOperation> operations) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            for (EmployeeOperation operation : operations) {
+                ByteBuffer line = ByteBuffer.wrap(toLine(operation));
+                while (line.hasRemaining()) {
+                    out.write(line);
+                }
+            }
+            out.force(false);
+        }
+        channel.close();
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(file);
+        records = operations.size();
+    }
+
+    /**
+     * Lines in the file, counting from the last rewrite
+     */
+    public synchronized long records() {
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private byte[] toLine(EmployeeOperation operation) throws JsonProcessingException {
+        return (mapper.writeValueAsString(operation) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
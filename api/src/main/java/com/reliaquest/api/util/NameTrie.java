@@ -0,0 +1,376 @@
+package com.reliaquest.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable prefix trie over the words of distinct employee names, for autocomplete.
+ * Names are sorted and referred to by rank. Words sharing a prefix are a contiguous run of the sorted word list,
+ * so a node only stores the bounds of its run, and the run's postings are the ranks of the names containing it.
+ * Nodes matching more than {@code topK} names also keep their {@code topK} lowest ranks, so short prefixes answer
+ * without reading their postings. Nodes live in parallel arrays and grow with the vocabulary, not the directory.
+ */
+public class NameTrie {
+
+    /**
+     * Alphabetical ignoring case, ties broken by case so that every distinct name has its own rank
+     */
+    public static final Comparator<String> NAME_ORDER = Comparator.comparing(
+            (String name) -> name.toLowerCase(Locale.ROOT)).thenComparing(Comparator.naturalOrder());
+
+    private final int topK;
+
+    private final String[] names;
+
+    private final Map<String, Integer> ranks;
+
+    private final int[] postingStart;
+
+    private final int[] postings;
+
+    private final char[] labels;
+
+    private final int[] childStart;
+
+    private final int[] childCount;
+
+    private final int[] wordFrom;
+
+    private final int[] wordTo;
+
+    private final int[] topStart;
+
+    private final int[] top;
+
+    public NameTrie(Collection<String> employeeNames, int topK) {
+        this.topK = topK;
+        String[][] keyed = employeeNames.stream()
+                .distinct()
+                .map(name -> new String[] {name.toLowerCase(Locale.ROOT), name})
+                .toArray(String[][]::new);
+        Arrays.sort(keyed, Comparator.comparing((String[] key) -> key[0]).thenComparing(key -> key[1]));
+        names = new String[keyed.length];
+        for (int rank = 0; rank < keyed.length; rank++) {
+            names[rank] = keyed[rank][1];
+        }
+        ranks = new HashMap<>();
+        for (int rank = 0; rank < names.length; rank++) {
+            ranks.put(names[rank], rank);
+        }
+
+        Map<String, Integer> wordIds = new HashMap<>();
+        long[] pairs = new long[16];
+        int pairCount = 0;
+        for (int rank = 0; rank < names.length; rank++) {
+            for (String word : words(names[rank])) {
+                if (pairCount == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, pairCount * 2);
+                }
+                pairs[pairCount++] = pack(wordIds.computeIfAbsent(word, key -> wordIds.size()), rank);
+            }
+        }
+        String[] words = wordIds.keySet().stream().sorted().toArray(String[]::new);
+        int[] order = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            order[wordIds.get(words[i])] = i;
+        }
+        for (int i = 0; i < pairCount; i++) {
+            pairs[i] = pack(order[(int) (pairs[i] >>> 32)], (int) pairs[i]);
+        }
+        Arrays.sort(pairs, 0, pairCount);
+        int distinct = 0;
+        for (int i = 0; i < pairCount; i++) {
+            if (distinct == 0 || pairs[distinct - 1] != pairs[i]) {
+                pairs[distinct++] = pairs[i];
+            }
+        }
+        long[] sorted = Arrays.copyOf(pairs, distinct);
+        postings = new int[sorted.length];
+        postingStart = new int[words.length + 1];
+        for (int i = 0, word = 0; i <= sorted.length; i++) {
+            int next = i < sorted.length ? (int) (sorted[i] >>> 32) : words.length;
+            while (word <= next && word <= words.length) {
+                postingStart[word++] = i;
+            }
+            if (i < sorted.length) {
+                postings[i] = (int) sorted[i];
+            }
+        }
+
+        Nodes nodes = new Nodes(words.length + 1);
+        nodes.add('\0', 0, words.length, 0);
+        for (int node = 0; node < nodes.size; node++) {
+            int depth = nodes.depth[node];
+            int from = nodes.wordFrom[node];
+            int to = nodes.wordTo[node];
+            while (from < to && words[from].length() == depth) {
+                from++;
+            }
+            nodes.ownTo[node] = from;
+            nodes.childStart[node] = nodes.size;
+            while (from < to) {
+                char label = words[from].charAt(depth);
+                int end = from;
+                while (end < to && words[end].charAt(depth) == label) {
+                    end++;
+                }
+                nodes.add(label, from, end, depth + 1);
+                from = end;
+            }
+            nodes.childCount[node] = nodes.size - nodes.childStart[node];
+        }
+        labels = Arrays.copyOf(nodes.labels, nodes.size);
+        childStart = Arrays.copyOf(nodes.childStart, nodes.size);
+        childCount = Arrays.copyOf(nodes.childCount, nodes.size);
+        wordFrom = Arrays.copyOf(nodes.wordFrom, nodes.size);
+        wordTo = Arrays.copyOf(nodes.wordTo, nodes.size);
+
+        // Children come after their parent, so walking backwards merges each node's lowest ranks from its children
+        int[][] lowest = new int[labels.length][];
+        for (int node = labels.length - 1; node >= 0; node--) {
+            int[] merged = Arrays.copyOfRange(
+                    postings,
+                    postingStart[wordFrom[node]],
+                    Math.min(postingStart[nodes.ownTo[node]], postingStart[wordFrom[node]] + topK + 1));
+            for (int child = childStart[node]; child < childStart[node] + childCount[node]; child++) {
+                int at = merged.length;
+                merged = Arrays.copyOf(merged, at + lowest[child].length);
+                System.arraycopy(lowest[child], 0, merged, at, lowest[child].length);
+            }
+            lowest[node] = distinctLowest(merged, topK + 1);
+        }
+        topStart = new int[labels.length];
+        int[] tops = new int[0];
+        int topSize = 0;
+        for (int node = 0; node < labels.length; node++) {
+            topStart[node] = -1;
+            if (lowest[node].length > topK) {
+                if (topSize + topK > tops.length) {
+                    tops = Arrays.copyOf(tops, Math.max(topK, tops.length * 2));
+                }
+                System.arraycopy(lowest[node], 0, tops, topSize, topK);
+                topStart[node] = topSize;
+                topSize += topK;
+            }
+        }
+        top = Arrays.copyOf(tops, topSize);
+    }
+
+    /**
+     * @return number of distinct names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    public int nodes() {
+        return labels.length;
+    }
+
+    /**
+     * @return approximate size of the trie, postings and top lists, leaving out the name strings
+     */
+    public long footprintBytes() {
+        return (long) labels.length * (Character.BYTES + 5L * Integer.BYTES)
+                + (long) (postingStart.length + postings.length + top.length) * Integer.BYTES;
+    }
+
+    public String name(int rank) {
+        return names[rank];
+    }
+
+    /**
+     * @return rank of the exact name, or -1 if the trie does not have it
+     */
+    public int rank(String name) {
+        return ranks.getOrDefault(name, -1);
+    }
+
+    /**
+     * Finds names in which every query word starts a word.
+     * Candidates come from the query word whose node has the fewest postings; the precomputed top list answers unless
+     * filters reject too many of its names, in which case the node's postings are read.
+     *
+     * @param queryWords lowercase query words, see {@link #words(String)}
+     * @param limit maximum number of names
+     * @param live filter on ranks, e.g. names whose employees have all been deleted
+     * @return up to {@code limit} ranks in name order
+     */
+    public int[] complete(List<String> queryWords, int limit, IntPredicate live) {
+        if (queryWords.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        int node = -1;
+        for (String word : queryWords) {
+            int candidate = find(word);
+            if (candidate < 0) {
+                return new int[0];
+            }
+            if (node < 0 || postingCount(candidate) < postingCount(node)) {
+                node = candidate;
+            }
+        }
+        IntPredicate accepted =
+                queryWords.size() == 1 ? live : live.and(rank -> matches(names[rank], queryWords));
+        if (topStart[node] >= 0 && limit <= topK) {
+            int[] found = collect(top, topStart[node], topStart[node] + topK, limit, accepted);
+            if (found.length == limit) {
+                return found;
+            }
+        }
+        int[] lowest = lowestRanks(node);
+        return collect(lowest, 0, lowest.length, limit, accepted);
+    }
+
+    /**
+     * Splits a name or query into lowercase words.
+     * Apostrophes are dropped so that {@code O'Brien} is one word, anything else that is not a letter or digit
+     * separates.
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (c != '\'' && c != '\u2019' && word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return whether every query word starts some word of the name
+     */
+    public static boolean matches(String name, List<String> queryWords) {
+        List<String> nameWords = words(name);
+        return queryWords.stream().allMatch(query -> nameWords.stream().anyMatch(word -> word.startsWith(query)));
+    }
+
+    private int find(String prefix) {
+        int node = 0;
+        for (int depth = 0; depth < prefix.length() && node >= 0; depth++) {
+            int low = childStart[node];
+            int high = low + childCount[node] - 1;
+            char label = prefix.charAt(depth);
+            node = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (labels[mid] < label) {
+                    low = mid + 1;
+                } else if (labels[mid] > label) {
+                    high = mid - 1;
+                } else {
+                    node = mid;
+                    break;
+                }
+            }
+        }
+        return node;
+    }
+
+    private int postingCount(int node) {
+        return postingStart[wordTo[node]] - postingStart[wordFrom[node]];
+    }
+
+    /**
+     * Distinct ranks of the names under a node, lowest first
+     */
+    private int[] lowestRanks(int node) {
+        return distinctLowest(
+                Arrays.copyOfRange(postings, postingStart[wordFrom[node]], postingStart[wordTo[node]]),
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sorts the ranks in place and returns up to {@code limit} distinct ones, lowest first
+     */
+    private static int[] distinctLowest(int[] ranks, int limit) {
+        Arrays.sort(ranks);
+        int distinct = 0;
+        for (int i = 0; i < ranks.length && distinct < limit; i++) {
+            if (distinct == 0 || ranks[distinct - 1] != ranks[i]) {
+                ranks[distinct++] = ranks[i];
+            }
+        }
+        return Arrays.copyOf(ranks, distinct);
+    }
+
+    private static int[] collect(int[] ranks, int from, int to, int limit, IntPredicate accepted) {
+        int[] found = new int[Math.min(limit, to - from)];
+        int count = 0;
+        for (int i = from; i < to && count < found.length; i++) {
+            if (accepted.test(ranks[i])) {
+                found[count++] = ranks[i];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private static long pack(int high, int low) {
+        return ((long) high << 32) | low;
+    }
+
+    /**
+     * Growable node arrays used while building, in breadth-first order so that siblings are contiguous
+     */
+    private static class Nodes {
+
+        private char[] labels;
+
+        private int[] childStart;
+
+        private int[] childCount;
+
+        private int[] wordFrom;
+
+        private int[] wordTo;
+
+        private int[] depth;
+
+        private int[] ownTo;
+
+        private int size;
+
+        Nodes(int capacity) {
+            labels = new char[capacity];
+            childStart = new int[capacity];
+            childCount = new int[capacity];
+            wordFrom = new int[capacity];
+            wordTo = new int[capacity];
+            depth = new int[capacity];
+            ownTo = new int[capacity];
+        }
+
+        void add(char label, int from, int to, int nodeDepth) {
+            if (size == labels.length) {
+                int capacity = size * 2;
+                labels = Arrays.copyOf(labels, capacity);
+                childStart = Arrays.copyOf(childStart, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                wordFrom = Arrays.copyOf(wordFrom, capacity);
+                wordTo = Arrays.copyOf(wordTo, capacity);
+                depth = Arrays.copyOf(depth, capacity);
+                ownTo = Arrays.copyOf(ownTo, capacity);
+            }
+            labels[size] = label;
+            wordFrom[size] = from;
+            wordTo[size] = to;
+            depth[size] = nodeDepth;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.reliaquest.api.util;
+
+import java.util.Locale;
+
+/**
+ * Time one api request spends in each phase, kept in a thread local by the request's filter so that any code on the
+ * request thread can add to it without it being passed along. Outside of a timed request recording is a no-op.
+ */
+public class RequestTiming {
+
+    public enum Phase {
+        /** Waiting for the Server API, retries included */
+        UPSTREAM,
+        /** Unwrapping Server API responses into Employees; decoding happens as the body is read, under UPSTREAM */
+        CONVERT,
+        /** Filtering, sorting and aggregating Employees */
+        PROCESS,
+        /** Writing the response body */
+        SERIALIZE;
+
+        final String metric = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startedNanos = System.nanoTime();
+
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    private long serializingSinceNanos;
+
+    private long totalNanos;
+
+    /**
+     * Starts timing a request on the current thread
+     */
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * @return timing of the request on the current thread, or null if there is none
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Adds the time since {@code startedNanos} to a phase of the current request
+     */
+    public static void record(Phase phase, long startedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.phaseNanos[phase.ordinal()] += System.nanoTime() - startedNanos;
+        }
+    }
+
+    /**
+     * Marks the start of serialization, which lasts until {@link #finish}
+     */
+    public void serializing() {
+        serializingSinceNanos = System.nanoTime();
+    }
+
+    /**
+     * Stops timing and detaches the request from the current thread
+     */
+    public void finish() {
+        long now = System.nanoTime();
+        if (serializingSinceNanos != 0) {
+            phaseNanos[Phase.SERIALIZE.ordinal()] += now - serializingSinceNanos;
+            serializingSinceNanos = 0;
+        }
+        totalNanos = now - startedNanos;
+        CURRENT.remove();
+    }
+
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * {@code Server-Timing} header value for the phases so far, e.g. {@code upstream;dur=12.3, convert;dur=0.8}.
+     * Phases that took no time are left out, and the total is the time since the request started.
+     */
+    public String serverTiming() {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            if (phaseNanos[phase.ordinal()] > 0) {
+                appendMetric(header, phase.metric, phaseNanos[phase.ordinal()]);
+            }
+        }
+        return appendMetric(header, "total", totalNanos > 0 ? totalNanos : System.nanoTime() - startedNanos)
+                .toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String metric, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        long micros = nanos / 1_000;
+        return header.append(metric)
+                .append(";dur=")
+                .append(micros / 1_000)
+                .append('.')
+                .append(micros % 1_000 / 100);
+    }
+}
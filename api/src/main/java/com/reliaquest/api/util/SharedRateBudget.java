@@ -0,0 +1,177 @@
+package com.reliaquest.api.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Server API rate budget shared by every api process on the host through a memory-mapped file, so that together they
+ * stay under the server's per-client limit instead of each spending all of it.
+ * Each replica has a slot, keyed by a hash of its base URI, holding the request counts of the current and previous
+ * fixed windows. A count is packed with its window number into one long and updated by compare-and-set directly on
+ * the mapping, so processes never lock each other. As on the server, a request is admitted while the previous window's
+ * count, weighted by how much of it the sliding window still overlaps, plus the current count stays under the limit.
+ * Windows are aligned to wall-clock time so that every process agrees on them, and the first process to open the file
+ * records the limit and window in its header, so that one configured differently fails to open it.
+ */
+public class SharedRateBudget implements Closeable {
+
+    private static final long MAGIC = 0x3130544547445542L;
+
+    private static final int WINDOW_OFFSET = 8;
+
+    private static final int LIMIT_OFFSET = 16;
+
+    private static final int HEADER = 64;
+
+    private static final int SLOT = 32;
+
+    static final int SLOTS = 64;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final int limit;
+
+    private final long windowMillis;
+
+    private final LongSupplier clock;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+
+    public SharedRateBudget(Path file, int limit, Duration window) throws IOException {
+        this(file, limit, window, System::currentTimeMillis);
+    }
+
+    SharedRateBudget(Path file, int limit, Duration window, LongSupplier clock) throws IOException {
+        if (limit < 1 || window.toMillis() < 1) {
+            throw new IllegalArgumentException("Rate budget limit and window must be positive");
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.channel = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) SLOTS * SLOT);
+            claim(0, MAGIC, file + " is not a rate budget file");
+            claim(WINDOW_OFFSET, windowMillis, file + " is shared with a different rate window");
+            claim(LIMIT_OFFSET, limit, file + " is shared with a different rate limit");
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Takes one request from the replica's shared budget
+     *
+     * @return true if the request may be sent
+     */
+    public boolean tryAcquire(String baseUri) {
+        int slot = slot(baseUri);
+        while (true) {
+            long now = clock.getAsLong();
+            long window = now / windowMillis;
+            int current = counter(slot, window);
+            long word = (long) LONGS.getVolatile(buffer, current);
+            long count = countIn(word, window);
+            long previous = countIn((long) LONGS.getVolatile(buffer, counter(slot, window - 1)), window - 1);
+            double overlap = (windowMillis - now % windowMillis) / (double) windowMillis;
+            if (previous * overlap + count + 1 > limit) {
+                return false;
+            }
+            if (LONGS.compareAndSet(buffer, current, word, pack(window, count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Marks the replica's current window as used up, when the server reports the budget is gone even though the
+     * shared count disagrees, e.g. because the server's windows are not aligned with ours
+     */
+    public void exhaust(String baseUri) {
+        int slot = slot(baseUri);
+        while (true) {
+            long window = clock.getAsLong() / windowMillis;
+            int current = counter(slot, window);
+            long word = (long) LONGS.getVolatile(buffer, current);
+            if (countIn(word, window) >= limit
+                    || LONGS.compareAndSet(buffer, current, word, pack(window, limit))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Finds or claims the replica's slot by open addressing on the hash of its base URI
+     */
+    private int slot(String baseUri) {
+        return slots.computeIfAbsent(baseUri, uri -> {
+            long key = hash(uri);
+            int start = (int) Long.remainderUnsigned(key, SLOTS);
+            for (int i = 0; i < SLOTS; i++) {
+                int slot = HEADER + ((start + i) % SLOTS) * SLOT;
+                long owner = (long) LONGS.compareAndExchange(buffer, slot, 0L, key);
+                if (owner == 0 || owner == key) {
+                    return slot;
+                }
+            }
+            throw new IllegalStateException("No free rate budget slot for " + uri);
+        });
+    }
+
+    private void claim(int offset, long value, String mismatch) throws IOException {
+        long existing = (long) LONGS.compareAndExchange(buffer, offset, 0L, value);
+        if (existing != 0 && existing != value) {
+            throw new IOException(mismatch);
+        }
+    }
+
+    private static int counter(int slot, long window) {
+        return slot + 8 + (int) (window & 1) * 8;
+    }
+
+    private static long pack(long window, long count) {
+        return window << 32 | count;
+    }
+
+    private static long countIn(long word, long window) {
+        return (int) (word >>> 32) == (int) window ? word & 0xFFFFFFFFL : 0;
+    }
+
+    /**
+     * 64-bit FNV-1a, never zero since zero marks a free slot
+     */
+    private static long hash(String uri) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : uri.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
@@ -0,0 +1,139 @@
+package com.reliaquest.api.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+import com.reliaquest.api.model.SlowRequest;
+
+/**
+ * The slowest requests of the last {@code maxAge}, in a fixed ring of slots updated by compare-and-set.
+ * A finished request replaces the fastest or an expired entry if it was slower. Most requests are not, and they are
+ * turned away after reading two volatile fields: the fastest duration still in the ring and when its oldest entry
+ * expires, below which nothing can be admitted until then.
+ */
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<Entry> slots;
+
+    private final long maxAgeMillis;
+
+    private final LongSupplier clock;
+
+    private volatile long floorNanos;
+
+    private volatile long floorUntilMillis;
+
+    public SlowRequestLog(int capacity, long maxAgeMillis) {
+        this(capacity, maxAgeMillis, System::currentTimeMillis);
+    }
+
+    SlowRequestLog(int capacity, long maxAgeMillis, LongSupplier clock) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Offers a finished request
+     */
+    public void record(String method, String path, int status, RequestTiming timing) {
+        long now = clock.getAsLong();
+        long total = timing.totalNanos();
+        if (total <= floorNanos && now < floorUntilMillis) {
+            return;
+        }
+        Entry entry = new Entry(method, path, status, now, timing);
+        while (true) {
+            int victim = -1;
+            Entry replaced = null;
+            long fastest = Long.MAX_VALUE;
+            for (int i = 0; i < slots.length(); i++) {
+                Entry current = slots.get(i);
+                long duration = isLive(current, now) ? current.timing().totalNanos() : -1;
+                if (duration < fastest) {
+                    victim = i;
+                    replaced = current;
+                    fastest = duration;
+                }
+            }
+            if (total <= fastest) {
+                updateFloor(now);
+                return;
+            }
+            if (slots.compareAndSet(victim, replaced, entry)) {
+                updateFloor(now);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return live entries, slowest first
+     */
+    public List<SlowRequest> slowest() {
+        long now = clock.getAsLong();
+        List<Entry> entries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (isLive(entry, now)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong((Entry entry) -> entry.timing().totalNanos()).reversed());
+        List<SlowRequest> slowest = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            slowest.add(entry.toSlowRequest());
+        }
+        return slowest;
+    }
+
+    /**
+     * Recomputes the admission floor. Racing updates may leave it lower than it could be, which only costs a scan.
+     */
+    private void updateFloor(long now) {
+        long fastest = Long.MAX_VALUE;
+        long until = Long.MAX_VALUE;
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (!isLive(entry, now)) {
+                floorNanos = 0;
+                return;
+            }
+            fastest = Math.min(fastest, entry.timing().totalNanos());
+            until = Math.min(until, entry.finishedAtMillis() + maxAgeMillis);
+        }
+        floorUntilMillis = until;
+        floorNanos = fastest;
+    }
+
+    private boolean isLive(Entry entry, long now) {
+        return entry != null && now - entry.finishedAtMillis() < maxAgeMillis;
+    }
+
+    private record Entry(String method, String path, int status, long finishedAtMillis, RequestTiming timing) {
+
+        SlowRequest toSlowRequest() {
+            Map<String, Double> phases = new LinkedHashMap<>();
+            for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+                phases.put(phase.metric, millis(timing.phaseNanos(phase)));
+            }
+            return new SlowRequest(
+                    method,
+                    path,
+                    status,
+                    Instant.ofEpochMilli(finishedAtMillis).toString(),
+                    millis(timing.totalNanos()),
+                    phases);
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.reliaquest.api.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.reliaquest.api.model.CapturedRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Binary log of incoming requests for replaying them later. Request threads only hand a CapturedRequest to a bounded
+ * queue, and drop it if the queue is full; one background thread encodes and appends them, flushing whenever the queue
+ * runs dry.
+ * After a header of {@code ECAP}, a version byte and the start time in epoch milliseconds, each request is its arrival
+ * offset in microseconds, method, uri, header count, header names and values, and body. Numbers and lengths are
+ * unsigned varints and strings UTF-8 prefixed by their length, so a typical GET takes a few dozen bytes. Requests are
+ * appended as they finish, not necessarily in arrival order. A truncated last request is the tail of a crash and ends
+ * reading.
+ */
+@Slf4j
+public class TrafficCapture implements Closeable {
+
+    private static final byte[] MAGIC = "ECAP".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int VERSION = 1;
+
+    private final BlockingQueue<CapturedRequest> queue;
+
+    private final DataOutputStream out;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public TrafficCapture(Path file, int queueCapacity) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.flush();
+        this.writer = new Thread(this::drain, "traffic-capture");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a request that arrived at {@code arrivalNanos} on the System.nanoTime clock, without blocking
+     */
+    public void record(long arrivalNanos, String method, String uri, Map<String, String> headers, byte[] body) {
+        long offsetMicros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(arrivalNanos - startNanos));
+        if (!queue.offer(new CapturedRequest(offsetMicros, method, uri, headers, body))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Requests turned away because the queue was full
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Writes what is still queued and closes the file
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (dropped.get() > 0) {
+            log.warn("Traffic capture dropped {} requests behind a full queue", dropped.get());
+        }
+    }
+
+    /**
+     * Every complete request in a capture file, in the order they were written
+     */
+    public static List<CapturedRequest> read(Path file) throws IOException {
+        List<CapturedRequest> requests = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            byte[] magic = in.readNBytes(MAGIC.length);
+            int version = in.read();
+            if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+                throw new IOException(file + " is not a version " + VERSION + " traffic capture.");
+            }
+            in.readLong();
+            while (true) {
+                long offsetMicros;
+                try {
+                    offsetMicros = readVarLong(in);
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    String method = readString(in);
+                    String uri = readString(in);
+                    int headerCount = (int) readVarLong(in);
+                    Map<String, String> headers = new LinkedHashMap<>();
+                    for (int i = 0; i < headerCount; i++) {
+                        headers.put(readString(in), readString(in));
+                    }
+                    requests.add(new CapturedRequest(offsetMicros, method, uri, headers, readBytes(in)));
+                } catch (EOFException e) {
+                    log.warn("Ignoring truncated last request in {}", file);
+                    break;
+                }
+            }
+        }
+        return requests;
+    }
+
+    private void drain() {
+        try {
+            while (running || !queue.isEmpty()) {
+                CapturedRequest request = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (request == null) {
+                    continue;
+                }
+                do {
+                    write(request);
+                } while ((request = queue.poll()) != null);
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.error("Traffic capture stopped writing", e);
+            running = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(CapturedRequest request) throws IOException {
+        writeVarLong(out, request.offsetMicros());
+        writeString(out, request.method());
+        writeString(out, request.uri());
+        writeVarLong(out, request.headers().size());
+        for (Map.Entry<String, String> header : request.headers().entrySet()) {
+            writeString(out, header.getKey());
+            writeString(out, header.getValue());
+        }
+        writeBytes(out, request.body());
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(OutputStream out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(InputStream in) throws IOException {
+        int length = (int) readVarLong(in);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException();
+        }
+        return bytes;
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in traffic capture.");
+    }
+}
@@ -0,0 +1,115 @@
+package com.reliaquest.api.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Server API replica and what balancers know about it: requests in flight, the rate budget it last reported and
+ * whether it is ejected after failing. Ejection doubles with each consecutive failure up to a maximum, and once it
+ * expires the next request is the trial that either readmits the replica or ejects it again.
+ */
+public class Upstream {
+
+    private static final long UNKNOWN = -1;
+
+    private final int index;
+
+    private final String baseUri;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private volatile long remaining = UNKNOWN;
+
+    private volatile long resetAtNanos;
+
+    private volatile long ejectedUntilNanos;
+
+    private int consecutiveFailures;
+
+    public Upstream(int index, String baseUri) {
+        this.index = index;
+        this.baseUri = baseUri;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public String baseUri() {
+        return baseUri;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    public void end() {
+        outstanding.decrementAndGet();
+    }
+
+    public boolean isAvailable(long nowNanos) {
+        return nowNanos >= ejectedUntilNanos;
+    }
+
+    public long ejectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    /**
+     * Requests this replica should still accept before its rate window resets, less those already in flight.
+     * Unknown or already reset budgets are unlimited.
+     */
+    public long budget(long nowNanos) {
+        long known = remaining;
+        if (known == UNKNOWN || nowNanos >= resetAtNanos) {
+            return Long.MAX_VALUE;
+        }
+        return known - outstanding.get();
+    }
+
+    /**
+     * When the budget last reported resets, in {@link System#nanoTime()} terms
+     */
+    public long resetAtNanos() {
+        return resetAtNanos;
+    }
+
+    /**
+     * Records the budget from the {@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset} headers
+     */
+    public void updateBudget(long remaining, long resetSeconds, long nowNanos) {
+        this.resetAtNanos = nowNanos + resetSeconds * 1_000_000_000L;
+        this.remaining = remaining;
+    }
+
+    /**
+     * @return true if the replica had been failing and is now readmitted
+     */
+    public synchronized boolean succeeded() {
+        boolean recovered = consecutiveFailures > 0;
+        consecutiveFailures = 0;
+        ejectedUntilNanos = 0;
+        return recovered;
+    }
+
+    /**
+     * Ejects the replica for {@code ejectNanos} doubled per consecutive failure, at most {@code maxEjectNanos}
+     *
+     * @return how long the replica is ejected for
+     */
+    public synchronized long failed(long nowNanos, long ejectNanos, long maxEjectNanos) {
+        consecutiveFailures++;
+        long ejection = ejectNanos << Math.min(consecutiveFailures - 1, 20);
+        ejection = ejection <= 0 ? maxEjectNanos : Math.min(maxEjectNanos, ejection);
+        ejectedUntilNanos = nowNanos + ejection;
+        return ejection;
+    }
+
+    @Override
+    public String toString() {
+        return baseUri;
+    }
+}
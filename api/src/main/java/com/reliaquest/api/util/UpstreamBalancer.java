@@ -0,0 +1,94 @@
+package com.reliaquest.api.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the Server API replica for a read.
+ * Implementations scan the candidates from a rotating offset so that ties spread evenly instead of favouring the
+ * first replica.
+ */
+public interface UpstreamBalancer {
+
+    enum Strategy {
+        ROUND_ROBIN,
+        LEAST_OUTSTANDING,
+        RATE_BUDGET
+    }
+
+    /**
+     * @param candidates available replicas, never empty
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return the replica to send the request to
+     */
+    Upstream choose(List<Upstream> candidates, long nowNanos);
+
+    static UpstreamBalancer of(Strategy strategy) {
+        return switch (strategy) {
+            case ROUND_ROBIN -> new RoundRobin();
+            case LEAST_OUTSTANDING -> new LeastOutstanding();
+            case RATE_BUDGET -> new RateBudget();
+        };
+    }
+
+    /**
+     * Each replica in turn
+     */
+    class RoundRobin implements UpstreamBalancer {
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        @Override
+        public Upstream choose(List<Upstream> candidates, long nowNanos) {
+            return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+        }
+    }
+
+    /**
+     * The replica with the fewest requests in flight, which steers around slow replicas
+     */
+    class LeastOutstanding implements UpstreamBalancer {
+
+        private final AtomicInteger offset = new AtomicInteger();
+
+        @Override
+        public Upstream choose(List<Upstream> candidates, long nowNanos) {
+            int start = Math.floorMod(offset.getAndIncrement(), candidates.size());
+            Upstream best = null;
+            for (int i = 0; i < candidates.size(); i++) {
+                Upstream candidate = candidates.get((start + i) % candidates.size());
+                if (best == null || candidate.outstanding() < best.outstanding()) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * The replica with the most rate budget left, by the last {@code X-RateLimit-Remaining} it reported minus requests
+     * in flight, so that no replica is exhausted while another still has budget. Ties go to fewer requests in flight.
+     */
+    class RateBudget implements UpstreamBalancer {
+
+        private final AtomicInteger offset = new AtomicInteger();
+
+        @Override
+        public Upstream choose(List<Upstream> candidates, long nowNanos) {
+            int start = Math.floorMod(offset.getAndIncrement(), candidates.size());
+            Upstream best = null;
+            long bestBudget = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                Upstream candidate = candidates.get((start + i) % candidates.size());
+                long budget = candidate.budget(nowNanos);
+                if (best == null
+                        || budget > bestBudget
+                        || (budget == bestBudget && candidate.outstanding() < best.outstanding())) {
+                    best = candidate;
+                    bestBudget = budget;
+                }
+            }
+            return best;
+        }
+    }
+}
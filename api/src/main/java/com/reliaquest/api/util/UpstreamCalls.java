@@ -0,0 +1,62 @@
+package com.reliaquest.api.util;
+
+/**
+ * Server API calls made for one api request, kept in a thread local by the concurrency limit's filter in the same way
+ * as RequestTiming. Only calls that reached a replica are recorded, so a 429 for the shared budget or an error of the
+ * api's own leaves no trace. Outside of a tracked request recording is a no-op.
+ */
+public class UpstreamCalls {
+
+    private static final ThreadLocal<UpstreamCalls> CURRENT = new ThreadLocal<>();
+
+    private int count;
+
+    private long nanos;
+
+    private boolean overloaded;
+
+    /**
+     * Starts tracking the calls of a request on the current thread
+     */
+    public static UpstreamCalls start() {
+        UpstreamCalls calls = new UpstreamCalls();
+        CURRENT.set(calls);
+        return calls;
+    }
+
+    /**
+     * Adds a call that took {@code nanos} to the request on the current thread
+     *
+     * @param overloaded whether the replica answered 429 or 5xx, or could not be reached
+     */
+    public static void record(long nanos, boolean overloaded) {
+        UpstreamCalls calls = CURRENT.get();
+        if (calls != null) {
+            calls.count++;
+            calls.nanos += nanos;
+            calls.overloaded |= overloaded;
+        }
+    }
+
+    /**
+     * Stops tracking and detaches the request from the current thread
+     */
+    public void finish() {
+        CURRENT.remove();
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Time spent waiting for the Server API, over all calls
+     */
+    public long nanos() {
+        return nanos;
+    }
+
+    public boolean overloaded() {
+        return overloaded;
+    }
+}
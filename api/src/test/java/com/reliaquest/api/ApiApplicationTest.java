@@ -1,6 +1,13 @@
 package com.reliaquest.api;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -8,33 +15,44 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.reliaquest.api.common.Constants;
 import com.reliaquest.api.controller.impl.*;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.GroupAggregate;
+import com.reliaquest.api.model.SlowRequest;
 import com.reliaquest.api.request.CreateEmployeeRequest;
-import com.reliaquest.api.request.DeleteEmployeeRequest;
 import com.reliaquest.api.service.ApiService;
 import com.reliaquest.api.service.EmployeeService;
 import com.reliaquest.api.util.FileUtil;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -63,6 +81,7 @@ class ApiApplicationTest {
 
     private static JsonNode allEmployeeJson;
     private static JsonNode singleEmployeeJson;
+    private static JsonNode salariesJson;
     private static List<String> empNames;
 
     /**
@@ -76,6 +95,8 @@ class ApiApplicationTest {
         assertNotNull(allEmployeeJson);
         singleEmployeeJson = FileUtil.readJSON("employee-data.json");
         assertNotNull(singleEmployeeJson);
+        salariesJson = FileUtil.readJSON("salaries-data.json");
+        assertNotNull(salariesJson);
         empNames = Arrays.asList(
                 "Jann Graham",
                 "Tamesha Greenholt",
@@ -108,6 +129,29 @@ class ApiApplicationTest {
         });
     }
 
+    @Test
+    void getAllEmployeesFieldsTest() throws Exception {
+        mockGetAllSuccess();
+        mockGetFieldsSuccess("id,employee_name");
+        mockMvc.perform(get("/employee?fields=employee_name,ID")).andExpect(status().isOk()).andDo(result -> {
+            JsonNode list = mapper.readTree(result.getResponse().getContentAsString());
+            assertEquals(50, list.size());
+            list.forEach(employee -> {
+                assertEquals(List.of("id", "employee_name"), fieldNames(employee));
+                assertFalse(employee.get("employee_name").isNull());
+            });
+        });
+        mockGetFieldsSuccess("employee_name");
+        mockMvc.perform(get("/employee/search/and?fields=name")).andExpect(status().isOk()).andDo(result -> {
+            JsonNode list = mapper.readTree(result.getResponse().getContentAsString());
+            assertEquals(3, list.size());
+            list.forEach(employee -> assertEquals(List.of("employee_name"), fieldNames(employee)));
+        });
+        mockMvc.perform(get("/employee?fields=id,password")).andExpect(status().isBadRequest()).andDo(result ->
+                assertEquals("Unknown field: password.", mapper.readTree(result.getResponse().getContentAsString())
+                        .get("message").asText()));
+    }
+
     @Test
     void getEmployeeByIdTest() throws Exception {
         mockSingleEmployee();
@@ -123,9 +167,31 @@ class ApiApplicationTest {
                 });
     }
 
+    @Test
+    void getEmployeeByInvalidIdTest() throws Exception {
+        mockMvc.perform(get("/employee/not-a-uuid")).andExpect(status().isBadRequest());
+        verify(restTemplate, never())
+                .exchange(anyString(), any(HttpMethod.class), any(), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void getEmployeeByMissingIdTest() throws Exception {
+        String id = UUID.randomUUID().toString();
+        when(upstream(restTemplate, HttpMethod.GET, apiBaseUrl + Constants.EMPLOYEE_URI + "/" + id, null))
+                .thenThrow(HttpClientErrorException.create(
+                        HttpStatus.NOT_FOUND, "Not Found", null, "{}".getBytes(), StandardCharsets.UTF_8));
+        mockMvc.perform(get("/employee/" + id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/employee/" + id)).andExpect(status().isNotFound()).andDo(result ->
+                assertEquals("Employee " + id + " not found.", mapper.readTree(result.getResponse().getContentAsString())
+                        .get("message").asText()));
+        upstream(
+                verify(restTemplate, times(1)), HttpMethod.GET, apiBaseUrl + Constants.EMPLOYEE_URI + "/" + id, null);
+    }
+
     @Test
     void getHighestSalaryOfEmployeesTest() throws Exception {
         mockGetAllSuccess();
+        mockSalariesSuccess(0);
         mockMvc.perform(get("/employee/highestSalary"))
                 .andExpect(status().isOk())
                 .andDo(result -> assertEquals("493025", result.getResponse().getContentAsString()));
@@ -134,6 +200,7 @@ class ApiApplicationTest {
     @Test
     void getTopTenHighestEarningEmployeeNamesTest() throws Exception {
         mockGetAllSuccess();
+        mockSalariesSuccess(10);
         mockMvc.perform(get("/employee/topTenHighestEarningEmployeeNames"))
                 .andExpect(status().isOk())
                 .andDo(result -> {
@@ -149,8 +216,8 @@ class ApiApplicationTest {
         CreateEmployeeRequest createRequest =
                 new CreateEmployeeRequest("Scott Farrell", 89277, 27, "Corporate Sales Agent", "vagram@company.com");
         String requestBody = mapper.writeValueAsString(createRequest);
-        when(restTemplate.postForEntity(apiBaseUrl + "/employee", createRequest, JsonNode.class))
-                .thenReturn(ResponseEntity.ok(singleEmployeeJson));
+        when(upstream(restTemplate, HttpMethod.POST, apiBaseUrl + "/employee", new HttpEntity<>(createRequest)))
+                .thenAnswer(decoded(singleEmployeeJson));
         mockMvc.perform(post("/employee").content(requestBody).contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andDo(result -> {
@@ -165,13 +232,15 @@ class ApiApplicationTest {
 
     @Test
     void deleteEmployeeByIdTest() throws Exception {
-        mockSingleEmployee();
-        when(restTemplate.exchange(
-                        apiBaseUrl + Constants.EMPLOYEE_URI,
+        UUID id = UUID.fromString("7e44d58c-730e-404a-841e-44bcc9dd87bd");
+        ObjectNode deleted = mapper.createObjectNode().put("status", Constants.SUCCESS_MSG);
+        deleted.putArray("data").addObject().put("status", "OK").set("data", singleEmployeeJson.get("data"));
+        when(upstream(
+                        restTemplate,
                         HttpMethod.DELETE,
-                        new HttpEntity<>(new DeleteEmployeeRequest("Scott Farrell")),
-                        JsonNode.class))
-                .thenReturn(ResponseEntity.ok(singleEmployeeJson));
+                        apiBaseUrl + Constants.EMPLOYEE_BATCH_URI,
+                        new HttpEntity<>(List.of(id))))
+                .thenAnswer(decoded(deleted));
 
         mockMvc.perform(delete("/employee/7e44d58c-730e-404a-841e-44bcc9dd87bd"))
                 .andExpect(status().isOk())
@@ -179,21 +248,151 @@ class ApiApplicationTest {
                         assertEquals("Micheal Hand", result.getResponse().getContentAsString()));
     }
 
+    @Test
+    void deleteEmployeeAlreadyGoneUpstreamTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        ObjectNode employee = singleEmployeeJson.deepCopy();
+        ((ObjectNode) employee.get("data")).put("id", id.toString());
+        when(upstream(restTemplate, HttpMethod.GET, apiBaseUrl + Constants.EMPLOYEE_URI + "/" + id, null))
+                .thenAnswer(decoded(employee));
+        mockMvc.perform(get("/employee/" + id)).andExpect(status().isOk());
+        ObjectNode notFound = mapper.createObjectNode().put("status", Constants.SUCCESS_MSG);
+        notFound.putArray("data").addObject().put("status", "NOT_FOUND");
+        when(upstream(
+                        restTemplate,
+                        HttpMethod.DELETE,
+                        apiBaseUrl + Constants.EMPLOYEE_BATCH_URI,
+                        new HttpEntity<>(List.of(id))))
+                .thenAnswer(decoded(notFound));
+
+        mockMvc.perform(delete("/employee/" + id)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/employee/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void queryEmployeesTest() throws Exception {
+        mockGetAllSuccess();
+        mockMvc.perform(get("/employee/query?minSalary=400000&sort=SALARY&order=DESC&limit=3"))
+                .andExpect(status().isOk())
+                .andDo(result -> {
+                    EmployeePage page = mapper.readValue(result.getResponse().getContentAsString(), EmployeePage.class);
+                    assertEquals(3, page.employees().size());
+                    assertEquals(493025, page.employees().get(0).getSalary());
+                    assertTrue(page.total() >= 3);
+                    page.employees().forEach(emp -> assertTrue(emp.getSalary() >= 400000));
+                });
+    }
+
+    @Test
+    void aggregateEmployeesTest() throws Exception {
+        mockGetAllSuccess();
+        mockMvc.perform(get("/employee/aggregate?groupBy=age-band"))
+                .andExpect(status().isOk())
+                .andDo(result -> {
+                    List<GroupAggregate> groups =
+                            mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+                    assertEquals(50, groups.stream().mapToInt(GroupAggregate::count).sum());
+                    assertEquals(493025, groups.stream().mapToInt(GroupAggregate::maxSalary).max().getAsInt());
+                });
+    }
+
+    @Test
+    void autocompleteNamesTest() throws Exception {
+        mockGetAllSuccess();
+        mockMvc.perform(get("/employee/autocomplete?prefix=CUM&limit=2"))
+                .andExpect(status().isOk())
+                .andDo(result -> {
+                    List<String> names =
+                            mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+                    assertEquals(List.of("Linette Cummings", "Reginald Cummings"), names);
+                });
+    }
+
+    @Test
+    void serverTimingAndSlowRequestsTest() throws Exception {
+        String id = UUID.randomUUID().toString();
+        when(upstream(restTemplate, HttpMethod.GET, apiBaseUrl + Constants.EMPLOYEE_URI + "/" + id, null))
+                .thenAnswer(decoded(singleEmployeeJson));
+        mockMvc.perform(get("/employee/" + id))
+                .andExpect(status().isOk())
+                .andDo(result -> {
+                    String serverTiming = result.getResponse().getHeader("Server-Timing");
+                    assertNotNull(serverTiming);
+                    assertTrue(serverTiming.contains("upstream;dur="));
+                    assertTrue(serverTiming.contains("convert;dur="));
+                    assertTrue(serverTiming.contains("total;dur="));
+                });
+        mockMvc.perform(get("/admin/slow-requests"))
+                .andExpect(status().isOk())
+                .andDo(result -> {
+                    List<SlowRequest> slowRequests =
+                            mapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+                    assertTrue(slowRequests.stream().anyMatch(slow -> slow.path().equals("/employee/" + id)
+                            && slow.phases().containsKey("serialize")));
+                });
+    }
+
     /**
      * Mock Get All Employee request to Server API
      */
     private void mockGetAllSuccess() {
-        when(restTemplate.getForEntity(apiBaseUrl + Constants.EMPLOYEE_URI, JsonNode.class))
-                .thenReturn(ResponseEntity.ok(allEmployeeJson));
+        when(upstream(restTemplate, HttpMethod.GET, apiBaseUrl + Constants.EMPLOYEE_URI, null))
+                .thenAnswer(decoded(allEmployeeJson));
+    }
+
+    /**
+     * Mock projected list request to Server API; the full employees stand in for the projection
+     */
+    private void mockGetFieldsSuccess(String fields) {
+        when(upstream(restTemplate, HttpMethod.GET, apiBaseUrl + Constants.EMPLOYEE_URI + "?fields=" + fields, null))
+                .thenAnswer(decoded(allEmployeeJson));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    /**
+     * Mock salary aggregates request to Server API
+     */
+    private void mockSalariesSuccess(int top) {
+        when(upstream(restTemplate, HttpMethod.GET, apiBaseUrl + Constants.SALARIES_URI + "?top=" + top, null))
+                .thenAnswer(decoded(salariesJson));
     }
 
     /**
      * Mock Get Employee by ID request to Server API
      */
     private void mockSingleEmployee() {
-        when(restTemplate.getForEntity(
+        when(upstream(
+                        restTemplate,
+                        HttpMethod.GET,
                         apiBaseUrl + Constants.EMPLOYEE_URI + "/7e44d58c-730e-404a-841e-44bcc9dd87bd",
-                        JsonNode.class))
-                .thenReturn(ResponseEntity.ok(singleEmployeeJson));
+                        null))
+                .thenAnswer(decoded(singleEmployeeJson));
+    }
+
+    /**
+     * Server API call made through the given RestTemplate mock, for stubbing or verifying it whatever the response type
+     */
+    private static <T> ResponseEntity<T> upstream(
+            RestTemplate template, HttpMethod method, String url, HttpEntity<?> request) {
+        return template.exchange(
+                eq(url),
+                eq(method),
+                request == null ? isNull() : eq(request),
+                ArgumentMatchers.<ParameterizedTypeReference<T>>any());
+    }
+
+    /**
+     * Answers a Server API call with the given JSON decoded into the requested response type, as the RestTemplate would
+     */
+    private Answer<ResponseEntity<?>> decoded(JsonNode body) {
+        return invocation -> {
+            ParameterizedTypeReference<?> responseType = invocation.getArgument(3);
+            return ResponseEntity.ok(mapper.convertValue(body, mapper.constructType(responseType.getType())));
+        };
     }
 }
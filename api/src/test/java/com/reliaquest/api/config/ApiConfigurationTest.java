@@ -0,0 +1,31 @@
+package com.reliaquest.api.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Unit tests to cover which beans the fast-startup profile still creates eagerly
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("fast-startup")
+public class ApiConfigurationTest {
+
+    @DynamicPropertySource
+    static void writeQueueFile(DynamicPropertyRegistry registry) throws IOException {
+        String file =
+                Files.createTempDirectory("write-queue").resolve("writes.log").toString();
+        registry.add("api.write-queue.file", () -> file);
+    }
+
+    @Test
+    public void testWriteQueueDrainsWithoutWaitingForARequest() {
+        Assertions.assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("employee-write-queue") && thread.isAlive()));
+    }
+}
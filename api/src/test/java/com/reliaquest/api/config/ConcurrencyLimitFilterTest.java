@@ -0,0 +1,81 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.util.AdaptiveConcurrencyLimit;
+import com.reliaquest.api.util.UpstreamCalls;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests to cover load shedding in ConcurrencyLimitFilter
+ */
+public class ConcurrencyLimitFilterTest {
+
+    @Test
+    public void testShedsWithServiceUnavailableWhenLimitIsReached() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, Long.MAX_VALUE);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit);
+        limit.tryAcquire();
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/employee"), response, chain);
+
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+        Assertions.assertEquals(
+                "{\"message\":\"Too many concurrent requests, retry later.\",\"status\":\"Service Unavailable\"}",
+                response.getContentAsString());
+        Assertions.assertNull(chain.getRequest());
+    }
+
+    @Test
+    public void testReleasesPermitAfterRequest() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, Long.MAX_VALUE);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit);
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/employee"), new MockHttpServletResponse(), chain);
+
+        Assertions.assertNotNull(chain.getRequest());
+        Assertions.assertEquals(0, limit.inFlight());
+    }
+
+    @Test
+    public void testOnlyUpstreamOverloadCutsTheLimit() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, Long.MAX_VALUE);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit);
+
+        filter.doFilter(
+                new MockHttpServletRequest("GET", "/employee"),
+                new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(429));
+        filter.doFilter(
+                new MockHttpServletRequest("GET", "/employee"),
+                new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(500));
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> filter.doFilter(
+                        new MockHttpServletRequest("GET", "/employee"),
+                        new MockHttpServletResponse(),
+                        (request, response) -> {
+                            throw new IllegalStateException("api bug");
+                        }));
+        Assertions.assertEquals(20, limit.limit());
+
+        filter.doFilter(
+                new MockHttpServletRequest("GET", "/employee"), new MockHttpServletResponse(), (request, response) -> {
+                    UpstreamCalls.record(1_000_000, true);
+                    ((HttpServletResponse) response).setStatus(200);
+                });
+        Assertions.assertEquals(18, limit.limit());
+        Assertions.assertEquals(0, limit.inFlight());
+
+        UpstreamCalls.record(1_000_000, true);
+        Assertions.assertEquals(18, limit.limit());
+    }
+}
@@ -0,0 +1,127 @@
+package com.reliaquest.api.config;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.common.Constants;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.Response;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Unit tests to cover negotiating Smile with the Server API in WireFormatInterceptor
+ */
+public class WireFormatInterceptorTest {
+
+    private static final String URL = "http://server/api/v1/employee";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    private final ParameterizedTypeReference<Response<List<Employee>>> employeesResponse =
+            responseType(List.class, Employee.class);
+
+    private final MockRestServiceServer server;
+
+    private final Employee ann = new Employee(UUID.randomUUID(), "Ann Lee", 90000, 30, null, "ann@company.com");
+
+    public WireFormatInterceptorTest() {
+        restTemplate.getInterceptors().add(new WireFormatInterceptor());
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    public void testAsksForSmileAndDecodesItIntoTheResponseType() throws Exception {
+        server.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.9"))
+                .andRespond(withSuccess(
+                        smileMapper.writeValueAsBytes(Map.of("status", Constants.SUCCESS_MSG, "data", List.of(ann))),
+                        WireFormatInterceptor.APPLICATION_SMILE));
+
+        Response<List<Employee>> response = restTemplate
+                .exchange(URL, HttpMethod.GET, null, employeesResponse)
+                .getBody();
+
+        Assertions.assertEquals(Constants.SUCCESS_MSG, response.status());
+        Assertions.assertEquals(List.of(ann), response.data());
+        server.verify();
+    }
+
+    @Test
+    public void testJsonFallbackIsDecodedAsBefore() throws Exception {
+        server.expect(requestTo(URL))
+                .andRespond(withSuccess(
+                        mapper.writeValueAsBytes(Map.of("status", Constants.SUCCESS_MSG, "data", List.of(ann))),
+                        MediaType.APPLICATION_JSON));
+
+        Response<List<Employee>> response = restTemplate
+                .exchange(URL, HttpMethod.GET, null, employeesResponse)
+                .getBody();
+
+        Assertions.assertEquals(List.of(ann), response.data());
+    }
+
+    @Test
+    public void testSmileErrorBodyIsTranscodedToJson() throws Exception {
+        Map<String, String> error = Map.of("status", "Failed to process request.", "error", "Not found.");
+        server.expect(requestTo(URL))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(WireFormatInterceptor.APPLICATION_SMILE)
+                        .body(smileMapper.writeValueAsBytes(error)));
+
+        HttpClientErrorException.NotFound notFound = Assertions.assertThrows(
+                HttpClientErrorException.NotFound.class,
+                () -> restTemplate.exchange(URL, HttpMethod.GET, null, employeesResponse));
+
+        Assertions.assertEquals(
+                MediaType.APPLICATION_JSON, notFound.getResponseHeaders().getContentType());
+        Assertions.assertEquals(mapper.valueToTree(error), mapper.readTree(notFound.getResponseBodyAsString()));
+        Assertions.assertEquals(
+                notFound.getResponseBodyAsByteArray().length,
+                notFound.getResponseHeaders().getContentLength());
+    }
+
+    @Test
+    public void testJsonErrorBodyIsLeftAlone() throws Exception {
+        String error = "{\"status\":\"Failed to process request.\",\"error\":\"Too many requests.\"}";
+        server.expect(requestTo(URL))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error));
+
+        HttpClientErrorException.TooManyRequests tooMany = Assertions.assertThrows(
+                HttpClientErrorException.TooManyRequests.class,
+                () -> restTemplate.exchange(URL, HttpMethod.GET, null, employeesResponse));
+
+        Assertions.assertEquals(error, tooMany.getResponseBodyAsString());
+    }
+
+    /**
+     * Response type built the way EmployeeService builds it, from a Jackson JavaType
+     */
+    private <T> ParameterizedTypeReference<Response<T>> responseType(Class<?> container, Class<?> element) {
+        JavaType dataType = mapper.getTypeFactory().constructParametricType(container, element);
+        return ParameterizedTypeReference.forType(
+                mapper.getTypeFactory().constructParametricType(Response.class, dataType));
+    }
+}
@@ -0,0 +1,30 @@
+package com.reliaquest.api.controller.impl;
+
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover reading the Prefer header of asynchronous writes
+ */
+public class EmployeeOperationControllerTest {
+
+    @Test
+    public void testRespondAsyncAmongOtherPreferences() {
+        Assertions.assertTrue(EmployeeOperationController.respondAsync(List.of("respond-async")));
+        Assertions.assertTrue(EmployeeOperationController.respondAsync(List.of("respond-async, wait=10")));
+        Assertions.assertTrue(EmployeeOperationController.respondAsync(List.of("wait=10,Respond-Async")));
+        Assertions.assertTrue(EmployeeOperationController.respondAsync(List.of("handling=lenient", " respond-async ")));
+        Assertions.assertTrue(
+                EmployeeOperationController.respondAsync(List.of("return=minimal; foo=\"a,b\", respond-async")));
+    }
+
+    @Test
+    public void testOtherPreferencesAreNotRespondAsync() {
+        Assertions.assertFalse(EmployeeOperationController.respondAsync(List.of()));
+        Assertions.assertFalse(EmployeeOperationController.respondAsync(List.of("wait=10")));
+        Assertions.assertFalse(EmployeeOperationController.respondAsync(List.of("respond-asynchronously")));
+        Assertions.assertFalse(EmployeeOperationController.respondAsync(List.of("foo=\"x, respond-async\"")));
+        Assertions.assertFalse(EmployeeOperationController.respondAsync(List.of("return=respond-async")));
+    }
+}
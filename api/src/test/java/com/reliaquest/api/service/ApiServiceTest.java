@@ -0,0 +1,129 @@
+package com.reliaquest.api.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.reliaquest.api.request.CreateEmployeeRequest;
+import com.reliaquest.api.util.SharedRateBudget;
+import com.reliaquest.api.util.UpstreamBalancer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Unit tests to cover routing of Server API calls across replicas
+ */
+public class ApiServiceTest {
+
+    private static final String PRIMARY = "http://primary/api/v1";
+
+    private static final String SECONDARY = "http://secondary/api/v1";
+
+    private static final ParameterizedTypeReference<String> STRING = new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+
+    private final ApiService apiService = new ApiService();
+
+    private UpstreamPool upstreamPool;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void setUp() {
+        upstreamPool = new UpstreamPool(
+                List.of(PRIMARY, SECONDARY),
+                UpstreamBalancer.Strategy.ROUND_ROBIN,
+                Duration.ofSeconds(5),
+                Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(apiService, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(apiService, "upstreamPool", upstreamPool);
+    }
+
+    @Test
+    public void testReadsSpreadAcrossReplicas() {
+        when(restTemplate.exchange(PRIMARY + "/employee", HttpMethod.GET, null, STRING)).thenReturn(ok("primary"));
+        when(restTemplate.exchange(SECONDARY + "/employee", HttpMethod.GET, null, STRING)).thenReturn(ok("secondary"));
+
+        Assertions.assertEquals("primary", apiService.get("/employee", STRING).getBody());
+        Assertions.assertEquals("secondary", apiService.get("/employee", STRING).getBody());
+    }
+
+    @Test
+    public void testReadFailsOverAndEjectsFailingReplica() {
+        when(restTemplate.exchange(PRIMARY + "/employee", HttpMethod.GET, null, STRING))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null));
+        when(restTemplate.exchange(SECONDARY + "/employee", HttpMethod.GET, null, STRING)).thenReturn(ok("secondary"));
+
+        Assertions.assertEquals("secondary", apiService.get("/employee", STRING).getBody());
+        Assertions.assertEquals("secondary", apiService.get("/employee", STRING).getBody());
+        verify(restTemplate, times(1)).exchange(PRIMARY + "/employee", HttpMethod.GET, null, STRING);
+    }
+
+    @Test
+    public void testNotFoundOnSecondaryIsCheckedOnPrimary() {
+        when(restTemplate.exchange(PRIMARY + "/employee", HttpMethod.GET, null, STRING)).thenReturn(ok("primary"));
+        when(restTemplate.exchange(SECONDARY + "/employee/1", HttpMethod.GET, null, STRING))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "", null, null, null));
+        when(restTemplate.exchange(PRIMARY + "/employee/1", HttpMethod.GET, null, STRING)).thenReturn(ok("created"));
+        apiService.get("/employee", STRING);
+
+        Assertions.assertEquals("created", apiService.get("/employee/1", STRING).getBody());
+    }
+
+    @Test
+    public void testWritesGoToPrimary() {
+        CreateEmployeeRequest request = new CreateEmployeeRequest("Ann Lee", 1000, 30, "Accountant", "ann@company.com");
+        when(restTemplate.exchange(eq(PRIMARY + "/employee"), eq(HttpMethod.POST), any(), eq(STRING)))
+                .thenReturn(ok("created"));
+
+        apiService.post("/employee", request, STRING);
+        apiService.post("/employee", request, STRING);
+
+        verify(restTemplate, times(2))
+                .exchange(eq(PRIMARY + "/employee"), eq(HttpMethod.POST), any(), eq(STRING));
+        verify(restTemplate, never())
+                .exchange(eq(SECONDARY + "/employee"), eq(HttpMethod.POST), any(), eq(STRING));
+    }
+
+    @Test
+    public void testSharedBudgetRefusesLocallyOnceUsedUp() throws IOException {
+        try (SharedRateBudget budget = new SharedRateBudget(dir.resolve("budget"), 1, Duration.ofMinutes(1))) {
+            upstreamPool.setSharedBudget(budget);
+            when(restTemplate.exchange(PRIMARY + "/employee", HttpMethod.GET, null, STRING)).thenReturn(ok("primary"));
+            when(restTemplate.exchange(SECONDARY + "/employee", HttpMethod.GET, null, STRING))
+                    .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", null, null, null));
+
+            Assertions.assertEquals("primary", apiService.get("/employee", STRING).getBody());
+            Assertions.assertThrows(HttpClientErrorException.TooManyRequests.class, () -> apiService.get("/employee", STRING));
+            HttpClientErrorException.TooManyRequests refused = Assertions.assertThrows(
+                    HttpClientErrorException.TooManyRequests.class, () -> apiService.get("/employee", STRING));
+
+            Assertions.assertTrue(refused.getResponseBodyAsString().contains("rate budget"));
+            verify(restTemplate, times(1)).exchange(SECONDARY + "/employee", HttpMethod.GET, null, STRING);
+        }
+    }
+
+    private static ResponseEntity<String> ok(String body) {
+        return ResponseEntity.ok(body);
+    }
+}
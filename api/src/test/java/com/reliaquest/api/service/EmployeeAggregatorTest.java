@@ -0,0 +1,57 @@
+package com.reliaquest.api.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.GroupAggregate;
+import com.reliaquest.api.util.EmployeeIndex;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover rebuilding aggregates while employees change
+ */
+public class EmployeeAggregatorTest {
+
+    private final EmployeeDirectory employeeDirectory = mock(EmployeeDirectory.class);
+
+    private final Employee ann = new Employee(UUID.randomUUID(), "Ann Lee", 90000, 30, "Accountant", "ann@company.com");
+
+    private final Employee bob = new Employee(UUID.randomUUID(), "Bob Lee", 80000, 40, "Engineer", "bob@company.com");
+
+    @Test
+    public void testChangesDuringRebuildDoNotWaitAndAreApplied() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(employeeDirectory.view()).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await();
+            return new EmployeeDirectory.View(new EmployeeIndex(List.of(ann)), 0);
+        });
+        EmployeeAggregator aggregator = new EmployeeAggregator(employeeDirectory, 10, Duration.ofMinutes(1));
+
+        CompletableFuture<List<GroupAggregate>> aggregated =
+                CompletableFuture.supplyAsync(() -> aggregator.aggregate(EmployeeAggregator.GroupBy.TITLE));
+        Assertions.assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> aggregator.onEmployeeChanged(
+                        new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, bob, 1)))
+                .get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        Assertions.assertEquals(
+                List.of("Accountant", "Engineer"),
+                aggregated.get(5, TimeUnit.SECONDS).stream()
+                        .map(GroupAggregate::group)
+                        .toList());
+        aggregator.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, bob, 1));
+        Assertions.assertEquals(
+                1, aggregator.aggregate(EmployeeAggregator.GroupBy.TITLE).get(1).count());
+    }
+}
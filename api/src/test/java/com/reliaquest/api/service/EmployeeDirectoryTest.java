@@ -0,0 +1,105 @@
+package com.reliaquest.api.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeField;
+import com.reliaquest.api.request.EmployeeQuery;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover writing changes through to the cached employee view
+ */
+public class EmployeeDirectoryTest {
+
+    private final IEmployeeService employeeService = mock(IEmployeeService.class);
+
+    private final Employee ann = new Employee(UUID.randomUUID(), "Ann Lee", 90000, 30, "Accountant", "ann@company.com");
+
+    private final Employee bob = new Employee(UUID.randomUUID(), "Bob Lee", 80000, 40, "Accountant", "bob@company.com");
+
+    private final Employee cid = new Employee(UUID.randomUUID(), "Cid Ray", 70000, 50, "Engineer", "cid@company.com");
+
+    @Test
+    public void testChangesAreVisibleWithoutReload() {
+        EmployeeDirectory directory = new EmployeeDirectory(employeeService, Duration.ofMinutes(1), 100);
+        when(employeeService.getAllEmployees()).thenReturn(List.of(ann, bob));
+        Assertions.assertEquals(List.of(ann, bob), directory.employees());
+
+        directory.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, cid, 1));
+        directory.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.DELETED, ann, 2));
+
+        Assertions.assertEquals(List.of(bob, cid), directory.employees());
+        Assertions.assertEquals(List.of(bob), directory.searchByName("LEE"));
+        Assertions.assertEquals(1, directory.query(titleQuery("engineer")).total());
+        Assertions.assertEquals(2, directory.view().version());
+        verify(employeeService, times(1)).getAllEmployees();
+    }
+
+    @Test
+    public void testReloadKeepsChangesPublishedDuringFetch() {
+        EmployeeDirectory directory = new EmployeeDirectory(employeeService, Duration.ZERO, 100);
+        directory.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, bob, 1));
+        when(employeeService.getAllEmployees()).thenAnswer(invocation -> {
+            directory.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, cid, 2));
+            directory.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.DELETED, ann, 3));
+            return List.of(ann, bob);
+        });
+
+        // cid and ann's deletion raced the fetch, bob was written before it started
+        Assertions.assertEquals(List.of(bob, cid), directory.employees());
+
+        when(employeeService.getAllEmployees()).thenReturn(List.of(cid));
+        Assertions.assertEquals(List.of(cid), directory.employees());
+        Assertions.assertEquals(3, directory.view().version());
+    }
+
+    @Test
+    public void testSalaryReadsUseServerAggregatesUntilViewIsWarm() {
+        EmployeeDirectory directory = new EmployeeDirectory(employeeService, Duration.ofMinutes(1), 100);
+        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(90000);
+        when(employeeService.getAllEmployees()).thenReturn(List.of(cid, ann, bob));
+
+        Assertions.assertEquals(90000, directory.highestSalary());
+        verify(employeeService, never()).getAllEmployees();
+
+        directory.employees();
+        Assertions.assertEquals(List.of("Ann Lee", "Bob Lee"), directory.topTenHighestEarningEmployeeNames().subList(0, 2));
+        Assertions.assertEquals(90000, directory.highestSalary());
+        verify(employeeService, times(1)).getHighestSalaryOfEmployees();
+        verify(employeeService, never()).getTopTenHighestEarningEmployeeNames();
+    }
+
+    @Test
+    public void testFieldReadsFetchOnlyThoseFieldsUntilViewIsWarm() {
+        EmployeeDirectory directory = new EmployeeDirectory(employeeService, Duration.ofMinutes(1), 100);
+        Set<EmployeeField> fields = EnumSet.of(EmployeeField.ID, EmployeeField.NAME);
+        Employee narrowAnn = new Employee(ann.getId(), ann.getName(), null, null, null, null);
+        when(employeeService.getAllEmployees(fields)).thenReturn(List.of(narrowAnn));
+        when(employeeService.getAllEmployees()).thenReturn(List.of(ann, bob, cid));
+
+        Assertions.assertEquals(List.of(narrowAnn), directory.employees(fields).employees());
+        verify(employeeService, never()).getAllEmployees();
+
+        directory.employees();
+        Assertions.assertEquals(
+                List.of(narrowAnn, new Employee(bob.getId(), bob.getName(), null, null, null, null)),
+                directory.searchByName("lee", fields).employees());
+        verify(employeeService, times(1)).getAllEmployees(fields);
+        verify(employeeService, never()).getEmployeesByNameSearch("lee", fields);
+    }
+
+    private static EmployeeQuery titleQuery(String title) {
+        return new EmployeeQuery(title, null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,70 @@
+package com.reliaquest.api.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.reliaquest.api.common.Constants;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.Response;
+import com.reliaquest.api.request.CreateEmployeeRequest;
+import com.reliaquest.api.util.EmployeeIdCache;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Unit tests to cover how EmployeeService keeps the id cache
+ */
+public class EmployeeServiceTest {
+
+    private final ApiService apiService = mock(ApiService.class);
+
+    private final EmployeeService employeeService = new EmployeeService(
+            apiService,
+            mock(ApplicationEventPublisher.class),
+            new EmployeeIdCache(100, TimeUnit.MINUTES.toNanos(1), TimeUnit.MINUTES.toNanos(1)));
+
+    private final Employee ann = new Employee(UUID.randomUUID(), "Ann Lee", 90000, 30, "Accountant", "ann@company.com");
+
+    private final Employee bob = new Employee(UUID.randomUUID(), "Bob Lee", 80000, 40, "Accountant", "bob@company.com");
+
+    @Test
+    public void testCreateDuringListFetchIsNotReportedMissing() throws Exception {
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch created = new CountDownLatch(1);
+        when(apiService.get(eq(Constants.EMPLOYEE_URI), any())).thenAnswer(invocation -> {
+            listing.countDown();
+            created.await();
+            return ok(List.of(ann));
+        });
+        when(apiService.post(
+                        eq(Constants.EMPLOYEE_URI),
+                        eq(new CreateEmployeeRequest("Bob Lee", 80000, 40, "Accountant", null)),
+                        any()))
+                .thenReturn(ok(bob));
+        when(apiService.get(eq(Constants.EMPLOYEE_URI + "/" + bob.getId()), any())).thenReturn(ok(bob));
+
+        CompletableFuture<List<Employee>> list = CompletableFuture.supplyAsync(employeeService::getAllEmployees);
+        listing.await();
+        employeeService.createEmployee(new CreateEmployeeRequest("Bob Lee", 80000, 40, "Accountant", null));
+        created.countDown();
+        Assertions.assertEquals(List.of(ann), list.get(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(bob, employeeService.getEmployeeById(bob.getId().toString()));
+        Assertions.assertEquals(ann, employeeService.getEmployeeById(ann.getId().toString()));
+        verify(apiService).get(eq(Constants.EMPLOYEE_URI + "/" + bob.getId()), any());
+    }
+
+    private static ResponseEntity<Object> ok(Object data) {
+        return ResponseEntity.ok(new Response<>(data, Constants.SUCCESS_MSG, null));
+    }
+}
@@ -0,0 +1,191 @@
+package com.reliaquest.api.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeOperation;
+import com.reliaquest.api.request.CreateEmployeeRequest;
+import com.reliaquest.api.util.UpstreamBalancer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Unit tests to cover queueing, coalescing and retrying asynchronous employee writes
+ */
+public class EmployeeWriteQueueTest {
+
+    private final IEmployeeService employeeService = mock(IEmployeeService.class);
+
+    private final UpstreamPool upstreamPool = new UpstreamPool(
+            List.of("http://localhost:8112/api/v1"),
+            UpstreamBalancer.Strategy.ROUND_ROBIN,
+            Duration.ofSeconds(5),
+            Duration.ofMinutes(1));
+
+    private final CreateEmployeeRequest annInput = new CreateEmployeeRequest("Ann Lee", 90000, 30, "Accountant", null);
+
+    private final Employee ann = new Employee(UUID.randomUUID(), "Ann Lee", 90000, 30, "Accountant", "ann@company.com");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testDeleteOfCreatedOperationDeletesTheEmployee() throws Exception {
+        when(employeeService.createEmployee(annInput)).thenReturn(ann);
+        when(employeeService.deleteEmployee(ann.getId().toString())).thenReturn(ann);
+        try (EmployeeWriteQueue queue = queue()) {
+            EmployeeOperation create = queue.create(annInput);
+            Assertions.assertEquals(EmployeeOperation.Status.QUEUED, create.status());
+            Assertions.assertEquals(ann, awaitFinished(queue, create.id()).employee());
+
+            EmployeeOperation delete =
+                    awaitFinished(queue, queue.delete(create.id().toString()).id());
+            Assertions.assertEquals(EmployeeOperation.Status.SUCCEEDED, delete.status());
+            Assertions.assertEquals(ann, delete.employee());
+            verify(employeeService).deleteEmployee(ann.getId().toString());
+            verify(employeeService, never()).getEmployeeById(any());
+        }
+    }
+
+    @Test
+    public void testDeleteOfQueuedCreateCoalesces() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CreateEmployeeRequest bobInput = new CreateEmployeeRequest("Bob Lee", 80000, 40, "Accountant", null);
+        when(employeeService.createEmployee(annInput)).thenAnswer(invocation -> {
+            release.await();
+            return ann;
+        });
+        try (EmployeeWriteQueue queue = queue()) {
+            EmployeeOperation first = queue.create(annInput);
+            EmployeeOperation second = queue.create(bobInput);
+            String otherId = UUID.randomUUID().toString();
+            EmployeeOperation otherDelete = queue.delete(otherId);
+
+            EmployeeOperation delete = queue.delete(second.id().toString());
+            Assertions.assertEquals(EmployeeOperation.Status.COALESCED, delete.status());
+            Assertions.assertEquals(
+                    EmployeeOperation.Status.COALESCED, queue.get(second.id()).status());
+            Assertions.assertEquals(otherDelete, queue.delete(otherId.toUpperCase()));
+
+            release.countDown();
+            Assertions.assertEquals(
+                    EmployeeOperation.Status.SUCCEEDED,
+                    awaitFinished(queue, first.id()).status());
+            awaitFinished(queue, otherDelete.id());
+            verify(employeeService, never()).createEmployee(bobInput);
+        }
+    }
+
+    @Test
+    public void testThrottledWritesAreRetriedAndSurviveRestart() throws Exception {
+        when(employeeService.createEmployee(any()))
+                .thenThrow(HttpClientErrorException.create(
+                        HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+        UUID id;
+        try (EmployeeWriteQueue queue = queue()) {
+            id = queue.create(annInput).id();
+            verify(employeeService, timeout(2000).atLeast(2)).createEmployee(annInput);
+            Assertions.assertEquals(
+                    EmployeeOperation.Status.QUEUED, queue.get(id).status());
+        }
+
+        IEmployeeService recovered = mock(IEmployeeService.class);
+        when(recovered.createEmployee(annInput)).thenReturn(ann);
+        when(recovered.getEmployeesByNameSearch("Ann Lee")).thenReturn(List.of());
+        try (EmployeeWriteQueue queue = new EmployeeWriteQueue(
+                recovered,
+                upstreamPool,
+                dir.resolve("writes.log"),
+                Duration.ofMillis(10),
+                Duration.ofMillis(20),
+                100)) {
+            EmployeeOperation operation = awaitFinished(queue, id);
+            Assertions.assertEquals(EmployeeOperation.Status.SUCCEEDED, operation.status());
+            Assertions.assertEquals(ann.getId().toString(), operation.employeeId());
+            verify(recovered).getEmployeesByNameSearch("Ann Lee");
+        }
+    }
+
+    @Test
+    public void testCreateRetriedAfterServerErrorFindsTheEmployeeItAdded() throws Exception {
+        Employee namesake = new Employee(UUID.randomUUID(), "Ann Lee", 50000, 30, "Accountant", "lee@company.com");
+        when(employeeService.createEmployee(annInput))
+                .thenThrow(HttpServerErrorException.create(
+                        HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", null, null, null));
+        when(employeeService.getEmployeesByNameSearch("Ann Lee")).thenReturn(List.of(namesake, ann));
+        try (EmployeeWriteQueue queue = queue(Duration.ofMillis(10))) {
+            EmployeeOperation create =
+                    awaitFinished(queue, queue.create(annInput).id());
+
+            Assertions.assertEquals(EmployeeOperation.Status.SUCCEEDED, create.status());
+            Assertions.assertEquals(ann.getId().toString(), create.employeeId());
+            verify(employeeService, times(1)).createEmployee(annInput);
+        }
+    }
+
+    @Test
+    public void testCreateRetriedAfterServerErrorWithSeveralMatchesIsUnknown() throws Exception {
+        Employee twin = new Employee(UUID.randomUUID(), "Ann Lee", 90000, 30, "Accountant", "lee@company.com");
+        when(employeeService.createEmployee(annInput))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null));
+        when(employeeService.getEmployeesByNameSearch("Ann Lee")).thenReturn(List.of(ann, twin));
+        try (EmployeeWriteQueue queue = queue(Duration.ofMillis(10))) {
+            EmployeeOperation create =
+                    awaitFinished(queue, queue.create(annInput).id());
+
+            Assertions.assertEquals(EmployeeOperation.Status.UNKNOWN, create.status());
+            Assertions.assertNotNull(create.error());
+            verify(employeeService, times(1)).createEmployee(annInput);
+        }
+    }
+
+    @Test
+    public void testThrottledCreateIsSentAgainWithoutLookup() throws Exception {
+        when(employeeService.createEmployee(annInput))
+                .thenThrow(HttpClientErrorException.create(
+                        HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null))
+                .thenReturn(ann);
+        try (EmployeeWriteQueue queue = queue(Duration.ofMillis(10))) {
+            EmployeeOperation create =
+                    awaitFinished(queue, queue.create(annInput).id());
+
+            Assertions.assertEquals(EmployeeOperation.Status.SUCCEEDED, create.status());
+            verify(employeeService, times(2)).createEmployee(annInput);
+            verify(employeeService, never()).getEmployeesByNameSearch(any());
+        }
+    }
+
+    private EmployeeWriteQueue queue() throws IOException {
+        return queue(Duration.ofMillis(200));
+    }
+
+    private EmployeeWriteQueue queue(Duration retryMin) throws IOException {
+        return new EmployeeWriteQueue(
+                employeeService, upstreamPool, dir.resolve("writes.log"), retryMin, Duration.ofSeconds(1), 100);
+    }
+
+    private static EmployeeOperation awaitFinished(EmployeeWriteQueue queue, UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.get(id).queued() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return queue.get(id);
+    }
+}
@@ -0,0 +1,123 @@
+package com.reliaquest.api.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover the adaptive concurrency limit against a simulated upstream
+ */
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long SERVICE_NANOS = 10_000_000;
+
+    private static final long NO_PROBE = Long.MAX_VALUE;
+
+    @Test
+    public void testRejectsBeyondLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 10, NO_PROBE);
+
+        Assertions.assertTrue(limit.tryAcquire());
+        Assertions.assertTrue(limit.tryAcquire());
+        Assertions.assertFalse(limit.tryAcquire());
+        limit.release(SERVICE_NANOS, false);
+        Assertions.assertTrue(limit.tryAcquire());
+        Assertions.assertEquals(2, limit.inFlight());
+    }
+
+    @Test
+    public void testSettlesNearUpstreamCapacity() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 500, NO_PROBE);
+
+        runAtLimit(limit, 200, 50);
+        Assertions.assertTrue(limit.limit() >= 50 && limit.limit() <= 75, "limit " + limit.limit());
+
+        runAtLimit(limit, 200, 10);
+        Assertions.assertTrue(limit.limit() >= 10 && limit.limit() <= 20, "limit " + limit.limit());
+
+        runAtLimit(limit, 200, 100);
+        Assertions.assertTrue(limit.limit() >= 100 && limit.limit() <= 150, "limit " + limit.limit());
+    }
+
+    @Test
+    public void testDoesNotGrowWhenMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, NO_PROBE);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.tryAcquire();
+            limit.release(SERVICE_NANOS, false);
+        }
+
+        Assertions.assertEquals(20, limit.limit());
+    }
+
+    @Test
+    public void testBacksOffOnOverloadDownToMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, NO_PROBE);
+
+        limit.tryAcquire();
+        limit.release(SERVICE_NANOS, true);
+        Assertions.assertEquals(18, limit.limit());
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(SERVICE_NANOS, true);
+        }
+        Assertions.assertEquals(4, limit.limit());
+    }
+
+    @Test
+    public void testProbePinsLimitToMinimumUntilMeasured() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 0);
+
+        limit.tryAcquire();
+        limit.release(SERVICE_NANOS, false);
+        Assertions.assertEquals(4, limit.limit());
+
+        for (int i = 0; i < 19; i++) {
+            limit.tryAcquire();
+            limit.release(SERVICE_NANOS, false);
+            Assertions.assertEquals(4, limit.limit());
+        }
+        limit.tryAcquire();
+        limit.release(SERVICE_NANOS, false);
+        Assertions.assertEquals(20, limit.limit());
+    }
+
+    @Test
+    public void testRequestsWithoutUpstreamCallsLeaveTheLimitButEndTheProbe() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 0);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release();
+        }
+        Assertions.assertEquals(20, limit.limit());
+
+        limit.tryAcquire();
+        limit.release(SERVICE_NANOS, false);
+        Assertions.assertEquals(4, limit.limit());
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release();
+        }
+        Assertions.assertEquals(20, limit.limit());
+        Assertions.assertEquals(0, limit.inFlight());
+    }
+
+    /**
+     * Fills the limit, then completes every request with the latency of an upstream that serves {@code capacity}
+     * requests at a time and queues the rest, for a number of rounds
+     */
+    private static void runAtLimit(AdaptiveConcurrencyLimit limit, int rounds, int capacity) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            long rtt = (long) (SERVICE_NANOS * Math.max(1.0, (double) admitted / capacity));
+            for (int i = 0; i < admitted; i++) {
+                limit.release(rtt, false);
+            }
+        }
+    }
+}
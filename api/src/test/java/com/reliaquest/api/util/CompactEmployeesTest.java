@@ -0,0 +1,84 @@
+package com.reliaquest.api.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.Employee;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover the compact employee store
+ */
+public class CompactEmployeesTest {
+
+    @Test
+    public void testRowsMaterializeToEqualEmployees() throws IOException {
+        List<Employee> employeeList = new ObjectMapper()
+                .convertValue(FileUtil.readJSON("employeelist-data.json").get("data"), new TypeReference<>() {});
+        CompactEmployees store = new CompactEmployees(employeeList);
+
+        Assertions.assertEquals(employeeList.size(), store.size());
+        Assertions.assertEquals(
+                employeeList,
+                IntStream.range(0, store.size()).mapToObj(store::employee).toList());
+        Assertions.assertSame(store.title(0), store.titles().get(store.titleCode(0)));
+    }
+
+    @Test
+    public void testMissingValuesAndNonAsciiText() {
+        UUID id = UUID.randomUUID();
+        List<Employee> employeeList = new ArrayList<>();
+        employeeList.add(new Employee(id, "Zoë Ångström", 52000, null, "Analyst", null));
+        employeeList.add(new Employee(null, null, null, 41, null, "x@company.com"));
+        employeeList.add(new Employee(id, "", 0, 0, "Analyst", ""));
+        CompactEmployees store = new CompactEmployees(employeeList);
+
+        Assertions.assertEquals(employeeList.get(0), store.employee(0));
+        Assertions.assertEquals(employeeList.get(1), store.employee(1));
+        Assertions.assertEquals(employeeList.get(2), store.employee(2));
+        Assertions.assertEquals(CompactEmployees.NONE, store.age(0));
+        Assertions.assertEquals(-1, store.titleCode(1));
+        Assertions.assertTrue(store.hasId(0, id));
+        Assertions.assertFalse(store.hasId(1, id));
+        Assertions.assertEquals(List.of("Analyst"), store.titles());
+    }
+
+    @Test
+    public void testWithTombstonesAndAppendsWithoutChangingEarlierStores() {
+        Employee ann = new Employee(UUID.randomUUID(), "Ann Lee", 90000, 30, "Accountant", "ann@company.com");
+        Employee bob = new Employee(UUID.randomUUID(), "Bob Lee", 80000, 40, "Accountant", "bob@company.com");
+        Employee cid = new Employee(UUID.randomUUID(), "Cid Ray", 70000, 50, "Engineer", null);
+        Employee dee = new Employee(UUID.randomUUID(), "Dee Moe", null, 20, "Designer", "dee@company.com");
+        CompactEmployees store = new CompactEmployees(List.of(ann, bob));
+        BitSet deleteAnn = new BitSet();
+        deleteAnn.set(0);
+
+        CompactEmployees changed = store.with(deleteAnn, List.of(cid));
+        CompactEmployees branched = store.with(new BitSet(), List.of(dee));
+
+        Assertions.assertEquals(List.of(ann, bob), live(store));
+        Assertions.assertEquals(List.of(bob, cid), live(changed));
+        Assertions.assertEquals(List.of(ann, bob, dee), live(branched));
+        Assertions.assertEquals(2, changed.size());
+        Assertions.assertEquals(3, changed.rows());
+        Assertions.assertTrue(changed.isDeleted(0));
+        Assertions.assertEquals(List.of("Accountant", "Engineer"), changed.titles());
+        Assertions.assertEquals(List.of("Accountant", "Designer"), branched.titles());
+        Assertions.assertArrayEquals(
+                new int[] {1, 2}, changed.rowsWithIds(Set.of(ann.getId(), bob.getId(), cid.getId())));
+    }
+
+    private static List<Employee> live(CompactEmployees store) {
+        return IntStream.range(0, store.rows())
+                .filter(row -> !store.isDeleted(row))
+                .mapToObj(store::employee)
+                .toList();
+    }
+}
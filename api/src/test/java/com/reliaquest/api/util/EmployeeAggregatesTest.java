@@ -0,0 +1,87 @@
+package com.reliaquest.api.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.GroupAggregate;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover incrementally maintained Employee aggregates
+ */
+public class EmployeeAggregatesTest {
+
+    private static List<Employee> employeeList;
+
+    @BeforeAll
+    public static void setUp() throws IOException {
+        employeeList = new ObjectMapper()
+                .convertValue(FileUtil.readJSON("employeelist-data.json").get("data"), new TypeReference<>() {});
+    }
+
+    @Test
+    public void testAgeBandsMatchFullScan() {
+        EmployeeAggregates aggregates = new EmployeeAggregates(10, employeeList);
+
+        Map<Integer, IntSummaryStatistics> expected = employeeList.stream()
+                .collect(Collectors.groupingBy(
+                        emp -> emp.getAge() / 10 * 10, TreeMap::new, Collectors.summarizingInt(Employee::getSalary)));
+        List<GroupAggregate> actual = aggregates.byAgeBand();
+
+        Assertions.assertEquals(expected.size(), actual.size());
+        int i = 0;
+        for (Map.Entry<Integer, IntSummaryStatistics> band : expected.entrySet()) {
+            GroupAggregate aggregate = actual.get(i++);
+            Assertions.assertEquals(band.getKey() + "-" + (band.getKey() + 9), aggregate.group());
+            Assertions.assertEquals(band.getValue().getCount(), aggregate.count());
+            Assertions.assertEquals(band.getValue().getSum(), aggregate.totalSalary());
+            Assertions.assertEquals(band.getValue().getMin(), aggregate.minSalary());
+            Assertions.assertEquals(band.getValue().getMax(), aggregate.maxSalary());
+            Assertions.assertEquals(band.getValue().getAverage(), aggregate.averageSalary(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchRebuild() {
+        EmployeeAggregates aggregates = new EmployeeAggregates(10, employeeList);
+        List<Employee> remaining = new ArrayList<>(employeeList);
+        Employee hire = new Employee(UUID.randomUUID(), "New Hire", 1, 22, employeeList.get(0).getTitle(), "new@company.com");
+
+        Assertions.assertTrue(aggregates.add(hire));
+        Assertions.assertFalse(aggregates.add(hire));
+        remaining.add(hire);
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertTrue(aggregates.remove(remaining.remove(0).getId()));
+        }
+        Assertions.assertFalse(aggregates.remove(employeeList.get(0).getId()));
+
+        EmployeeAggregates rebuilt = new EmployeeAggregates(10, remaining);
+        Assertions.assertEquals(rebuilt.byTitle(), aggregates.byTitle());
+        Assertions.assertEquals(rebuilt.byAgeBand(), aggregates.byAgeBand());
+        Assertions.assertEquals(remaining.size(), aggregates.size());
+    }
+
+    @Test
+    public void testMinAndMaxFollowRemovals() {
+        Employee low = new Employee(UUID.randomUUID(), "Low", 1000, 30, "Accountant", "low@company.com");
+        Employee high = new Employee(UUID.randomUUID(), "High", 9000, 31, "Accountant", "high@company.com");
+        EmployeeAggregates aggregates = new EmployeeAggregates(10, List.of(low, high));
+
+        aggregates.remove(high.getId());
+        Assertions.assertEquals(
+                List.of(new GroupAggregate("Accountant", 1, 1000, 1000, 1000, 1000.0)), aggregates.byTitle());
+
+        aggregates.remove(low.getId());
+        Assertions.assertTrue(aggregates.byTitle().isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+package com.reliaquest.api.util;
+
+import com.reliaquest.api.model.Employee;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover the per-id employee cache
+ */
+public class EmployeeIdCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testEntriesAndMissingIdsExpire() {
+        EmployeeIdCache cache = new EmployeeIdCache(10, 100, 10, now::get);
+        Employee employee = employee();
+        UUID missing = UUID.randomUUID();
+        cache.put(employee);
+        cache.putMissing(missing);
+
+        Assertions.assertSame(employee, cache.get(employee.getId()).employee());
+        Assertions.assertTrue(cache.get(missing).missing());
+        now.set(10);
+        Assertions.assertNull(cache.get(missing));
+        Assertions.assertNotNull(cache.get(employee.getId()));
+        now.set(100);
+        Assertions.assertNull(cache.get(employee.getId()));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        EmployeeIdCache cache = new EmployeeIdCache(2, 100, 10, now::get);
+        Employee first = employee();
+        Employee second = employee();
+        cache.put(first);
+        cache.put(second);
+        cache.get(first.getId());
+        cache.put(employee());
+
+        Assertions.assertNotNull(cache.get(first.getId()));
+        Assertions.assertNull(cache.get(second.getId()));
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testRefreshKeepsHeldIdsAndFillsFreeRoom() {
+        EmployeeIdCache cache = new EmployeeIdCache(3, 100, 10, now::get);
+        Employee held = employee();
+        Employee deleted = employee();
+        cache.put(held);
+        cache.put(deleted);
+        Employee renamed = new Employee(held.getId(), "Renamed", 1, 20, "Title", "renamed@company.com");
+        Employee first = employee();
+        Employee second = employee();
+
+        cache.refresh(List.of(first, second, renamed));
+
+        Assertions.assertSame(renamed, cache.get(held.getId()).employee());
+        Assertions.assertNull(cache.get(deleted.getId()));
+        Assertions.assertNotNull(cache.get(first.getId()));
+        Assertions.assertNull(cache.get(second.getId()));
+    }
+
+    private static Employee employee() {
+        return new Employee(UUID.randomUUID(), "Name", 1, 20, "Title", "name@company.com");
+    }
+}
@@ -0,0 +1,172 @@
+package com.reliaquest.api.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.request.EmployeeQuery;
+import com.reliaquest.api.request.EmployeeQuery.SortField;
+import com.reliaquest.api.request.EmployeeQuery.SortOrder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover Employee Index queries
+ */
+public class EmployeeIndexTest {
+
+    private static List<Employee> employeeList;
+    private static EmployeeIndex index;
+
+    @BeforeAll
+    public static void setUp() throws IOException {
+        employeeList = new ObjectMapper()
+                .convertValue(FileUtil.readJSON("employeelist-data.json").get("data"), new TypeReference<>() {});
+        index = new EmployeeIndex(employeeList);
+    }
+
+    @Test
+    public void testRangeQuerySortedBySalaryMatchesFullScan() {
+        EmployeePage page = index.query(
+                new EmployeeQuery(null, 30, 40, 150000, null, SortField.SALARY, SortOrder.DESC, null, null), 1000);
+
+        List<Employee> expected = employeeList.stream()
+                .filter(emp -> emp.getAge() >= 30 && emp.getAge() <= 40 && emp.getSalary() >= 150000)
+                .sorted(Comparator.comparingInt(Employee::getSalary).reversed())
+                .toList();
+        Assertions.assertFalse(expected.isEmpty());
+        Assertions.assertEquals(expected.size(), page.total());
+        Assertions.assertEquals(expected, page.employees());
+    }
+
+    @Test
+    public void testTitleQueryIgnoresCase() {
+        String title = employeeList.get(0).getTitle();
+        EmployeePage page = index.query(
+                new EmployeeQuery(title.toUpperCase(), null, null, null, null, null, null, null, null), 1000);
+
+        Assertions.assertEquals(
+                employeeList.stream()
+                        .filter(emp -> emp.getTitle().equals(title))
+                        .count(),
+                page.total());
+        page.employees().forEach(emp -> Assertions.assertEquals(title, emp.getTitle()));
+    }
+
+    @Test
+    public void testPagingKeepsTotal() {
+        EmployeeQuery firstPage = new EmployeeQuery(null, null, null, null, null, SortField.AGE, null, 10, 0);
+        EmployeeQuery secondPage = new EmployeeQuery(null, null, null, null, null, SortField.AGE, null, 10, 10);
+
+        EmployeePage first = index.query(firstPage, 1000);
+        EmployeePage second = index.query(secondPage, 1000);
+
+        Assertions.assertEquals(50, first.total());
+        Assertions.assertEquals(10, first.employees().size());
+        Assertions.assertEquals(10, second.offset());
+        Assertions.assertTrue(
+                first.employees().get(9).getAge() <= second.employees().get(0).getAge());
+    }
+
+    @Test
+    public void testMaxLimitCapsPageSize() {
+        EmployeePage page = index.query(new EmployeeQuery(null, null, null, null, null, null, null, 100, null), 5);
+
+        Assertions.assertEquals(50, page.total());
+        Assertions.assertEquals(5, page.employees().size());
+    }
+
+    @Test
+    public void testTopBySalaryMatchesStableSort() {
+        List<Employee> withTies = new ArrayList<>(employeeList);
+        Employee top = employeeList.stream()
+                .max(Comparator.comparingInt(Employee::getSalary))
+                .orElseThrow();
+        withTies.add(
+                0, new Employee(UUID.randomUUID(), "Tie Before", top.getSalary(), 30, "Accountant", "a@company.com"));
+        withTies.add(new Employee(UUID.randomUUID(), "Tie After", top.getSalary(), 30, "Accountant", "b@company.com"));
+        withTies.add(new Employee(UUID.randomUUID(), "No Salary", null, 30, "Accountant", "c@company.com"));
+
+        List<Employee> expected = withTies.stream()
+                .filter(emp -> emp.getSalary() != null)
+                .sorted(Comparator.comparingInt(Employee::getSalary).reversed())
+                .limit(10)
+                .toList();
+
+        Assertions.assertEquals(expected, new EmployeeIndex(withTies).topBySalary(10));
+        Assertions.assertEquals(52, new EmployeeIndex(withTies).topBySalary(100).size());
+    }
+
+    @Test
+    public void testMissingValuesSortLast() {
+        Employee unknownSalary = new Employee(UUID.randomUUID(), "Ann Lee", null, 30, "Accountant", "ann@company.com");
+        Employee lowSalary = new Employee(UUID.randomUUID(), "Bo Ray", 1000, 40, "Accountant", "bo@company.com");
+        Employee highSalary = new Employee(UUID.randomUUID(), "Cy Day", 9000, 50, "Accountant", "cy@company.com");
+        EmployeeIndex small = new EmployeeIndex(List.of(unknownSalary, lowSalary, highSalary));
+
+        EmployeePage ascending =
+                small.query(new EmployeeQuery(null, null, null, null, null, SortField.SALARY, null, null, null), 10);
+        EmployeePage descending = small.query(
+                new EmployeeQuery(null, null, null, null, null, SortField.SALARY, SortOrder.DESC, null, null), 10);
+        EmployeePage ranged = small.query(new EmployeeQuery(null, null, null, 0, null, null, null, null, null), 10);
+
+        Assertions.assertEquals(List.of(lowSalary, highSalary, unknownSalary), ascending.employees());
+        Assertions.assertEquals(List.of(highSalary, lowSalary, unknownSalary), descending.employees());
+        Assertions.assertEquals(2, ranged.total());
+    }
+
+    @Test
+    public void testIncrementalChangesMatchRebuild() {
+        List<Employee> created = List.of(
+                new Employee(UUID.randomUUID(), "Aaron Able", 150000, 35, "Chief Of Staff", "aaron@company.com"),
+                new Employee(
+                        UUID.randomUUID(),
+                        employeeList.get(3).getName(),
+                        80000,
+                        30,
+                        employeeList.get(3).getTitle().toUpperCase(),
+                        null),
+                new Employee(
+                        UUID.randomUUID(), null, null, 60, employeeList.get(5).getTitle(), null));
+        BitSet deleted = new BitSet();
+        List<Employee> remaining = new ArrayList<>();
+        for (int row = 0; row < employeeList.size(); row++) {
+            if (row % 7 == 3) {
+                deleted.set(row);
+            } else {
+                remaining.add(employeeList.get(row));
+            }
+        }
+        remaining.addAll(created);
+
+        EmployeeIndex changed = index.with(deleted, created);
+        EmployeeIndex rebuilt = new EmployeeIndex(remaining);
+
+        Assertions.assertEquals(rebuilt.size(), changed.size());
+        Assertions.assertEquals(employeeList.size(), index.size());
+        List<EmployeeQuery> queries = new ArrayList<>();
+        for (SortField sort : SortField.values()) {
+            for (SortOrder order : SortOrder.values()) {
+                queries.add(new EmployeeQuery(null, null, null, null, null, sort, order, null, null));
+                queries.add(new EmployeeQuery(null, 30, 45, null, null, sort, order, null, null));
+                queries.add(new EmployeeQuery(null, null, null, 70000, 160000, sort, order, 20, 5));
+                queries.add(new EmployeeQuery(
+                        employeeList.get(3).getTitle(), null, null, null, null, sort, order, null, null));
+                queries.add(new EmployeeQuery("chief of staff", null, null, null, null, sort, order, null, null));
+            }
+        }
+        for (EmployeeQuery query : queries) {
+            Assertions.assertEquals(rebuilt.query(query, 1000), changed.query(query, 1000), query.toString());
+        }
+        Assertions.assertEquals(rebuilt.topBySalary(25), changed.topBySalary(25));
+        Assertions.assertEquals(
+                index.query(queries.get(0), 1000), new EmployeeIndex(employeeList).query(queries.get(0), 1000));
+    }
+}
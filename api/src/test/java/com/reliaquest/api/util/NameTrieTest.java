@@ -0,0 +1,68 @@
+package com.reliaquest.api.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.model.Employee;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover NameTrie autocomplete
+ */
+public class NameTrieTest {
+
+    private static List<String> names;
+
+    @BeforeAll
+    public static void setUp() throws IOException {
+        List<Employee> employeeList = new ObjectMapper()
+                .convertValue(FileUtil.readJSON("employeelist-data.json").get("data"), new TypeReference<>() {});
+        names = employeeList.stream().map(Employee::getName).toList();
+    }
+
+    @Test
+    public void testCompletionsMatchFullScan() {
+        NameTrie trie = new NameTrie(names, 3);
+
+        for (String prefix : List.of("m", "mr", "C", "cum", "gio", "dr l", "mrs col", "x", "ph", "i")) {
+            List<String> queryWords = NameTrie.words(prefix);
+            List<String> expected = names.stream()
+                    .filter(name -> NameTrie.matches(name, queryWords))
+                    .sorted(NameTrie.NAME_ORDER)
+                    .limit(3)
+                    .toList();
+
+            Assertions.assertEquals(expected, names(trie, trie.complete(queryWords, 3, rank -> true)), prefix);
+        }
+    }
+
+    @Test
+    public void testLiveFilterSkipsRemovedNames() {
+        NameTrie trie = new NameTrie(names, 2);
+        int removed = trie.rank("Linette Cummings");
+
+        int[] ranks = trie.complete(List.of("cummings"), 2, rank -> rank != removed);
+
+        Assertions.assertEquals(List.of("Reginald Cummings", "Shawanda Cummings"), names(trie, ranks));
+    }
+
+    @Test
+    public void testWordsIgnoreCaseAndPunctuation() {
+        NameTrie trie = new NameTrie(List.of("Sinéad O'Brien", "Bob-Lee Obi"), 10);
+
+        Assertions.assertEquals(List.of("sinéad", "obrien"), NameTrie.words("Sinéad O'Brien"));
+        Assertions.assertEquals(
+                List.of("Bob-Lee Obi", "Sinéad O'Brien"), names(trie, trie.complete(List.of("ob"), 10, rank -> true)));
+        Assertions.assertEquals(
+                List.of("Sinéad O'Brien"), names(trie, trie.complete(NameTrie.words("O'Br"), 10, rank -> true)));
+        Assertions.assertEquals(List.of("Bob-Lee Obi"), names(trie, trie.complete(List.of("lee"), 10, rank -> true)));
+    }
+
+    private static List<String> names(NameTrie trie, int[] ranks) {
+        return Arrays.stream(ranks).mapToObj(trie::name).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.reliaquest.api.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests to cover the Server API rate budget shared between api processes
+ */
+public class SharedRateBudgetTest {
+
+    private static final String URI = "http://localhost:8112/api/v1";
+
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong(WINDOW.toMillis() * 1000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testInstancesSharingAFileShareOneLimit() throws IOException {
+        try (SharedRateBudget first = budget(5);
+                SharedRateBudget second = budget(5)) {
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertTrue((i % 2 == 0 ? first : second).tryAcquire(URI));
+            }
+
+            Assertions.assertFalse(first.tryAcquire(URI));
+            Assertions.assertFalse(second.tryAcquire(URI));
+            Assertions.assertTrue(second.tryAcquire("http://localhost:8113/api/v1"));
+        }
+    }
+
+    @Test
+    public void testPreviousWindowIsWeightedByOverlap() throws IOException {
+        try (SharedRateBudget budget = budget(4)) {
+            for (int i = 0; i < 4; i++) {
+                budget.tryAcquire(URI);
+            }
+            clock.addAndGet(WINDOW.toMillis());
+            Assertions.assertFalse(budget.tryAcquire(URI));
+
+            clock.addAndGet(WINDOW.toMillis() / 2);
+            Assertions.assertTrue(budget.tryAcquire(URI));
+            Assertions.assertTrue(budget.tryAcquire(URI));
+            Assertions.assertFalse(budget.tryAcquire(URI));
+
+            clock.addAndGet(WINDOW.toMillis() * 2);
+            Assertions.assertTrue(budget.tryAcquire(URI));
+        }
+    }
+
+    @Test
+    public void testExhaustStopsEveryInstance() throws IOException {
+        try (SharedRateBudget first = budget(5);
+                SharedRateBudget second = budget(5)) {
+            Assertions.assertTrue(first.tryAcquire(URI));
+
+            second.exhaust(URI);
+
+            Assertions.assertFalse(first.tryAcquire(URI));
+        }
+    }
+
+    @Test
+    public void testConcurrentAcquiresNeverExceedLimit() throws Exception {
+        List<SharedRateBudget> budgets = List.of(budget(1000), budget(1000), budget(1000));
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Integer>> admitted = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                SharedRateBudget budget = budgets.get(t % budgets.size());
+                admitted.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < 500; i++) {
+                        count += budget.tryAcquire(URI) ? 1 : 0;
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> future : admitted) {
+                total += future.get();
+            }
+
+            Assertions.assertEquals(1000, total);
+        } finally {
+            executor.shutdown();
+            for (SharedRateBudget budget : budgets) {
+                budget.close();
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsFileSharedWithDifferentWindow() throws IOException {
+        SharedRateBudget budget = budget(5);
+        try {
+            Assertions.assertThrows(
+                    IOException.class, () -> new SharedRateBudget(dir.resolve("budget"), 5, Duration.ofSeconds(30)));
+        } finally {
+            budget.close();
+        }
+    }
+
+    @Test
+    public void testRejectsFileSharedWithDifferentLimit() throws IOException {
+        SharedRateBudget budget = budget(5);
+        try {
+            Assertions.assertThrows(IOException.class, () -> budget(10));
+            budget(5).close();
+        } finally {
+            budget.close();
+        }
+    }
+
+    private SharedRateBudget budget(int limit) throws IOException {
+        return new SharedRateBudget(dir.resolve("budget"), limit, WINDOW, clock::get);
+    }
+}
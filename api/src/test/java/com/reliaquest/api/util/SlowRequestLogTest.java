@@ -0,0 +1,97 @@
+package com.reliaquest.api.util;
+
+import com.reliaquest.api.model.SlowRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests to cover request phase timing and the slow request log
+ */
+public class SlowRequestLogTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private final SlowRequestLog log = new SlowRequestLog(3, 60_000, clock::get);
+
+    @Test
+    public void testKeepsSlowestRequests() {
+        for (int millis : new int[] {5, 40, 10, 30, 20, 1}) {
+            log.record("GET", "/employee/" + millis, 200, timing(millis));
+        }
+
+        Assertions.assertEquals(
+                List.of("/employee/40", "/employee/30", "/employee/20"),
+                log.slowest().stream().map(SlowRequest::path).toList());
+    }
+
+    @Test
+    public void testExpiredRequestsMakeRoomForFasterOnes() {
+        log.record("GET", "/employee/old", 200, timing(100));
+        log.record("GET", "/employee/old", 200, timing(100));
+        log.record("GET", "/employee/old", 200, timing(100));
+        clock.addAndGet(60_000);
+
+        log.record("GET", "/employee/new", 200, timing(1));
+
+        Assertions.assertEquals(
+                List.of("/employee/new"),
+                log.slowest().stream().map(SlowRequest::path).toList());
+    }
+
+    @Test
+    public void testReportsPhasesInMillis() {
+        RequestTiming timing = timing(12);
+        ReflectionTestUtils.setField(timing, "phaseNanos", new long[] {8_000_000, 1_500_000, 250_000, 2_250_000});
+
+        log.record("GET", "/employee", 200, timing);
+
+        SlowRequest slowRequest = log.slowest().get(0);
+        Assertions.assertEquals(12.0, slowRequest.totalMillis());
+        Assertions.assertEquals(
+                List.of("upstream", "convert", "process", "serialize"), List.copyOf(slowRequest.phases().keySet()));
+        Assertions.assertEquals(8.0, slowRequest.phases().get("upstream"));
+        Assertions.assertEquals(0.25, slowRequest.phases().get("process"));
+        Assertions.assertEquals(
+                "upstream;dur=8.0, convert;dur=1.5, process;dur=0.2, serialize;dur=2.2, total;dur=12.0",
+                timing.serverTiming());
+    }
+
+    @Test
+    public void testConcurrentRecordsKeepTheSlowest() throws Exception {
+        SlowRequestLog log = new SlowRequestLog(8, 60_000, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = thread; i < 4000; i += 4) {
+                        log.record("GET", "/employee/" + i, 200, timing(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(
+                List.of(3999.0, 3998.0, 3997.0, 3996.0, 3995.0, 3994.0, 3993.0, 3992.0),
+                log.slowest().stream().map(SlowRequest::totalMillis).toList());
+    }
+
+    private static RequestTiming timing(int millis) {
+        RequestTiming timing = new RequestTiming();
+        ReflectionTestUtils.setField(timing, "totalNanos", millis * 1_000_000L);
+        return timing;
+    }
+}
@@ -0,0 +1,80 @@
+package com.reliaquest.api.util;
+
+import com.reliaquest.api.model.CapturedRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests to cover writing and reading back captured requests
+ */
+public class TrafficCaptureTest {
+
+    private final byte[] body = "{\"name\":\"Ann Lee\",\"salary\":90000,\"age\":30,\"title\":\"Accountant\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testCapturedRequestsReadBack() throws IOException {
+        Path file = dir.resolve("traffic.cap");
+        long started = System.nanoTime();
+        try (TrafficCapture capture = new TrafficCapture(file, 100)) {
+            capture.record(started + TimeUnit.MILLISECONDS.toNanos(5), "GET", "/employee?fields=id,name",
+                    Map.of("Accept", "application/json"), new byte[0]);
+            capture.record(started + TimeUnit.MILLISECONDS.toNanos(2), "POST", "/employee",
+                    Map.of("Content-Type", "application/json", "Prefer", "respond-async"), body);
+        }
+
+        List<CapturedRequest> requests = TrafficCapture.read(file);
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertEquals("GET", requests.get(0).method());
+        Assertions.assertEquals("/employee?fields=id,name", requests.get(0).uri());
+        Assertions.assertEquals(Map.of("Accept", "application/json"), requests.get(0).headers());
+        Assertions.assertEquals(0, requests.get(0).body().length);
+        Assertions.assertEquals("respond-async", requests.get(1).headers().get("Prefer"));
+        Assertions.assertArrayEquals(body, requests.get(1).body());
+        Assertions.assertTrue(requests.get(1).offsetMicros() < requests.get(0).offsetMicros());
+        Assertions.assertTrue(requests.get(0).offsetMicros() >= 3000);
+    }
+
+    @Test
+    public void testTruncatedLastRequestIsIgnored() throws IOException {
+        Path file = dir.resolve("traffic.cap");
+        try (TrafficCapture capture = new TrafficCapture(file, 100)) {
+            capture.record(System.nanoTime(), "DELETE", "/employee/42", Map.of(), new byte[0]);
+            capture.record(System.nanoTime(), "POST", "/employee", Map.of(), body);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        List<CapturedRequest> requests = TrafficCapture.read(file);
+        Assertions.assertEquals(1, requests.size());
+        Assertions.assertEquals("/employee/42", requests.get(0).uri());
+    }
+
+    @Test
+    public void testFullQueueDropsRequests() throws IOException {
+        Path file = dir.resolve("traffic.cap");
+        int recorded = 100_000;
+        long dropped;
+        try (TrafficCapture capture = new TrafficCapture(file, 1)) {
+            for (int i = 0; i < recorded; i++) {
+                capture.record(System.nanoTime(), "GET", "/employee/" + i, Map.of(), new byte[0]);
+            }
+            dropped = capture.dropped();
+        }
+
+        Assertions.assertTrue(dropped > 0);
+        Assertions.assertEquals(recorded - dropped, TrafficCapture.read(file).size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.reliaquest.api.util;
+
+import com.reliaquest.api.util.UpstreamBalancer.Strategy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests to cover Server API replica balancing and ejection
+ */
+public class UpstreamBalancerTest {
+
+    private static final long NOW = TimeUnit.HOURS.toNanos(1);
+
+    private final List<Upstream> upstreams =
+            List.of(new Upstream(0, "http://a"), new Upstream(1, "http://b"), new Upstream(2, "http://c"));
+
+    @Test
+    public void testRoundRobinVisitsEachReplicaInTurn() {
+        UpstreamBalancer balancer = UpstreamBalancer.of(Strategy.ROUND_ROBIN);
+
+        List<Upstream> chosen = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            chosen.add(balancer.choose(upstreams, NOW));
+        }
+
+        Assertions.assertEquals(List.of(upstreams.get(0), upstreams.get(1), upstreams.get(2)), chosen.subList(0, 3));
+        Assertions.assertEquals(chosen.subList(0, 3), chosen.subList(3, 6));
+    }
+
+    @Test
+    public void testLeastOutstandingAvoidsBusyReplicas() {
+        UpstreamBalancer balancer = UpstreamBalancer.of(Strategy.LEAST_OUTSTANDING);
+        upstreams.get(0).begin();
+        upstreams.get(0).begin();
+        upstreams.get(2).begin();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertSame(upstreams.get(1), balancer.choose(upstreams, NOW));
+        }
+    }
+
+    @Test
+    public void testRateBudgetPrefersRemainingBudgetAndForgetsItAfterReset() {
+        UpstreamBalancer balancer = UpstreamBalancer.of(Strategy.RATE_BUDGET);
+        upstreams.get(0).updateBudget(0, 10, NOW);
+        upstreams.get(1).updateBudget(5, 10, NOW);
+        upstreams.get(2).updateBudget(2, 10, NOW);
+
+        Assertions.assertSame(upstreams.get(1), balancer.choose(upstreams, NOW));
+        upstreams.get(1).begin();
+        upstreams.get(1).begin();
+        upstreams.get(1).begin();
+        upstreams.get(1).begin();
+        Assertions.assertSame(upstreams.get(2), balancer.choose(upstreams, NOW));
+
+        long afterReset = NOW + TimeUnit.SECONDS.toNanos(10);
+        Assertions.assertEquals(Long.MAX_VALUE, upstreams.get(0).budget(afterReset));
+    }
+
+    @Test
+    public void testEjectionDoublesUntilSuccess() {
+        Upstream upstream = upstreams.get(0);
+        long second = TimeUnit.SECONDS.toNanos(1);
+
+        Assertions.assertEquals(second, upstream.failed(NOW, second, 5 * second));
+        Assertions.assertFalse(upstream.isAvailable(NOW + second - 1));
+        Assertions.assertTrue(upstream.isAvailable(NOW + second));
+        Assertions.assertEquals(2 * second, upstream.failed(NOW, second, 5 * second));
+        Assertions.assertEquals(4 * second, upstream.failed(NOW, second, 5 * second));
+        Assertions.assertEquals(5 * second, upstream.failed(NOW, second, 5 * second));
+
+        Assertions.assertTrue(upstream.succeeded());
+        Assertions.assertTrue(upstream.isAvailable(NOW));
+        Assertions.assertEquals(second, upstream.failed(NOW, second, 5 * second));
+    }
+}
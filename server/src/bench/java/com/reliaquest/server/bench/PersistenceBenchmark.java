@@ -0,0 +1,106 @@
+package com.reliaquest.server.bench;
+
+import com.reliaquest.server.data.MockEmployeeGenerator;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.persistence.MockEmployeeJournal.FsyncPolicy;
+import com.reliaquest.server.persistence.PersistentMockEmployeeStore;
+import com.reliaquest.server.store.ColumnarMockEmployeeStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Write throughput per fsync policy, then recovery time from a snapshot plus a journal tail.
+ *
+ * <p>{@code ./gradlew server:bench -Pbenchmark=PersistenceBenchmark -PbenchArgs='<employees> <writes> <threads>'}
+ */
+public class PersistenceBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final var employees = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        final var writes = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        final var threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        final var dataset = new MockEmployeeGenerator(Locale.US, 42).generate(employees);
+
+        System.out.printf("%d employees, %d writes from %d threads%n", employees, writes, threads);
+        System.out.printf("%-9s %12s %14s %16s%n", "fsync", "writes/s", "recovery ms", "replayed records");
+        for (final var fsync : FsyncPolicy.values()) {
+            final var directory = Files.createTempDirectory("mock-employee-bench");
+            try {
+                var store = open(directory, fsync, dataset);
+                final var started = System.nanoTime();
+                write(store, writes, threads);
+                final var writesPerSecond = writes / ((System.nanoTime() - started) / 1e9);
+
+                // Snapshot half-way through a second batch of writes, then abandon the store as if the process died.
+                write(store, writes / 2, threads);
+                store.snapshotNow();
+                write(store, writes / 2, threads);
+                final var recoveryStarted = System.nanoTime();
+                store = open(directory, fsync, dataset);
+                final var recoveryMillis = (System.nanoTime() - recoveryStarted) / 1e6;
+                System.out.printf("%-9s %12.0f %14.1f %16d%n", fsync, writesPerSecond, recoveryMillis, writes / 2);
+                store.close();
+            } finally {
+                delete(directory);
+            }
+        }
+    }
+
+    private static PersistentMockEmployeeStore open(Path directory, FsyncPolicy fsync, List<MockEmployee> dataset)
+            throws IOException {
+        return PersistentMockEmployeeStore.open(
+                directory,
+                fsync,
+                Duration.ofMillis(10),
+                Duration.ofHours(1),
+                () -> dataset,
+                ColumnarMockEmployeeStore::new);
+    }
+
+    /*
+     * Alternating creates and deletes, so the store size stays stable across policies.
+     */
+    private static void write(PersistentMockEmployeeStore store, int writes, int threads) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final var futures = IntStream.range(0, threads)
+                    .mapToObj(thread -> executor.submit(() -> {
+                        for (int i = thread; i < writes; i += 2 * threads) {
+                            final var employee = store.add(new MockEmployee(
+                                    UUID.randomUUID(),
+                                    "Bench " + i,
+                                    100_000,
+                                    40,
+                                    "Benchmark Engineer",
+                                    "b@company.com"));
+                            if (i + threads < writes) {
+                                store.removeById(employee.getId());
+                            }
+                        }
+                    }))
+                    .toList();
+            for (final var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (final var files = Files.walk(directory)) {
+            for (final var path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.reliaquest.server.bench;
+
+import com.reliaquest.server.data.MockEmployeeGenerator;
+import com.reliaquest.server.model.MockEmployeeSearch;
+import com.reliaquest.server.store.ColumnarMockEmployeeStore;
+import com.reliaquest.server.store.HeapMockEmployeeStore;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Full-scan latency per store and fork-join parallelism: a name-contains search with a salary range, and a delete by a
+ * name no employee has.
+ *
+ * <p>{@code ./gradlew server:bench -Pbenchmark=ScanBenchmark -PbenchArgs='<employees> <runs>'}
+ */
+public class ScanBenchmark {
+
+    private static final MockEmployeeSearch SEARCH = new MockEmployeeSearch("son", 100_000, 300_000, null, null);
+
+    public static void main(String[] args) throws Exception {
+        final var employees = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final var runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        final var dataset = new MockEmployeeGenerator(Locale.US, 42).generate(employees);
+        final var stores = new MockEmployeeStore[] {
+            new HeapMockEmployeeStore(dataset), new ColumnarMockEmployeeStore(dataset)
+        };
+
+        System.out.printf(
+                "%d employees, median of %d runs, %d cores%n",
+                employees, runs, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-9s %8s %10s %10s %14s%n", "store", "threads", "matches", "search ms", "miss delete ms");
+        for (final var store : stores) {
+            for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+                final var pool = new ForkJoinPool(threads);
+                try {
+                    final var matches = pool.submit(() -> store.search(SEARCH).size()).get();
+                    final var searchMillis = median(pool, runs, () -> store.search(SEARCH));
+                    final var deleteMillis = median(pool, runs, () -> store.removeByName("No Such Employee"));
+                    System.out.printf(
+                            "%-9s %8d %10d %10.1f %14.1f%n",
+                            store.getClass().getSimpleName().replace("MockEmployeeStore", ""),
+                            threads,
+                            matches,
+                            searchMillis,
+                            deleteMillis);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /*
+     * Parallel streams started from a task of the pool run in that pool, which caps the scan at its parallelism.
+     */
+    private static double median(ForkJoinPool pool, int runs, Supplier<?> scan) throws Exception {
+        final var millis = new double[runs];
+        for (int i = -runs / 2; i < runs; i++) {
+            final var started = System.nanoTime();
+            pool.submit(scan::get).get();
+            if (i >= 0) {
+                millis[i] = (System.nanoTime() - started) / 1e6;
+            }
+        }
+        Arrays.sort(millis);
+        return millis[runs / 2];
+    }
+}
@@ -1,59 +1,187 @@
 package com.reliaquest.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.data.MockEmployeeDataset;
+import com.reliaquest.server.data.MockEmployeeGenerator;
 import com.reliaquest.server.model.MockEmployee;
-import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
+import com.reliaquest.server.persistence.MockEmployeeJournal;
+import com.reliaquest.server.persistence.PersistentMockEmployeeStore;
+import com.reliaquest.server.store.ColumnarMockEmployeeStore;
+import com.reliaquest.server.store.HeapMockEmployeeStore;
+import com.reliaquest.server.store.MockEmployeeStore;
+import com.reliaquest.server.web.FaultInjectionFilter;
+import com.reliaquest.server.web.FaultInjectionProperties;
+import com.reliaquest.server.web.RequestLimitInterceptor;
+import com.reliaquest.server.web.SlidingWindowRateLimiter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
-import net.datafaker.transformations.Field;
-import net.datafaker.transformations.JavaObjectTransformer;
-import net.datafaker.transformations.Schema;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(FaultInjectionProperties.class)
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    private static final int LOG_EACH_EMPLOYEE_LIMIT = 1_000;
+
+    @Value("${mock.rate-limit.seed:#{null}}")
+    private Long rateLimitSeed;
+
+    @Value("${mock.rate-limit.limit:#{null}}")
+    private Integer rateLimit;
+
+    @Value("${mock.rate-limit.window:#{null}}")
+    private Duration rateLimitWindow;
+
+    @Value("${mock.rate-limit.tick:#{null}}")
+    private Duration rateLimitTick;
+
+    @Value("${mock.persistence.dir:#{null}}")
+    private Path persistenceDirectory;
+
+    @Value("${mock.persistence.fsync:always}")
+    private MockEmployeeJournal.FsyncPolicy fsync;
+
+    @Value("${mock.persistence.fsync-interval:10ms}")
+    private Duration fsyncInterval;
+
+    @Value("${mock.persistence.snapshot-interval:5m}")
+    private Duration snapshotInterval;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * The initial dataset is only referenced while the store is built, so COLUMNAR storage can drop the objects.
+     *
+     * When mock.employees.dataset points at an existing file it is loaded as-is; otherwise employees are generated
+     * (reproducibly, if mock.employees.seed is set) and written to that file for the next start. With
+     * mock.persistence.dir set, the initial dataset is only used on the very first start; afterwards the store is
+     * recovered from its snapshot and journal. The store is built eagerly even with lazy initialization, so that a
+     * broken dataset or journal fails startup rather than the first request.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
-        final var transformer = new JavaObjectTransformer();
-        final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
-                Field.field("name", () -> faker.name().fullName()),
-                Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
-                Field.field("age", () -> faker.number().numberBetween(16, 70)),
-                Field.field("title", () -> faker.job().title()),
-                Field.field(
-                        "email",
-                        () -> EMAIL_TEMPLATE.formatted(
-                                faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
-                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
-                .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+    @Lazy(false)
+    public MockEmployeeStore mockEmployeeStore(
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.seed:#{null}}") Long seed,
+            @Value("${mock.employees.dataset:#{null}}") Path dataset,
+            @Value("${mock.employees.storage:heap}") MockEmployeeStore.Type storage)
+            throws IOException {
+        final Function<Collection<MockEmployee>, MockEmployeeStore> storeFactory =
+                switch (storage) {
+                    case HEAP -> HeapMockEmployeeStore::new;
+                    case COLUMNAR -> ColumnarMockEmployeeStore::new;
+                };
+        if (persistenceDirectory != null) {
+            return PersistentMockEmployeeStore.open(
+                    persistenceDirectory,
+                    fsync,
+                    fsyncInterval,
+                    snapshotInterval,
+                    () -> {
+                        try {
+                            return loadOrGenerate(maxEmployees, seed, dataset);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    storeFactory);
+        }
+        return storeFactory.apply(loadOrGenerate(maxEmployees, seed, dataset));
+    }
+
+    /*
+     * Without mock.faults.profiles the filter matches nothing and passes every request straight through.
+     */
+    @Bean
+    public FaultInjectionFilter faultInjectionFilter(FaultInjectionProperties faults, ObjectMapper objectMapper) {
+        final var seed = faults.seed() != null
+                ? faults.seed()
+                : RandomGenerator.getDefault().nextLong();
+        if (!faults.profiles().isEmpty()) {
+            log.info(
+                    "Injecting faults from {} profiles with seed {}.",
+                    faults.profiles().size(),
+                    seed);
+            faults.profiles().forEach(profile -> log.info("Fault profile: {}", profile));
+        }
+        return new FaultInjectionFilter(seed, faults.profiles(), objectMapper);
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        registry.addInterceptor(new RequestLimitInterceptor(rateLimiter()));
+    }
+
+    private static List<MockEmployee> loadOrGenerate(int maxEmployees, Long seed, Path dataset) throws IOException {
+        if (dataset != null && Files.exists(dataset)) {
+            final var started = System.nanoTime();
+            final var mockEmployees = MockEmployeeDataset.read(dataset);
+            log.info(
+                    "Loaded {} employees from {} in {} ms.",
+                    mockEmployees.size(),
+                    dataset,
+                    (System.nanoTime() - started) / 1_000_000);
+            return mockEmployees;
+        }
+
+        final var generator = new MockEmployeeGenerator(
+                Locale.getDefault(),
+                seed != null ? seed : RandomGenerator.getDefault().nextLong());
+        final var started = System.nanoTime();
+        final var mockEmployees = generator.generate(maxEmployees);
+        log.info(
+                "Generated {} employees with seed {} in {} ms.",
+                mockEmployees.size(),
+                generator.getSeed(),
+                (System.nanoTime() - started) / 1_000_000);
+        if (mockEmployees.size() <= LOG_EACH_EMPLOYEE_LIMIT) {
+            mockEmployees.forEach(mockEmployee -> log.debug("Created employee: {}", mockEmployee));
+        }
+        if (dataset != null) {
+            MockEmployeeDataset.write(dataset, mockEmployees);
+            log.info("Wrote generated employees to {}.", dataset);
+        }
+        return mockEmployees;
+    }
+
+    /*
+     * Unless configured, the limit (5-10 requests) and window (30-90 seconds) are picked at random, reproducibly when
+     * mock.rate-limit.seed is set. A mock.rate-limit.tick switches to a logical clock advanced by one tick per request.
+     */
+    private SlidingWindowRateLimiter rateLimiter() {
+        final var random = rateLimitSeed != null ? new Random(rateLimitSeed) : new Random();
+        final var rateLimiter = new SlidingWindowRateLimiter(
+                rateLimit != null ? rateLimit : random.nextInt(5, 10),
+                rateLimitWindow != null ? rateLimitWindow : Duration.ofSeconds(random.nextInt(30, 90)),
+                rateLimitTick);
+        log.info(
+                "Rate limiting each client to {} requests per {}{}.",
+                rateLimiter.getLimit(),
+                rateLimiter.getWindow(),
+                rateLimiter.isDeterministic() ? " on a logical clock ticking " + rateLimitTick + " per request" : "");
+        return rateLimiter;
     }
 }
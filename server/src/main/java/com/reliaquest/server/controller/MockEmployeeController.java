@@ -1,14 +1,24 @@
 package com.reliaquest.server.controller;
 
+import com.reliaquest.server.model.BatchItem;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeField;
+import com.reliaquest.server.model.MockEmployeeSearch;
 import com.reliaquest.server.model.Response;
+import com.reliaquest.server.model.SalaryStats;
 import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.web.EmployeeListResponseCache;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,19 +26,78 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    private static final int MAX_BATCH_SIZE = 1_000;
+
     private final MockEmployeeService mockEmployeeService;
 
+    private final EmployeeListResponseCache employeeListResponseCache;
+
+    /*
+     * Written to the response directly, so that a streamed body goes out in chunks as it is produced.
+     * fields=id,employee_name returns just those properties; an unknown field is a 400.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public void getEmployees(
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response)
+            throws IOException {
+        final Set<MockEmployeeField> projection;
+        try {
+            projection = MockEmployeeField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        final var body = employeeListResponseCache.get(accept, acceptEncoding, projection);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(body.mediaType().toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.gzip()) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (body.contentLength() >= 0) {
+            response.setContentLengthLong(body.contentLength());
+        }
+        body.writeTo(response.getOutputStream());
+    }
+
+    /*
+     * Count, salary range and the top earners, without sending every employee.
+     */
+    @GetMapping("/salaries")
+    public ResponseEntity<Response<SalaryStats>> getSalaryStats(@RequestParam(defaultValue = "10") int top) {
+        if (top < 0 || top > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Response.error("top must be between 0 and %d.".formatted(MAX_BATCH_SIZE)));
+        }
+        return ResponseEntity.ok(Response.handledWith(mockEmployeeService.salaryStats(top)));
+    }
+
+    /*
+     * Employees whose name contains name, ignoring case, and whose salary and age fall in the inclusive ranges given.
+     */
+    @GetMapping("/search")
+    public Response<List<MockEmployee>> searchEmployees(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer minSalary,
+            @RequestParam(required = false) Integer maxSalary,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge) {
+        return Response.handledWith(
+                mockEmployeeService.search(new MockEmployeeSearch(name, minSalary, maxSalary, minAge, maxAge)));
     }
 
     @GetMapping("/{id}")
@@ -48,4 +117,29 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    @PostMapping("/batch/get")
+    public ResponseEntity<Response<List<BatchItem<MockEmployee>>>> getEmployees(@RequestBody List<String> ids) {
+        return batch(ids, mockEmployeeService::findAllById);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Response<List<BatchItem<MockEmployee>>>> createEmployees(
+            @RequestBody List<CreateMockEmployeeInput> inputs) {
+        return batch(inputs, mockEmployeeService::createAll);
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<Response<List<BatchItem<MockEmployee>>>> deleteEmployees(@RequestBody List<String> ids) {
+        return batch(ids, mockEmployeeService::deleteAllById);
+    }
+
+    private static <I> ResponseEntity<Response<List<BatchItem<MockEmployee>>>> batch(
+            List<I> items, Function<List<I>, List<BatchItem<MockEmployee>>> operation) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Response.error("Batch size must not exceed %d.".formatted(MAX_BATCH_SIZE)));
+        }
+        return ResponseEntity.ok(Response.handledWith(operation.apply(items)));
+    }
 }
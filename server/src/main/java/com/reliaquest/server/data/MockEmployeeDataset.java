@@ -0,0 +1,116 @@
+package com.reliaquest.server.data;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.NonNull;
+
+/**
+ * Compact binary dataset file: a header ({@code magic, version, count}) followed by fixed-width id, salary and age
+ * fields and length-prefixed UTF-8 name, title and email per employee. Files are memory-mapped on read.
+ */
+public final class MockEmployeeDataset {
+
+    private static final int MAGIC = 0x4D4B454D;
+    private static final int VERSION = 1;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private MockEmployeeDataset() {}
+
+    public static List<MockEmployee> read(@NonNull Path path) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static List<MockEmployee> read(@NonNull ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a mock employee dataset.");
+        }
+        if (buffer.getInt() != VERSION) {
+            throw new IOException("Unsupported mock employee dataset version.");
+        }
+        final var count = buffer.getInt();
+        final var employees = new ArrayList<MockEmployee>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(readEmployee(buffer));
+        }
+        return employees;
+    }
+
+    /*
+     * Written and synced to a sibling temp file first so a crash mid-write never leaves a truncated dataset behind.
+     */
+    public static void write(@NonNull Path path, @NonNull Collection<MockEmployee> employees) throws IOException {
+        final var temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (final var channel = FileChannel.open(
+                temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(employees.size());
+            for (final var employee : employees) {
+                writeEmployee(out, employee);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static MockEmployee readEmployee(@NonNull ByteBuffer buffer) {
+        return new MockEmployee(
+                new UUID(buffer.getLong(), buffer.getLong()),
+                readString(buffer),
+                buffer.getInt(),
+                buffer.getInt(),
+                readString(buffer),
+                readString(buffer));
+    }
+
+    public static void writeEmployee(@NonNull DataOutputStream out, @NonNull MockEmployee employee) throws IOException {
+        out.writeLong(employee.getId().getMostSignificantBits());
+        out.writeLong(employee.getId().getLeastSignificantBits());
+        writeString(out, employee.getName());
+        out.writeInt(employee.getSalary());
+        out.writeInt(employee.getAge());
+        writeString(out, employee.getTitle());
+        writeString(out, employee.getEmail());
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final var length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_LENGTH);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IOException("String too long for mock employee dataset: " + bytes.length + " bytes.");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
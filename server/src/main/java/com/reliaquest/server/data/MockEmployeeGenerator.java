@@ -0,0 +1,71 @@
+package com.reliaquest.server.data;
+
+import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import net.datafaker.Faker;
+
+/**
+ * Generates mock employees in fixed-size partitions on the fork-join common pool. Each partition owns a {@link Faker}
+ * seeded from {@code (seed, partition)}, so the same seed always yields the same dataset regardless of how many
+ * threads took part in generating it.
+ */
+@RequiredArgsConstructor
+public class MockEmployeeGenerator {
+
+    static final int PARTITION_SIZE = 10_000;
+
+    private final Locale locale;
+
+    @Getter
+    private final long seed;
+
+    public List<MockEmployee> generate(int count) {
+        final var employees = new MockEmployee[count];
+        final var partitions = (count + PARTITION_SIZE - 1) / PARTITION_SIZE;
+        IntStream.range(0, partitions).parallel().forEach(partition -> generatePartition(employees, partition));
+        return Arrays.asList(employees);
+    }
+
+    private void generatePartition(MockEmployee[] employees, int partition) {
+        final var random = new Random(mix(seed + partition));
+        final var faker = new Faker(locale, random);
+        final var end = Math.min(employees.length, (partition + 1) * PARTITION_SIZE);
+        for (int i = partition * PARTITION_SIZE; i < end; i++) {
+            employees[i] = MockEmployee.builder()
+                    .id(randomUuid(random))
+                    .name(faker.name().fullName())
+                    .salary(faker.number().numberBetween(30000, 500000))
+                    .age(faker.number().numberBetween(16, 70))
+                    .title(faker.job().title())
+                    .email(ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                            faker.twitter().userName().toLowerCase()))
+                    .build();
+        }
+    }
+
+    /*
+     * Version 4 (random) UUID drawn from the partition's generator rather than SecureRandom.
+     */
+    private static UUID randomUuid(Random random) {
+        final var msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        final var lsb = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(msb, lsb);
+    }
+
+    /*
+     * SplitMix64 finalizer; spreads adjacent partition seeds across the whole long range.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,28 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one element of a batch request; batch responses list these in request order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItem<T>(Status status, T data, String error) {
+
+    public static <T> BatchItem<T> ok(T data) {
+        return new BatchItem<>(Status.OK, data, null);
+    }
+
+    public static <T> BatchItem<T> notFound() {
+        return new BatchItem<>(Status.NOT_FOUND, null, null);
+    }
+
+    public static <T> BatchItem<T> invalid(String error) {
+        return new BatchItem<>(Status.INVALID, null, error);
+    }
+
+    public enum Status {
+        OK,
+        NOT_FOUND,
+        INVALID
+    }
+}
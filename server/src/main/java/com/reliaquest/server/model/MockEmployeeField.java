@@ -0,0 +1,55 @@
+package com.reliaquest.server.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * A property of {@link MockEmployee} as it is named on the wire, for projections such as {@code ?fields=id,employee_name}.
+ */
+public enum MockEmployeeField {
+    ID("id", MockEmployee::getId),
+    NAME("employee_name", MockEmployee::getName),
+    SALARY("employee_salary", MockEmployee::getSalary),
+    AGE("employee_age", MockEmployee::getAge),
+    TITLE("employee_title", MockEmployee::getTitle),
+    EMAIL("employee_email", MockEmployee::getEmail);
+
+    @Getter
+    private final String property;
+
+    private final Function<MockEmployee, Object> getter;
+
+    MockEmployeeField(String property, Function<MockEmployee, Object> getter) {
+        this.property = property;
+        this.getter = getter;
+    }
+
+    public Object get(MockEmployee employee) {
+        return getter.apply(employee);
+    }
+
+    /*
+     * Comma-separated properties, with or without the employee_ prefix, ignoring case; null when the list is blank.
+     */
+    public static Set<MockEmployeeField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        final var parsed = EnumSet.noneOf(MockEmployeeField.class);
+        for (final var name : fields.split(",")) {
+            parsed.add(of(name.trim()));
+        }
+        return parsed;
+    }
+
+    private static MockEmployeeField of(String name) {
+        for (final var field : values()) {
+            if (field.property.equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: %s.".formatted(name));
+    }
+}
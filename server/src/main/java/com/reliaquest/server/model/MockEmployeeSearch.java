@@ -0,0 +1,42 @@
+package com.reliaquest.server.model;
+
+/**
+ * Predicates of an employee search; a null bound or name is not tested. Ranges are inclusive and the name matches if
+ * it contains {@code name}, ignoring case. Stores test the ranges before the name, which is the only costly test.
+ */
+public record MockEmployeeSearch(String name, Integer minSalary, Integer maxSalary, Integer minAge, Integer maxAge) {
+
+    public boolean matches(MockEmployee employee) {
+        return matchesSalary(employee.getSalary()) && matchesAge(employee.getAge()) && matchesName(employee.getName());
+    }
+
+    public boolean matchesSalary(Integer salary) {
+        return inRange(salary, minSalary, maxSalary);
+    }
+
+    public boolean matchesAge(Integer age) {
+        return inRange(age, minAge, maxAge);
+    }
+
+    public boolean matchesName(String value) {
+        if (name == null) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i <= value.length() - name.length(); i++) {
+            if (value.regionMatches(true, i, name, 0, name.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inRange(Integer value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+}
@@ -0,0 +1,8 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * Salary aggregates over all employees; the salaries are null when there are no employees.
+ */
+public record SalaryStats(int count, Integer minSalary, Integer maxSalary, List<MockEmployee> topEarners) {}
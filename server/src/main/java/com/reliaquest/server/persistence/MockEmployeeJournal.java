@@ -0,0 +1,369 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.data.MockEmployeeDataset;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-ahead log of store mutations, split into segments named after the sequence number of their first record.
+ *
+ * <p>Each record is {@code length, crc32c, seq, type, payload}. Appends only encode the record and queue it; a single
+ * writer thread drains everything queued, writes it with one gathering write and then syncs according to the
+ * {@link FsyncPolicy}, so concurrent appenders share one fsync (group commit). A record that fails its checksum on
+ * replay is a torn tail from a crash and ends replay of its segment.
+ *
+ * <p>If writing a batch fails, its appends fail and the segment is truncated back to where the batch started, so that
+ * none of it is replayed. If even that fails, the journal is failed for good: every later append fails at once, and
+ * only a restart, replaying what is on disk, makes the store writable again. Appends after {@link #close()} fail at
+ * once as well.
+ */
+@Slf4j
+public class MockEmployeeJournal implements Closeable {
+
+    private static final byte CREATE = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final FsyncPolicy fsync;
+    private final long fsyncIntervalNanos;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private long nextSeq;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    private FileChannel segment;
+
+    public MockEmployeeJournal(
+            @NonNull Path directory, long nextSeq, @NonNull FsyncPolicy fsync, @NonNull Duration fsyncInterval)
+            throws IOException {
+        this.directory = directory;
+        this.nextSeq = nextSeq;
+        this.fsync = fsync;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.segment = openSegment(nextSeq);
+        this.writer = new Thread(this::drain, "mock-employee-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public synchronized CompletableFuture<Void> appendCreate(@NonNull MockEmployee employee) {
+        return append(CREATE, out -> MockEmployeeDataset.writeEmployee(out, employee));
+    }
+
+    public synchronized CompletableFuture<Void> appendDelete(@NonNull UUID id) {
+        return append(DELETE, out -> {
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        });
+    }
+
+    public synchronized long lastSeq() {
+        return nextSeq - 1;
+    }
+
+    /*
+     * Starts a new segment: every record up to the returned sequence number lives in an older segment once the future
+     * completes.
+     */
+    public synchronized CompletableFuture<Long> roll() {
+        if (!running) {
+            return CompletableFuture.failedFuture(closed());
+        }
+        final var last = nextSeq - 1;
+        final var rolled = new CompletableFuture<Void>();
+        queue.add(new Entry(null, nextSeq, rolled));
+        return rolled.thenApply(ignored -> last);
+    }
+
+    public void deleteSegmentsUpTo(long seq) throws IOException {
+        final var segments = segments(directory);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSeq(segments.get(i + 1)) <= seq + 1) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        /*
+         * Under the append lock, so every entry queued before this is drained by the writer and none is queued after.
+         */
+        synchronized (this) {
+            running = false;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segment.force(false);
+        segment.close();
+    }
+
+    /**
+     * Replays every intact record after {@code afterSeq}, in order, and returns the last sequence number replayed. A
+     * segment is read up to its first torn or corrupt record; later segments were written after the restart that
+     * followed the tear.
+     */
+    public static long replay(@NonNull Path directory, long afterSeq, @NonNull Replay replay) throws IOException {
+        var lastSeq = afterSeq;
+        for (final var path : segments(directory)) {
+            try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                lastSeq = replay(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), lastSeq, replay);
+            }
+        }
+        return lastSeq;
+    }
+
+    private static long replay(Path path, ByteBuffer buffer, long afterSeq, Replay replay) {
+        var lastSeq = afterSeq;
+        while (buffer.remaining() >= HEADER_BYTES) {
+            final var length = buffer.getInt();
+            final var checksum = buffer.getInt();
+            if (length <= Long.BYTES || length > buffer.remaining()) {
+                log.warn("Ignoring torn journal tail in {}.", path);
+                return lastSeq;
+            }
+            final var record = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            final var crc = new CRC32C();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Ignoring journal tail with a bad checksum in {}.", path);
+                return lastSeq;
+            }
+            final var seq = record.getLong();
+            final var type = record.get();
+            if (seq <= lastSeq) {
+                continue;
+            }
+            if (type == CREATE) {
+                replay.created(MockEmployeeDataset.readEmployee(record));
+            } else {
+                replay.deleted(new UUID(record.getLong(), record.getLong()));
+            }
+            lastSeq = seq;
+        }
+        return lastSeq;
+    }
+
+    private CompletableFuture<Void> append(byte type, Payload payload) {
+        if (failure != null) {
+            return CompletableFuture.failedFuture(new IOException("Mock employee journal has failed.", failure));
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(closed());
+        }
+        final var bytes = new ByteArrayOutputStream(128);
+        try (final var out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeLong(nextSeq);
+            out.writeByte(type);
+            payload.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final var record = ByteBuffer.wrap(bytes.toByteArray());
+        final var crc = new CRC32C();
+        crc.update(record.slice(HEADER_BYTES, record.limit() - HEADER_BYTES));
+        record.putInt(0, record.limit() - HEADER_BYTES);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        final var written = new CompletableFuture<Void>();
+        queue.add(new Entry(record, nextSeq++, written));
+        return written;
+    }
+
+    private static IOException closed() {
+        return new IOException("Mock employee journal is closed.");
+    }
+
+    private void drain() {
+        final var batch = new ArrayList<Entry>();
+        final var pending = new ArrayList<Entry>();
+        var lastForce = System.nanoTime();
+        var dirty = false;
+        while (running || !queue.isEmpty()) {
+            final Entry first;
+            try {
+                first = queue.poll(Math.max(1, fsyncIntervalNanos), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch);
+            }
+            for (final var entry : batch) {
+                if (entry.record() != null) {
+                    pending.add(entry);
+                } else if (commit(pending, true)) {
+                    dirty = false;
+                    roll(entry);
+                } else {
+                    entry.written().completeExceptionally(failure);
+                }
+            }
+            batch.clear();
+            final var force = fsync == FsyncPolicy.ALWAYS
+                    || (fsync == FsyncPolicy.INTERVAL && System.nanoTime() - lastForce >= fsyncIntervalNanos);
+            dirty |= !pending.isEmpty();
+            if (dirty && force) {
+                lastForce = System.nanoTime();
+            }
+            if (commit(pending, dirty && force)) {
+                dirty &= !force;
+            }
+        }
+    }
+
+    /*
+     * Writes the entries, syncs if asked to and completes them. On failure they fail instead and the segment is
+     * truncated to where they started; returns false if the journal is failed for good.
+     */
+    private boolean commit(List<Entry> entries, boolean force) {
+        if (failure != null) {
+            fail(entries, failure);
+            return false;
+        }
+        long start = -1;
+        try {
+            start = segment.position();
+            write(entries);
+            if (force) {
+                segment.force(false);
+            }
+            complete(entries);
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to write mock employee journal.", e);
+            fail(entries, e);
+            try {
+                if (start < 0) {
+                    throw e;
+                }
+                segment.truncate(start);
+                segment.position(start);
+                segment.force(false);
+                return true;
+            } catch (IOException truncateFailure) {
+                truncateFailure.addSuppressed(e);
+                failure = truncateFailure;
+                log.error("Mock employee journal failed; writes will fail until the server restarts.", failure);
+                return false;
+            }
+        }
+    }
+
+    /*
+     * Opens the new segment before closing the current one, so a failed roll leaves the current one in use.
+     */
+    private void roll(Entry entry) {
+        final FileChannel next;
+        try {
+            next = openSegment(entry.seq());
+        } catch (IOException e) {
+            log.error("Failed to roll mock employee journal; still writing to the current segment.", e);
+            entry.written().completeExceptionally(e);
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Failed to close a synced mock employee journal segment.", e);
+        }
+        segment = next;
+        entry.written().complete(null);
+    }
+
+    private void write(List<Entry> entries) throws IOException {
+        final var buffers = entries.stream().map(Entry::record).toArray(ByteBuffer[]::new);
+        var remaining = Stream.of(buffers).mapToLong(ByteBuffer::remaining).sum();
+        while (remaining > 0) {
+            remaining -= segment.write(buffers);
+        }
+    }
+
+    private static void complete(List<Entry> entries) {
+        entries.forEach(entry -> entry.written().complete(null));
+        entries.clear();
+    }
+
+    private static void fail(List<Entry> entries, IOException e) {
+        entries.forEach(entry -> entry.written().completeExceptionally(e));
+        entries.clear();
+    }
+
+    private FileChannel openSegment(long firstSeq) throws IOException {
+        return FileChannel.open(
+                directory.resolve(SEGMENT_PREFIX + "%020d".formatted(firstSeq) + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSeq(Path segment) {
+        final var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    public enum FsyncPolicy {
+        /** Sync every batch before acknowledging its writes. */
+        ALWAYS,
+        /** Acknowledge once written; sync at most once per fsync interval. */
+        INTERVAL,
+        /** Leave syncing to the operating system. */
+        NEVER
+    }
+
+    public interface Replay {
+
+        void created(MockEmployee employee);
+
+        void deleted(UUID id);
+    }
+
+    private interface Payload {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private record Entry(ByteBuffer record, long seq, CompletableFuture<Void> written) {}
+}
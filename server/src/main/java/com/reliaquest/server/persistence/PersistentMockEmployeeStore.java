@@ -0,0 +1,321 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.data.MockEmployeeDataset;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeSearch;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes any {@link MockEmployeeStore} durable. Mutations are applied to the delegate and appended to a
+ * {@link MockEmployeeJournal} under one lock, so the journal order is the store order; callers then wait for the
+ * journal outside the lock. Snapshots are {@link MockEmployeeDataset} files named after the last sequence number they
+ * contain; writing one rolls the journal and deletes everything it supersedes.
+ *
+ * <p>A mutation whose journal write fails is undone on the delegate before the failure reaches the caller, so the
+ * store never serves what a restart would not recover.
+ *
+ * <p>On open, the newest snapshot is memory-mapped and only the journal tail after it is replayed. The very first open
+ * of an empty directory snapshots the initial dataset, so later restarts never regenerate it.
+ */
+@Slf4j
+public class PersistentMockEmployeeStore implements MockEmployeeStore, Closeable {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final MockEmployeeStore delegate;
+    private final MockEmployeeJournal journal;
+    private final ScheduledExecutorService snapshots;
+    private final Object snapshotLock = new Object();
+
+    private long snapshotSeq;
+
+    private PersistentMockEmployeeStore(
+            Path directory,
+            MockEmployeeStore delegate,
+            MockEmployeeJournal journal,
+            long snapshotSeq,
+            Duration snapshotInterval) {
+        this.directory = directory;
+        this.delegate = delegate;
+        this.journal = journal;
+        this.snapshotSeq = snapshotSeq;
+        this.snapshots = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "mock-employee-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshots.scheduleWithFixedDelay(
+                this::snapshotQuietly, snapshotInterval.toMillis(), snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static PersistentMockEmployeeStore open(
+            @NonNull Path directory,
+            @NonNull MockEmployeeJournal.FsyncPolicy fsync,
+            @NonNull Duration fsyncInterval,
+            @NonNull Duration snapshotInterval,
+            @NonNull Supplier<? extends Collection<MockEmployee>> initialEmployees,
+            @NonNull Function<Collection<MockEmployee>, MockEmployeeStore> storeFactory)
+            throws IOException {
+        Files.createDirectories(directory);
+        final var started = System.nanoTime();
+        final var latest = latestSnapshot(directory);
+        final Collection<MockEmployee> recovered;
+        final long snapshotSeq;
+        if (latest.isPresent()) {
+            snapshotSeq = snapshotSeq(latest.get());
+            recovered = MockEmployeeDataset.read(latest.get());
+        } else {
+            recovered = initialEmployees.get();
+            snapshotSeq = 0;
+            MockEmployeeDataset.write(directory.resolve(snapshotName(snapshotSeq)), recovered);
+        }
+
+        final var employees = new LinkedHashMap<UUID, MockEmployee>();
+        recovered.forEach(employee -> employees.put(employee.getId(), employee));
+        final var replayed = new int[1];
+        final var lastSeq = MockEmployeeJournal.replay(directory, snapshotSeq, new MockEmployeeJournal.Replay() {
+            @Override
+            public void created(MockEmployee employee) {
+                employees.put(employee.getId(), employee);
+                replayed[0]++;
+            }
+
+            @Override
+            public void deleted(UUID id) {
+                employees.remove(id);
+                replayed[0]++;
+            }
+        });
+        final var delegate = storeFactory.apply(employees.values());
+        log.info(
+                "Recovered {} employees from snapshot {} and {} journal records in {} ms.",
+                delegate.size(),
+                snapshotSeq,
+                replayed[0],
+                (System.nanoTime() - started) / 1_000_000);
+        return new PersistentMockEmployeeStore(
+                directory,
+                delegate,
+                new MockEmployeeJournal(directory, lastSeq + 1, fsync, fsyncInterval),
+                snapshotSeq,
+                snapshotInterval);
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        return delegate.snapshot();
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(UUID id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> findAllById(List<UUID> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<MockEmployee> search(MockEmployeeSearch search) {
+        return delegate.search(search);
+    }
+
+    @Override
+    public MockEmployee add(@NonNull MockEmployee employee) {
+        addAll(List.of(employee));
+        return employee;
+    }
+
+    @Override
+    public List<MockEmployee> addAll(@NonNull List<MockEmployee> employees) {
+        final List<CompletableFuture<Void>> written;
+        synchronized (this) {
+            delegate.addAll(employees);
+            written = employees.stream().map(journal::appendCreate).toList();
+        }
+        awaitOrUndo(
+                employees,
+                written,
+                failed -> delegate.removeAllById(
+                        failed.stream().map(MockEmployee::getId).toList()));
+        return employees;
+    }
+
+    @Override
+    public Optional<MockEmployee> removeByName(@NonNull String name) {
+        return journalDelete(() -> delegate.removeByName(name));
+    }
+
+    @Override
+    public Optional<MockEmployee> removeById(@NonNull UUID id) {
+        return journalDelete(() -> delegate.removeById(id));
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> removeAllById(@NonNull List<UUID> ids) {
+        final List<Optional<MockEmployee>> removed;
+        final List<MockEmployee> present;
+        final List<CompletableFuture<Void>> written;
+        synchronized (this) {
+            removed = delegate.removeAllById(ids);
+            present = removed.stream().flatMap(Optional::stream).toList();
+            written = present.stream()
+                    .map(employee -> journal.appendDelete(employee.getId()))
+                    .toList();
+        }
+        awaitOrUndo(present, written, delegate::addAll);
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public long version() {
+        return delegate.version();
+    }
+
+    /*
+     * Listeners see mutations as the delegate applies them, including the undo of a mutation the journal failed to
+     * write.
+     */
+    @Override
+    public void addListener(@NonNull Listener listener) {
+        delegate.addListener(listener);
+    }
+
+    /**
+     * Writes a snapshot if anything was journaled since the last one, then drops the journal segments and snapshots it
+     * supersedes.
+     */
+    public void snapshotNow() throws IOException {
+        synchronized (snapshotLock) {
+            final Snapshot snapshot;
+            final CompletableFuture<Long> rolled;
+            synchronized (this) {
+                if (journal.lastSeq() == snapshotSeq) {
+                    return;
+                }
+                snapshot = delegate.snapshot();
+                rolled = journal.roll();
+            }
+            final var seq = rolled.join();
+            final var started = System.nanoTime();
+            MockEmployeeDataset.write(directory.resolve(snapshotName(seq)), snapshot.employees());
+            journal.deleteSegmentsUpTo(seq);
+            for (final var path : snapshots(directory)) {
+                if (snapshotSeq(path) < seq) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            snapshotSeq = seq;
+            log.info(
+                    "Wrote snapshot {} of {} employees in {} ms.",
+                    seq,
+                    snapshot.employees().size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshots.shutdown();
+        try {
+            snapshots.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotNow();
+        journal.close();
+    }
+
+    private Optional<MockEmployee> journalDelete(Supplier<Optional<MockEmployee>> delete) {
+        final Optional<MockEmployee> removed;
+        final List<CompletableFuture<Void>> written;
+        synchronized (this) {
+            removed = delete.get();
+            written = removed.map(employee -> List.of(journal.appendDelete(employee.getId())))
+                    .orElse(List.of());
+        }
+        awaitOrUndo(removed.stream().toList(), written, delegate::addAll);
+        return removed;
+    }
+
+    /*
+     * Waits for the journal writes of the employees, one per employee, and undoes the mutation for those whose write
+     * failed before rethrowing the failure.
+     */
+    private void awaitOrUndo(
+            List<MockEmployee> employees, List<CompletableFuture<Void>> written, Consumer<List<MockEmployee>> undo) {
+        try {
+            CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            final var failed = IntStream.range(0, employees.size())
+                    .filter(i -> written.get(i).isCompletedExceptionally())
+                    .mapToObj(employees::get)
+                    .toList();
+            synchronized (this) {
+                undo.accept(failed);
+            }
+            log.error("Undid {} mutations the journal failed to write.", failed.size(), e.getCause());
+            throw e;
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshotNow();
+        } catch (Exception e) {
+            log.error("Failed to write mock employee snapshot.", e);
+        }
+    }
+
+    private static Optional<Path> latestSnapshot(Path directory) throws IOException {
+        final var snapshots = snapshots(directory);
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    private static List<Path> snapshots(Path directory) throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String snapshotName(long seq) {
+        return SNAPSHOT_PREFIX + "%020d".formatted(seq) + SNAPSHOT_SUFFIX;
+    }
+
+    private static long snapshotSeq(Path snapshot) {
+        final var name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+}
@@ -1,58 +1,184 @@
 package com.reliaquest.server.service;
 
 import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.BatchItem;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeSearch;
+import com.reliaquest.server.model.SalaryStats;
+import com.reliaquest.server.store.MockEmployeeStore;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
+import java.util.stream.Collectors;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MockEmployeeService {
 
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeStore mockEmployeeStore;
+
+    private final Validator validator;
+
+    private final SalaryIndex salaryIndex;
+
+    public MockEmployeeService(Faker faker, MockEmployeeStore mockEmployeeStore, Validator validator) {
+        this.faker = faker;
+        this.mockEmployeeStore = mockEmployeeStore;
+        this.validator = validator;
+        this.salaryIndex = new SalaryIndex(mockEmployeeStore.snapshot().employees());
+        mockEmployeeStore.addListener(salaryIndex);
+    }
+
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployeeStore.snapshot().employees();
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployeeStore.findById(uuid);
+    }
+
+    /*
+     * Ids are taken as sent, so a null or malformed one is reported per item instead of failing the batch.
+     */
+    public List<BatchItem<MockEmployee>> findAllById(@NonNull List<String> ids) {
+        final var uuids = parseIds(ids);
+        final var found = mockEmployeeStore
+                .findAllById(uuids.stream().filter(Objects::nonNull).toList())
+                .iterator();
+        return batchItems(ids, uuids, found);
+    }
+
+    public List<MockEmployee> search(@NonNull MockEmployeeSearch search) {
+        return mockEmployeeStore.search(search);
+    }
+
+    /*
+     * Answered from the salary index; only the top earners are looked up in the store.
+     */
+    public SalaryStats salaryStats(int top) {
+        final var topEarners = salaryIndex.top(top).stream()
+                .map(mockEmployeeStore::findById)
+                .flatMap(Optional::stream)
+                .toList();
+        return new SalaryStats(mockEmployeeStore.size(), salaryIndex.min(), salaryIndex.max(), topEarners);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
-        final var mockEmployee = MockEmployee.from(
-                ServerConfiguration.EMAIL_TEMPLATE.formatted(
-                        faker.twitter().userName().toLowerCase()),
-                input);
-        mockEmployees.add(mockEmployee);
+        final var mockEmployee = newMockEmployee(input);
+        mockEmployeeStore.add(mockEmployee);
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    /*
+     * Invalid inputs are reported per item; the valid ones are added to the store in one mutation.
+     */
+    public List<BatchItem<MockEmployee>> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        final var items = new ArrayList<BatchItem<MockEmployee>>(inputs.size());
+        final var added = new ArrayList<MockEmployee>(inputs.size());
+        for (final var input : inputs) {
+            final var error = validate(input);
+            if (error != null) {
+                items.add(BatchItem.invalid(error));
+            } else {
+                final var mockEmployee = newMockEmployee(input);
+                added.add(mockEmployee);
+                items.add(BatchItem.ok(mockEmployee));
+            }
+        }
+        if (!added.isEmpty()) {
+            mockEmployeeStore.addAll(added);
+            log.debug("Added {} employees.", added.size());
+        }
+        return items;
+    }
+
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
+        final var mockEmployee = mockEmployeeStore.removeByName(input.getName());
         if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
             log.debug("Removed employee: {}", mockEmployee.get());
             return true;
         }
 
         return false;
     }
+
+    public List<BatchItem<MockEmployee>> deleteAllById(@NonNull List<String> ids) {
+        final var uuids = parseIds(ids);
+        final var removed = mockEmployeeStore
+                .removeAllById(uuids.stream().filter(Objects::nonNull).toList())
+                .iterator();
+        final var items = batchItems(ids, uuids, removed);
+        log.debug(
+                "Removed {} employees.",
+                items.stream().filter(item -> item.data() != null).count());
+        return items;
+    }
+
+    private static List<UUID> parseIds(List<String> ids) {
+        final var uuids = new ArrayList<UUID>(ids.size());
+        for (final var id : ids) {
+            UUID uuid = null;
+            if (id != null) {
+                try {
+                    uuid = UUID.fromString(id);
+                } catch (IllegalArgumentException e) {
+                    // reported as invalid by batchItems
+                }
+            }
+            uuids.add(uuid);
+        }
+        return uuids;
+    }
+
+    /*
+     * Zips the ids with the store's results, which cover only the ids that parsed, in order.
+     */
+    private static List<BatchItem<MockEmployee>> batchItems(
+            List<String> ids, List<UUID> uuids, Iterator<Optional<MockEmployee>> results) {
+        final var items = new ArrayList<BatchItem<MockEmployee>>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (uuids.get(i) != null) {
+                items.add(results.next().map(BatchItem::ok).orElseGet(BatchItem::notFound));
+            } else if (ids.get(i) == null) {
+                items.add(BatchItem.invalid("id: must not be null"));
+            } else {
+                items.add(BatchItem.invalid("id: must be a UUID"));
+            }
+        }
+        return items;
+    }
+
+    private MockEmployee newMockEmployee(CreateMockEmployeeInput input) {
+        return MockEmployee.from(
+                ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                        faker.twitter().userName().toLowerCase()),
+                input);
+    }
+
+    private String validate(CreateMockEmployeeInput input) {
+        if (input == null) {
+            return "must not be null";
+        }
+        final var violations = validator.validate(input);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
 }
@@ -0,0 +1,77 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Employee ids ordered by salary, highest first, kept current by applying each create and delete rather than
+ * re-sorting the store. Registered as a store listener, so it is updated under the store's write lock together with
+ * the mutation. Reads never block; employees without a salary are left out.
+ */
+public class SalaryIndex implements MockEmployeeStore.Listener {
+
+    private static final Comparator<Entry> HIGHEST_FIRST = Comparator.comparingInt(Entry::salary)
+            .reversed()
+            .thenComparingLong(Entry::msb)
+            .thenComparingLong(Entry::lsb);
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(HIGHEST_FIRST);
+
+    public SalaryIndex(Iterable<MockEmployee> employees) {
+        employees.forEach(this::added);
+    }
+
+    @Override
+    public void added(MockEmployee employee) {
+        final var entry = entry(employee);
+        if (entry != null) {
+            entries.add(entry);
+        }
+    }
+
+    @Override
+    public void removed(MockEmployee employee) {
+        final var entry = entry(employee);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    public Integer max() {
+        final var highest = entries.iterator();
+        return highest.hasNext() ? highest.next().salary() : null;
+    }
+
+    public Integer min() {
+        final var lowest = entries.descendingIterator();
+        return lowest.hasNext() ? lowest.next().salary() : null;
+    }
+
+    public List<UUID> top(int limit) {
+        final var ids = new ArrayList<UUID>(Math.min(limit, 64));
+        for (final var entry : entries) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(new UUID(entry.msb(), entry.lsb()));
+        }
+        return ids;
+    }
+
+    private static Entry entry(MockEmployee employee) {
+        if (employee.getSalary() == null || employee.getId() == null) {
+            return null;
+        }
+        return new Entry(
+                employee.getSalary(),
+                employee.getId().getMostSignificantBits(),
+                employee.getId().getLeastSignificantBits());
+    }
+
+    private record Entry(int salary, long msb, long lsb) {}
+}
@@ -0,0 +1,454 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeSearch;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Column-oriented store: ids as two {@code long} arrays, salary and age as {@code int} arrays, dictionary-encoded
+ * titles, and names and emails in an {@link OffHeapStringArena}. {@link MockEmployee} objects only exist while a
+ * snapshot is being iterated, typically by the JSON serializer.
+ *
+ * <p>Rows are append-only. A delete stamps the row with the store version it happened at, so a snapshot taken at
+ * version {@code v} keeps seeing rows deleted after {@code v}. Writers are serialized by a lock and publish an
+ * immutable {@link Frontier} after every mutation; readers only ever look at a frontier and never block. Once dead
+ * rows outnumber live ones the columns are rewritten without them; older snapshots keep the previous arrays.
+ *
+ * <p>Searches and deletes by name scan a frontier in parallel shards, testing the salary and age columns before
+ * decoding a name.
+ */
+@Slf4j
+public class ColumnarMockEmployeeStore implements MockEmployeeStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COMPACTION_MIN_ROWS = 4096;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private Columns columns;
+
+    private volatile Frontier frontier;
+
+    public ColumnarMockEmployeeStore(@NonNull Collection<MockEmployee> employees) {
+        columns = new Columns(Math.max(INITIAL_CAPACITY, employees.size()));
+        employees.forEach(columns::append);
+        frontier = columns.publish(0);
+        log.info(
+                "Columnar store holds {} employees in {} KiB of columns and {} KiB off-heap.",
+                employees.size(),
+                columns.onHeapBytes() / 1024,
+                columns.arena.offHeapBytes() / 1024);
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        final var current = frontier;
+        return new Snapshot(current.version(), new SnapshotList(current));
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        final var current = frontier;
+        final var row = current.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return row < 0 ? Optional.empty() : Optional.of(current.materialize(row));
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> findAllById(@NonNull List<UUID> ids) {
+        final var current = frontier;
+        return ids.stream()
+                .map(id -> {
+                    final var row =
+                            id == null ? -1 : current.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                    return row < 0 ? Optional.<MockEmployee>empty() : Optional.of(current.materialize(row));
+                })
+                .toList();
+    }
+
+    @Override
+    public List<MockEmployee> search(@NonNull MockEmployeeSearch search) {
+        final var current = frontier;
+        return Arrays.stream(RowScan.matching(
+                        current.count(),
+                        row -> current.isLive(row)
+                                && search.matchesSalary(current.salary()[row])
+                                && search.matchesAge(current.age()[row])
+                                && search.matchesName(OffHeapStringArena.get(current.chunks(), current.name()[row]))))
+                .mapToObj(current::materialize)
+                .toList();
+    }
+
+    @Override
+    public MockEmployee add(@NonNull MockEmployee employee) {
+        writeLock.lock();
+        try {
+            columns.append(employee);
+            frontier = columns.publish(frontier.version() + 1);
+            listeners.forEach(listener -> listener.added(employee));
+            return employee;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<MockEmployee> addAll(@NonNull List<MockEmployee> employees) {
+        writeLock.lock();
+        try {
+            employees.forEach(columns::append);
+            frontier = columns.publish(frontier.version() + 1);
+            listeners.forEach(listener -> employees.forEach(listener::added));
+            return employees;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> removeByName(@NonNull String name) {
+        writeLock.lock();
+        try {
+            final var current = frontier;
+            final var row = RowScan.first(
+                    current.count(),
+                    position -> current.isLive(position)
+                            && name.equalsIgnoreCase(
+                                    OffHeapStringArena.get(current.chunks(), current.name()[position])));
+            if (row < 0) {
+                return Optional.empty();
+            }
+            final var removed = current.materialize(row);
+            columns.delete(row, current.version() + 1);
+            publishDeletes(current);
+            listeners.forEach(listener -> listener.removed(removed));
+            return Optional.of(removed);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> removeById(@NonNull UUID id) {
+        return removeAllById(List.of(id)).get(0);
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> removeAllById(@NonNull List<UUID> ids) {
+        writeLock.lock();
+        try {
+            final var current = frontier;
+            final var removed = new ArrayList<Optional<MockEmployee>>(ids.size());
+            for (final var id : ids) {
+                final var row =
+                        id == null ? -1 : current.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                if (row < 0 || !columns.isLive(row)) {
+                    removed.add(Optional.empty());
+                } else {
+                    removed.add(Optional.of(current.materialize(row)));
+                    columns.delete(row, current.version() + 1);
+                }
+            }
+            if (removed.stream().anyMatch(Optional::isPresent)) {
+                publishDeletes(current);
+                listeners.forEach(
+                        listener -> removed.stream().flatMap(Optional::stream).forEach(listener::removed));
+            }
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return frontier.live();
+    }
+
+    @Override
+    public long version() {
+        return frontier.version();
+    }
+
+    @Override
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    /*
+     * Publishes rows deleted since the current frontier as one new version, compacting first if dead rows dominate.
+     */
+    private void publishDeletes(Frontier current) {
+        if (columns.count > COMPACTION_MIN_ROWS && columns.count > 2 * columns.live) {
+            columns = columns.compact();
+        }
+        frontier = columns.publish(current.version() + 1);
+    }
+
+    /*
+     * Mutable column arrays, only touched while holding the write lock.
+     */
+    private static final class Columns {
+
+        private final OffHeapStringArena arena = new OffHeapStringArena();
+        private final Map<String, Integer> titleCodes = new HashMap<>();
+        private String[] titles = new String[64];
+
+        private long[] idMsb;
+        private long[] idLsb;
+        private int[] salary;
+        private int[] age;
+        private int[] title;
+        private long[] name;
+        private long[] email;
+        private long[] deletedAt;
+        private int[] index;
+        private int count;
+        private int live;
+
+        private Columns(int capacity) {
+            idMsb = new long[capacity];
+            idLsb = new long[capacity];
+            salary = new int[capacity];
+            age = new int[capacity];
+            title = new int[capacity];
+            name = new long[capacity];
+            email = new long[capacity];
+            deletedAt = new long[capacity];
+            index = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        }
+
+        private void append(MockEmployee employee) {
+            if (count == idMsb.length) {
+                grow();
+            }
+            final var row = count;
+            idMsb[row] = employee.getId().getMostSignificantBits();
+            idLsb[row] = employee.getId().getLeastSignificantBits();
+            salary[row] = employee.getSalary();
+            age[row] = employee.getAge();
+            title[row] = encodeTitle(employee.getTitle());
+            name[row] = arena.put(employee.getName());
+            email[row] = arena.put(employee.getEmail());
+            deletedAt[row] = 0;
+            var slot = slot(idMsb[row], idLsb[row], index.length - 1);
+            while (index[slot] != 0) {
+                slot = (slot + 1) & (index.length - 1);
+            }
+            index[slot] = row + 1;
+            count++;
+            live++;
+        }
+
+        private boolean isLive(int row) {
+            return deletedAt[row] == 0;
+        }
+
+        private void delete(int row, long version) {
+            deletedAt[row] = version;
+            live--;
+        }
+
+        private Columns compact() {
+            final var current = publish(0);
+            final var compacted = new Columns(Math.max(INITIAL_CAPACITY, live * 2));
+            for (int row = 0; row < count; row++) {
+                if (deletedAt[row] == 0) {
+                    compacted.append(current.materialize(row));
+                }
+            }
+            log.debug("Compacted columnar store from {} to {} rows.", count, compacted.count);
+            return compacted;
+        }
+
+        private Frontier publish(long version) {
+            return new Frontier(
+                    idMsb,
+                    idLsb,
+                    salary,
+                    age,
+                    title,
+                    titles,
+                    name,
+                    email,
+                    deletedAt,
+                    arena.chunks(),
+                    index,
+                    count,
+                    live,
+                    version);
+        }
+
+        private int encodeTitle(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return titleCodes.computeIfAbsent(value, ignored -> {
+                final var code = titleCodes.size();
+                if (code == titles.length) {
+                    titles = Arrays.copyOf(titles, code * 2);
+                }
+                titles[code] = value;
+                return code;
+            });
+        }
+
+        /*
+         * Reallocates every column; the previous arrays stay valid for frontiers that still reference them.
+         */
+        private void grow() {
+            final var capacity = idMsb.length * 2;
+            idMsb = Arrays.copyOf(idMsb, capacity);
+            idLsb = Arrays.copyOf(idLsb, capacity);
+            salary = Arrays.copyOf(salary, capacity);
+            age = Arrays.copyOf(age, capacity);
+            title = Arrays.copyOf(title, capacity);
+            name = Arrays.copyOf(name, capacity);
+            email = Arrays.copyOf(email, capacity);
+            deletedAt = Arrays.copyOf(deletedAt, capacity);
+            index = new int[index.length * 2];
+            for (int row = 0; row < count; row++) {
+                var slot = slot(idMsb[row], idLsb[row], index.length - 1);
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & (index.length - 1);
+                }
+                index[slot] = row + 1;
+            }
+        }
+
+        private long onHeapBytes() {
+            return (long) idMsb.length * (8 * 5 + 4 * 3) + index.length * 4L;
+        }
+    }
+
+    /*
+     * Immutable view of the columns as of one version. Rows at or beyond count may be written concurrently and are
+     * never read through this frontier.
+     */
+    private record Frontier(
+            long[] idMsb,
+            long[] idLsb,
+            int[] salary,
+            int[] age,
+            int[] title,
+            String[] titles,
+            long[] name,
+            long[] email,
+            long[] deletedAt,
+            ByteBuffer[] chunks,
+            int[] index,
+            int count,
+            int live,
+            long version) {
+
+        private boolean isLive(int row) {
+            final var deleted = deletedAt[row];
+            return deleted == 0 || deleted > version;
+        }
+
+        private int find(long msb, long lsb) {
+            var slot = slot(msb, lsb, index.length - 1);
+            for (var entry = index[slot]; entry != 0; entry = index[slot]) {
+                final var row = entry - 1;
+                if (row < count && idMsb[row] == msb && idLsb[row] == lsb && isLive(row)) {
+                    return row;
+                }
+                slot = (slot + 1) & (index.length - 1);
+            }
+            return -1;
+        }
+
+        private MockEmployee materialize(int row) {
+            return new MockEmployee(
+                    new UUID(idMsb[row], idLsb[row]),
+                    OffHeapStringArena.get(chunks, name[row]),
+                    salary[row],
+                    age[row],
+                    title[row] < 0 ? null : titles[title[row]],
+                    OffHeapStringArena.get(chunks, email[row]));
+        }
+    }
+
+    /*
+     * Deliberately not RandomAccess: serializers iterate it, materializing one employee at a time.
+     */
+    private static final class SnapshotList extends AbstractList<MockEmployee> {
+
+        private final Frontier frontier;
+
+        private SnapshotList(Frontier frontier) {
+            this.frontier = frontier;
+        }
+
+        @Override
+        public MockEmployee get(int index) {
+            if (index < 0 || index >= frontier.live()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            if (frontier.live() == frontier.count()) {
+                return frontier.materialize(index);
+            }
+            final var iterator = iterator();
+            for (int i = 0; i < index; i++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public int size() {
+            return frontier.live();
+        }
+
+        @Override
+        public Iterator<MockEmployee> iterator() {
+            return new Iterator<>() {
+                private int row = advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return row < frontier.count();
+                }
+
+                @Override
+                public MockEmployee next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final var employee = frontier.materialize(row);
+                    row = advance(row + 1);
+                    return employee;
+                }
+
+                private int advance(int from) {
+                    while (from < frontier.count() && !frontier.isLive(from)) {
+                        from++;
+                    }
+                    return from;
+                }
+            };
+        }
+    }
+
+    private static int slot(long msb, long lsb, int mask) {
+        var hash = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        hash ^= hash >>> 29;
+        return (int) hash & mask;
+    }
+}
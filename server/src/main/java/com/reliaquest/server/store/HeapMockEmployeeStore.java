@@ -0,0 +1,162 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeSearch;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.NonNull;
+
+/**
+ * Copy-on-write array of {@link MockEmployee} objects. Reads never block and snapshots are free; each write copies the
+ * array, which suits the default dataset sizes. Searches and deletes by name scan the array in parallel shards.
+ */
+public class HeapMockEmployeeStore implements MockEmployeeStore {
+
+    private final Map<UUID, MockEmployee> byId = new ConcurrentHashMap<>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile State state;
+
+    public HeapMockEmployeeStore(@NonNull Collection<MockEmployee> employees) {
+        this.state = new State(employees.toArray(MockEmployee[]::new), 0);
+        employees.stream().filter(employee -> Objects.nonNull(employee.getId())).forEach(this::index);
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        final var current = state;
+        return new Snapshot(current.version(), Collections.unmodifiableList(Arrays.asList(current.employees())));
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    @Override
+    public List<MockEmployee> search(@NonNull MockEmployeeSearch search) {
+        final var employees = state.employees();
+        return Arrays.stream(RowScan.matching(employees.length, row -> search.matches(employees[row])))
+                .mapToObj(row -> employees[row])
+                .toList();
+    }
+
+    @Override
+    public synchronized MockEmployee add(@NonNull MockEmployee employee) {
+        final var current = state;
+        final var employees = Arrays.copyOf(current.employees(), current.employees().length + 1);
+        employees[employees.length - 1] = employee;
+        if (employee.getId() != null) {
+            index(employee);
+        }
+        state = new State(employees, current.version() + 1);
+        listeners.forEach(listener -> listener.added(employee));
+        return employee;
+    }
+
+    @Override
+    public synchronized List<MockEmployee> addAll(@NonNull List<MockEmployee> added) {
+        final var current = state;
+        final var employees = Arrays.copyOf(current.employees(), current.employees().length + added.size());
+        for (int i = 0; i < added.size(); i++) {
+            employees[current.employees().length + i] = added.get(i);
+            if (added.get(i).getId() != null) {
+                index(added.get(i));
+            }
+        }
+        state = new State(employees, current.version() + 1);
+        listeners.forEach(listener -> added.forEach(listener::added));
+        return added;
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> removeByName(@NonNull String name) {
+        final var employees = state.employees();
+        final var row = RowScan.first(
+                employees.length,
+                position -> employees[position].getName() != null
+                        && employees[position].getName().equalsIgnoreCase(name));
+        return row < 0 ? Optional.empty() : Optional.of(remove(row));
+    }
+
+    @Override
+    public synchronized Optional<MockEmployee> removeById(@NonNull UUID id) {
+        final var employee = byId.get(id);
+        if (employee == null) {
+            return Optional.empty();
+        }
+        final var employees = state.employees();
+        return Optional.of(remove(RowScan.first(employees.length, position -> employees[position] == employee)));
+    }
+
+    @Override
+    public synchronized List<Optional<MockEmployee>> removeAllById(@NonNull List<UUID> ids) {
+        final var current = state;
+        final var removed = new HashMap<UUID, MockEmployee>();
+        for (final var id : ids) {
+            final var employee = id == null ? null : byId.get(id);
+            if (employee != null) {
+                removed.put(id, employee);
+            }
+        }
+        if (removed.isEmpty()) {
+            return ids.stream().map(id -> Optional.<MockEmployee>empty()).toList();
+        }
+        final var remaining = Arrays.stream(current.employees())
+                .filter(employee -> employee.getId() == null || removed.get(employee.getId()) != employee)
+                .toArray(MockEmployee[]::new);
+        removed.forEach(byId::remove);
+
+        state = new State(remaining, current.version() + 1);
+        listeners.forEach(listener -> removed.values().forEach(listener::removed));
+        return ids.stream()
+                .map(id -> Optional.ofNullable(id == null ? null : removed.remove(id)))
+                .toList();
+    }
+
+    @Override
+    public int size() {
+        return state.employees().length;
+    }
+
+    @Override
+    public long version() {
+        return state.version();
+    }
+
+    @Override
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    private MockEmployee remove(int position) {
+        final var current = state;
+        final var employees = current.employees();
+        final var removed = employees[position];
+        final var remaining = new MockEmployee[employees.length - 1];
+        System.arraycopy(employees, 0, remaining, 0, position);
+        System.arraycopy(employees, position + 1, remaining, position, remaining.length - position);
+        if (removed.getId() != null) {
+            byId.remove(removed.getId(), removed);
+        }
+        state = new State(remaining, current.version() + 1);
+        listeners.forEach(listener -> listener.removed(removed));
+        return removed;
+    }
+
+    private void index(MockEmployee employee) {
+        byId.putIfAbsent(employee.getId(), employee);
+    }
+
+    private record State(MockEmployee[] employees, long version) {}
+}
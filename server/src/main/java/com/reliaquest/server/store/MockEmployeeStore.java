@@ -0,0 +1,67 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeSearch;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Backing store for mock employees. Every mutation bumps {@link #version()}; snapshots are consistent point-in-time
+ * views that later mutations never change.
+ */
+public interface MockEmployeeStore {
+
+    Snapshot snapshot();
+
+    Optional<MockEmployee> findById(UUID id);
+
+    /*
+     * Batch operations answer each element in input order, and apply as one mutation.
+     */
+    default List<Optional<MockEmployee>> findAllById(List<UUID> ids) {
+        return ids.stream().map(this::findById).toList();
+    }
+
+    /*
+     * Every employee the search matches, in snapshot order.
+     */
+    List<MockEmployee> search(MockEmployeeSearch search);
+
+    MockEmployee add(MockEmployee employee);
+
+    List<MockEmployee> addAll(List<MockEmployee> employees);
+
+    /*
+     * Removes the first employee whose name matches, ignoring case.
+     */
+    Optional<MockEmployee> removeByName(String name);
+
+    Optional<MockEmployee> removeById(UUID id);
+
+    List<Optional<MockEmployee>> removeAllById(List<UUID> ids);
+
+    int size();
+
+    long version();
+
+    /*
+     * Listeners run under the store's write lock, once for every employee a mutation adds or removes, so they see
+     * mutations in store order and never a removal before the add it undoes.
+     */
+    void addListener(Listener listener);
+
+    interface Listener {
+
+        void added(MockEmployee employee);
+
+        void removed(MockEmployee employee);
+    }
+
+    record Snapshot(long version, List<MockEmployee> employees) {}
+
+    enum Type {
+        HEAP,
+        COLUMNAR
+    }
+}
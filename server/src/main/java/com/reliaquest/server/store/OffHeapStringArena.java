@@ -0,0 +1,68 @@
+package com.reliaquest.server.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only UTF-8 string storage in direct buffers. A string is addressed by a packed {@code long} reference of
+ * {@code chunk << 36 | offset << 16 | length}; {@link #NULL} stands for a null string and {@link #EMPTY} for an empty
+ * one, neither of which takes space in a chunk. Chunks are never modified below their write position, so readers
+ * holding an older {@link #chunks()} array can decode concurrently with appends.
+ */
+final class OffHeapStringArena {
+
+    static final long NULL = -1L;
+    static final long EMPTY = 0L;
+
+    static final int CHUNK_SIZE = 1 << 20;
+    private static final int MAX_LENGTH = 0xFFFF;
+
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int chunkCount;
+    private int position = CHUNK_SIZE;
+
+    long put(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("String too long for columnar store: " + bytes.length + " bytes.");
+        }
+        if (bytes.length == 0) {
+            return EMPTY;
+        }
+        if (position + bytes.length > CHUNK_SIZE) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+            chunks[chunkCount++] = ByteBuffer.allocateDirect(CHUNK_SIZE);
+            position = 0;
+        }
+        chunks[chunkCount - 1].put(position, bytes);
+        final var ref = ((long) (chunkCount - 1) << 36) | ((long) position << 16) | bytes.length;
+        position += bytes.length;
+        return ref;
+    }
+
+    ByteBuffer[] chunks() {
+        return chunks;
+    }
+
+    long offHeapBytes() {
+        return (long) chunkCount * CHUNK_SIZE;
+    }
+
+    static String get(ByteBuffer[] chunks, long ref) {
+        if (ref == NULL) {
+            return null;
+        }
+        if (ref == EMPTY) {
+            return "";
+        }
+        final var bytes = new byte[(int) (ref & 0xFFFF)];
+        chunks[(int) (ref >>> 36)].get((int) ((ref >>> 16) & 0xFFFFF), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
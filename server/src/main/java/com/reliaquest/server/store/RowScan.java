@@ -0,0 +1,75 @@
+package com.reliaquest.server.store;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Scans rows {@code [0, count)} in fixed-size shards on the fork-join common pool. Shard results are merged in row
+ * order, so a scan answers exactly what a sequential one would regardless of how many threads took part. Predicates
+ * run concurrently and must only read state that no writer changes during the scan.
+ */
+final class RowScan {
+
+    static final int SHARD_SIZE = 16_384;
+
+    private RowScan() {}
+
+    /*
+     * Every matching row, in ascending order.
+     */
+    static int[] matching(int count, IntPredicate predicate) {
+        final var shards = IntStream.range(0, shards(count))
+                .parallel()
+                .mapToObj(shard -> matching(count, shard, predicate))
+                .toArray(int[][]::new);
+        final var rows = new int[Arrays.stream(shards).mapToInt(shard -> shard.length).sum()];
+        var position = 0;
+        for (final var shard : shards) {
+            System.arraycopy(shard, 0, rows, position, shard.length);
+            position += shard.length;
+        }
+        return rows;
+    }
+
+    /*
+     * The lowest matching row, or -1. Shards after the first one with a match are abandoned.
+     */
+    static int first(int count, IntPredicate predicate) {
+        return IntStream.range(0, shards(count))
+                .parallel()
+                .map(shard -> first(count, shard, predicate))
+                .filter(row -> row >= 0)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    private static int shards(int count) {
+        return (count + SHARD_SIZE - 1) / SHARD_SIZE;
+    }
+
+    private static int[] matching(int count, int shard, IntPredicate predicate) {
+        final var end = Math.min(count, (shard + 1) * SHARD_SIZE);
+        var rows = new int[16];
+        var matched = 0;
+        for (int row = shard * SHARD_SIZE; row < end; row++) {
+            if (predicate.test(row)) {
+                if (matched == rows.length) {
+                    rows = Arrays.copyOf(rows, Math.min(SHARD_SIZE, matched * 2));
+                }
+                rows[matched++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, matched);
+    }
+
+    private static int first(int count, int shard, IntPredicate predicate) {
+        final var end = Math.min(count, (shard + 1) * SHARD_SIZE);
+        for (int row = shard * SHARD_SIZE; row < end; row++) {
+            if (predicate.test(row)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,306 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeField;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.store.MockEmployeeStore;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized full-list responses, keyed by store version. Each media type keeps the bytes of the latest version it
+ * served, plus a gzip variant built on first use when server compression would have applied to it; any mutation bumps
+ * the store version, so the next read rebuilds. Pre-compressed bodies carry {@code Content-Encoding}, which makes the
+ * container skip compressing them again.
+ *
+ * <p>Stores with more than {@code mock.employees.cache-max} employees are not buffered at all: each response iterates
+ * a snapshot and writes the envelope and employees straight to the response, gzipped on the fly, so the memory a
+ * request takes does not grow with the dataset.
+ *
+ * <p>Projections, which name only some of the {@link MockEmployeeField}s, are always streamed this way and write just
+ * those properties of each employee.
+ */
+@Component
+public class EmployeeListResponseCache {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final int STREAM_BUFFER_BYTES = 8 * 1024;
+
+    private final MockEmployeeStore mockEmployeeStore;
+    private final Format[] formats;
+    private final boolean compression;
+    private final long compressionMinBytes;
+    private final int cacheMaxEmployees;
+
+    public EmployeeListResponseCache(
+            MockEmployeeStore mockEmployeeStore,
+            ObjectMapper objectMapper,
+            ServerProperties serverProperties,
+            @Value("${mock.employees.cache-max:10000}") int cacheMaxEmployees) {
+        this.mockEmployeeStore = mockEmployeeStore;
+        this.cacheMaxEmployees = cacheMaxEmployees;
+        final var compressibleTypes = Arrays.stream(
+                        serverProperties.getCompression().getMimeTypes())
+                .map(MediaType::parseMediaType)
+                .toList();
+        this.formats = new Format[] {
+            new Format(MediaType.APPLICATION_JSON, objectMapper, compressibleTypes),
+            new Format(APPLICATION_SMILE, Jackson2ObjectMapperBuilder.smile().build(), compressibleTypes)
+        };
+        this.compression = serverProperties.getCompression().getEnabled();
+        this.compressionMinBytes =
+                serverProperties.getCompression().getMinResponseSize().toBytes();
+    }
+
+    /*
+     * Picks the format the Accept header prefers by quality, ties going to the earlier entry; JSON when nothing matches.
+     * Null fields, or all of them, select the full employees.
+     */
+    public Body get(String accept, String acceptEncoding, Set<MockEmployeeField> fields) {
+        final var format = negotiate(accept);
+        final var acceptsGzip = compression
+                && format.compressible
+                && acceptEncoding != null
+                && acceptEncoding.toLowerCase().contains("gzip");
+        if (fields != null && fields.size() < MockEmployeeField.values().length) {
+            return new Streamed(format.mediaType, acceptsGzip, mockEmployeeStore.snapshot(), format.writer, fields);
+        }
+        if (mockEmployeeStore.size() > cacheMaxEmployees) {
+            format.entry = null;
+            return new Streamed(format.mediaType, acceptsGzip, mockEmployeeStore.snapshot(), format.writer, null);
+        }
+        final var entry = format.current(mockEmployeeStore);
+        return acceptsGzip && entry.identity().length >= compressionMinBytes
+                ? new Cached(format.mediaType, true, entry.gzip())
+                : new Cached(format.mediaType, false, entry.identity());
+    }
+
+    private Format negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return formats[0];
+        }
+        Format best = formats[0];
+        var bestQuality = -1d;
+        try {
+            for (final var type : MediaType.parseMediaTypes(accept)) {
+                for (final var format : formats) {
+                    if (type.isCompatibleWith(format.mediaType) && type.getQualityValue() > bestQuality) {
+                        best = format;
+                        bestQuality = type.getQualityValue();
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return formats[0];
+        }
+        return best;
+    }
+
+    public interface Body {
+
+        MediaType mediaType();
+
+        boolean gzip();
+
+        /*
+         * -1 when the body is streamed.
+         */
+        long contentLength();
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private record Cached(MediaType mediaType, boolean gzip, byte[] bytes) implements Body {
+
+        @Override
+        public long contentLength() {
+            return bytes.length;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(bytes);
+        }
+    }
+
+    /*
+     * Writes the same envelope Response.handledWith would, one employee at a time, or only the given fields of each.
+     * Compressed at the fastest level, since every request pays for it.
+     */
+    private record Streamed(
+            MediaType mediaType,
+            boolean gzip,
+            MockEmployeeStore.Snapshot snapshot,
+            ObjectWriter writer,
+            Set<MockEmployeeField> fields)
+            implements Body {
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            final var target = gzip
+                    ? new GZIPOutputStream(out, STREAM_BUFFER_BYTES) {
+                        {
+                            def.setLevel(Deflater.BEST_SPEED);
+                        }
+                    }
+                    : out;
+            try (final var generator = writer.createGenerator(target)) {
+                generator.writeStartObject();
+                generator.writeFieldName("data");
+                generator.writeStartArray();
+                for (final var employee : snapshot.employees()) {
+                    if (fields == null) {
+                        writer.writeValue(generator, employee);
+                    } else {
+                        writeFields(generator, employee);
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeStringField("status", Response.Status.HANDLED.getValue());
+                generator.writeEndObject();
+            }
+        }
+
+        private void writeFields(JsonGenerator generator, MockEmployee employee) throws IOException {
+            generator.writeStartObject();
+            for (final var field : fields) {
+                generator.writeFieldName(field.getProperty());
+                final var value = field.get(employee);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof UUID id) {
+                    writeUuid(generator, id);
+                } else {
+                    generator.writeString((String) value);
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        /*
+         * As Jackson writes a UUID: 16 raw bytes where the format has binary values, such as Smile, text otherwise.
+         */
+        private static void writeUuid(JsonGenerator generator, UUID id) throws IOException {
+            if (!generator.canWriteBinaryNatively()) {
+                generator.writeString(id.toString());
+                return;
+            }
+            final var bytes = ByteBuffer.allocate(16)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .array();
+            generator.writeBinary(bytes);
+        }
+    }
+
+    private static final class Format {
+
+        private final MediaType mediaType;
+        private final ObjectMapper mapper;
+        private final ObjectWriter writer;
+        private final boolean compressible;
+
+        private volatile Entry entry;
+
+        private Format(MediaType mediaType, ObjectMapper mapper, List<MediaType> compressibleTypes) {
+            this.mediaType = mediaType;
+            this.mapper = mapper;
+            this.writer = mapper.writerFor(MockEmployee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.compressible = compressibleTypes.stream().anyMatch(type -> type.isCompatibleWith(mediaType));
+        }
+
+        private Entry current(MockEmployeeStore store) {
+            final var cached = entry;
+            if (cached != null && cached.version == store.version()) {
+                return cached;
+            }
+            synchronized (this) {
+                final var snapshot = store.snapshot();
+                if (entry == null || entry.version != snapshot.version()) {
+                    try {
+                        entry = new Entry(
+                                snapshot.version(),
+                                mapper.writeValueAsBytes(Response.handledWith(snapshot.employees())));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return entry;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final long version;
+        private final byte[] identity;
+
+        private volatile byte[] gzip;
+
+        private Entry(long version, @NonNull byte[] identity) {
+            this.version = version;
+            this.identity = identity;
+        }
+
+        private byte[] identity() {
+            return identity;
+        }
+
+        private byte[] gzip() {
+            var compressed = gzip;
+            if (compressed == null) {
+                synchronized (this) {
+                    if (gzip == null) {
+                        gzip = compress(identity);
+                    }
+                    compressed = gzip;
+                }
+            }
+            return compressed;
+        }
+
+        /*
+         * Compressed once per version, so the best compression level is affordable.
+         */
+        private static byte[] compress(byte[] bytes) {
+            final var out = new ByteArrayOutputStream(bytes.length / 4);
+            try (final var gzip = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.Response;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Delays, fails or slowly streams requests according to {@link FaultInjectionProperties}.
+ *
+ * <p>Every profile counts its requests, and the n-th request of a profile always draws from a random generator seeded
+ * with the seed, the profile and n. Its fate therefore depends only on its position in that profile's sequence, never
+ * on how concurrent requests interleave.
+ */
+@Slf4j
+public class FaultInjectionFilter extends OncePerRequestFilter {
+
+    private static final long BODY_PACING_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final long seed;
+    private final List<Rule> rules;
+    private final ObjectMapper objectMapper;
+
+    public FaultInjectionFilter(
+            long seed, @NonNull List<FaultInjectionProperties.Profile> profiles, @NonNull ObjectMapper objectMapper) {
+        this.seed = seed;
+        this.rules = IntStream.range(0, profiles.size())
+                .mapToObj(index -> new Rule(
+                        index,
+                        profiles.get(index),
+                        PathPatternParser.defaultInstance.parse(
+                                profiles.get(index).path()),
+                        new AtomicLong()))
+                .toList();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final var rule = match(request);
+        if (rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final var profile = rule.profile();
+        final var random = new SplittableRandom(
+                seed + ((long) rule.index() << 40) + rule.requests().getAndIncrement());
+        final var fail = random.nextDouble() < profile.errorRate();
+        final var delayNanos = delayNanos(profile, random);
+        if (delayNanos > 0) {
+            sleep(delayNanos);
+        }
+        log.debug(
+                "Injected {} ms delay{} into {} {}.",
+                TimeUnit.NANOSECONDS.toMillis(delayNanos),
+                fail ? " and status " + profile.errorStatus() : "",
+                request.getMethod(),
+                request.getRequestURI());
+        if (fail) {
+            response.setStatus(profile.errorStatus());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Response.error("Injected fault."));
+            return;
+        }
+
+        chain.doFilter(
+                request,
+                profile.bodyRate() == null
+                        ? response
+                        : new ThrottledResponse(response, profile.bodyRate().toBytes()));
+    }
+
+    private Rule match(HttpServletRequest request) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        final var path = PathContainer.parsePath(request.getRequestURI());
+        for (final var rule : rules) {
+            final var method = rule.profile().method();
+            if ((method == null || method.equalsIgnoreCase(request.getMethod()))
+                    && rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static long delayNanos(FaultInjectionProperties.Profile profile, SplittableRandom random) {
+        final var gaussian = random.nextGaussian();
+        final var delay = profile.delay().toNanos();
+        final var sampled =
+                switch (profile.latency()) {
+                    case NONE -> 0;
+                    case FIXED -> delay;
+                    case NORMAL -> (long) (delay + profile.jitter().toNanos() * gaussian);
+                    case LOGNORMAL -> (long) (delay * Math.exp(profile.sigma() * gaussian));
+                };
+        final var bounded = profile.maxDelay() == null
+                ? sampled
+                : Math.min(sampled, profile.maxDelay().toNanos());
+        return Math.max(0, bounded);
+    }
+
+    private static void sleep(long nanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while injecting a fault.");
+        }
+    }
+
+    private record Rule(
+            int index, FaultInjectionProperties.Profile profile, PathPattern pattern, AtomicLong requests) {}
+
+    private static final class ThrottledResponse extends HttpServletResponseWrapper {
+
+        private final long bytesPerSecond;
+
+        private ThrottledOutputStream outputStream;
+        private PrintWriter writer;
+
+        private ThrottledResponse(HttpServletResponse response, long bytesPerSecond) {
+            super(response);
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new ThrottledOutputStream(super.getOutputStream(), bytesPerSecond);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+    }
+
+    /*
+     * Writes in chunks worth BODY_PACING_NANOS at the configured rate, flushing each one to the client on schedule.
+     */
+    private static final class ThrottledOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream out;
+        private final long bytesPerSecond;
+        private final int chunkBytes;
+        private final long started = System.nanoTime();
+
+        private long written;
+
+        private ThrottledOutputStream(ServletOutputStream out, long bytesPerSecond) {
+            if (bytesPerSecond < 1) {
+                throw new IllegalArgumentException("Body rate must be positive.");
+            }
+            this.out = out;
+            this.bytesPerSecond = bytesPerSecond;
+            this.chunkBytes =
+                    (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytesPerSecond * BODY_PACING_NANOS / 1_000_000_000));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                final var chunk = Math.min(length, chunkBytes);
+                final var due = started + (long) ((written + chunk) * 1e9 / bytesPerSecond);
+                final var wait = due - System.nanoTime();
+                if (wait > 0) {
+                    sleep(wait);
+                }
+                out.write(bytes, offset, chunk);
+                out.flush();
+                offset += chunk;
+                length -= chunk;
+                written += chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return out.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            out.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Fault injection profiles bound from {@code mock.faults}. A request gets the first profile whose method and path
+ * pattern match it; requests matching none are untouched.
+ */
+@ConfigurationProperties("mock.faults")
+public record FaultInjectionProperties(Long seed, @DefaultValue List<Profile> profiles) {
+
+    /**
+     * @param method HTTP method to match, any when unset
+     * @param path Spring path pattern to match
+     * @param latency distribution of the delay added before the request is handled
+     * @param delay {@code FIXED} delay, {@code NORMAL} mean or {@code LOGNORMAL} median
+     * @param jitter {@code NORMAL} standard deviation
+     * @param sigma {@code LOGNORMAL} shape; larger values give a longer tail
+     * @param maxDelay upper bound on any sampled delay, unbounded when unset
+     * @param errorRate fraction of requests answered with {@code errorStatus} instead of being handled
+     * @param bodyRate bytes of response body written per second, unthrottled when unset
+     */
+    public record Profile(
+            String method,
+            @DefaultValue("/**") String path,
+            @DefaultValue("none") Latency latency,
+            @DefaultValue("0ms") Duration delay,
+            @DefaultValue("0ms") Duration jitter,
+            @DefaultValue("1.0") double sigma,
+            Duration maxDelay,
+            @DefaultValue("0") double errorRate,
+            @DefaultValue("503") int errorStatus,
+            DataSize bodyRate) {}
+
+    public enum Latency {
+        NONE,
+        FIXED,
+        NORMAL,
+        LOGNORMAL
+    }
+}
@@ -0,0 +1,119 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Sliding-window counter per client key: the previous fixed window's count is weighted by how much of it still
+ * overlaps the sliding window. Each client's state is an immutable {@link Window} replaced atomically through
+ * {@link ConcurrentMap#compute}, which only locks that key's hash bin, so clients never contend with each other.
+ *
+ * <p>With a {@code tick}, time is logical: every request from a client advances that client's clock by exactly one
+ * tick. Decisions then depend only on each client's own request sequence, never on wall-clock time or on how requests
+ * from different clients interleave.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int SWEEP_INTERVAL = 4096;
+
+    @Getter
+    private final int limit;
+
+    @Getter
+    private final Duration window;
+
+    private final long windowNanos;
+    private final long tickNanos;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicInteger requestsSinceSweep = new AtomicInteger();
+
+    public SlidingWindowRateLimiter(int limit, @NonNull Duration window, Duration tick) {
+        if (limit < 1 || window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("Rate limit and window must be positive.");
+        }
+        this.limit = limit;
+        this.window = window;
+        this.windowNanos = window.toNanos();
+        this.tickNanos = tick == null ? 0 : tick.toNanos();
+    }
+
+    public boolean isDeterministic() {
+        return tickNanos > 0;
+    }
+
+    public Decision acquire(@NonNull String client) {
+        final var wallClock = System.nanoTime();
+        final var updated = windows.compute(client, (key, current) -> {
+            final var now = tickNanos > 0 ? (current == null ? 0 : current.now() + tickNanos) : wallClock;
+            return (current == null ? new Window(now, 0, 0, now, false) : current.slide(now, windowNanos))
+                    .admit(limit, windowNanos);
+        });
+        if (requestsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL) {
+            requestsSinceSweep.set(0);
+            sweep(wallClock);
+        }
+        return decide(updated);
+    }
+
+    private Decision decide(Window current) {
+        final var elapsed = current.now() - current.start();
+        final var estimate = current.estimate(elapsed, windowNanos);
+        final var reset = windowNanos - elapsed;
+        if (current.admitted()) {
+            return new Decision(true, Math.max(0, (int) Math.floor(limit - estimate)), reset, 0);
+        }
+
+        final long retryAfter;
+        if (current.current() >= limit) {
+            retryAfter = reset + (long) Math.ceil(windowNanos * (1 - (limit - 1) / (double) current.current()));
+        } else {
+            retryAfter = (long) Math.ceil(windowNanos
+                    - elapsed
+                    - windowNanos * (limit - 1 - current.current()) / (double) current.previous());
+        }
+        return new Decision(false, 0, reset, Math.max(1, retryAfter));
+    }
+
+    /*
+     * Drops clients idle for two full windows; their state would have slid back to empty anyway.
+     */
+    private void sweep(long wallClock) {
+        if (tickNanos == 0) {
+            windows.values().removeIf(current -> wallClock - current.start() >= 2 * windowNanos);
+        }
+    }
+
+    private record Window(long start, int previous, int current, long now, boolean admitted) {
+
+        private Window slide(long now, long windowNanos) {
+            final var windowsElapsed = (now - start) / windowNanos;
+            if (windowsElapsed == 0) {
+                return new Window(start, previous, current, now, false);
+            }
+            if (windowsElapsed == 1) {
+                return new Window(start + windowNanos, current, 0, now, false);
+            }
+            return new Window(start + windowsElapsed * windowNanos, 0, 0, now, false);
+        }
+
+        private Window admit(int limit, long windowNanos) {
+            if (estimate(now - start, windowNanos) + 1 <= limit) {
+                return new Window(start, previous, current + 1, now, true);
+            }
+            return this;
+        }
+
+        private double estimate(long elapsed, long windowNanos) {
+            return previous * ((windowNanos - elapsed) / (double) windowNanos) + current;
+        }
+    }
+
+    /**
+     * Outcome of one request; durations are in nanoseconds.
+     */
+    public record Decision(boolean admitted, int remaining, long resetNanos, long retryAfterNanos) {}
+}
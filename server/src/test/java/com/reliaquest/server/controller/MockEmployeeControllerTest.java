@@ -0,0 +1,202 @@
+package com.reliaquest.server.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.store.HeapMockEmployeeStore;
+import com.reliaquest.server.web.EmployeeListResponseCache;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class MockEmployeeControllerTest {
+
+    private final MockEmployee ann = employee("Ann Lee", 90_000, 30);
+    private final MockEmployee bob = employee("Bob Leeson", 80_000, 45);
+    private final MockEmployee carl = employee("Carl Smith", 85_000, 50);
+
+    private final HeapMockEmployeeStore store = new HeapMockEmployeeStore(List.of(ann, bob, carl));
+
+    private final MockMvc mockMvc = mockMvc(store);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void searchReturnsMatchesInStoreOrder() throws Exception {
+        mockMvc.perform(get("/api/v1/employee/search").param("name", "lee").param("maxSalary", "90000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("Successfully processed request."))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value(ann.getId().toString()))
+                .andExpect(jsonPath("$.data[1].employee_name").value("Bob Leeson"));
+    }
+
+    @Test
+    void searchCombinesRanges() throws Exception {
+        mockMvc.perform(get("/api/v1/employee/search")
+                        .param("minSalary", "80000")
+                        .param("maxSalary", "89999")
+                        .param("minAge", "40"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value(bob.getId().toString()))
+                .andExpect(jsonPath("$.data[1].id").value(carl.getId().toString()));
+    }
+
+    @Test
+    void searchWithoutMatchesReturnsAnEmptyList() throws Exception {
+        mockMvc.perform(get("/api/v1/employee/search").param("name", "nobody"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+    }
+
+    @Test
+    void listProjectsToTheRequestedFields() throws Exception {
+        mockMvc.perform(get("/api/v1/employee").param("fields", "id,employee_name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].id").value(ann.getId().toString()))
+                .andExpect(jsonPath("$.data[0].employee_name").value("Ann Lee"))
+                .andExpect(jsonPath("$.data[0].employee_salary").doesNotExist());
+    }
+
+    @Test
+    void listRejectsAnUnknownField() throws Exception {
+        mockMvc.perform(get("/api/v1/employee").param("fields", "id,shoe_size"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("Failed to process request."))
+                .andExpect(jsonPath("$.error").isNotEmpty());
+    }
+
+    @Test
+    void batchGetReportsEachIdInRequestOrder() throws Exception {
+        final var ids = new ArrayList<String>(List.of(
+                carl.getId().toString(),
+                UUID.randomUUID().toString(),
+                "not-a-uuid",
+                ann.getId().toString()));
+        ids.add(null);
+        mockMvc.perform(post("/api/v1/employee/batch/get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(5))
+                .andExpect(jsonPath("$.data[0].status").value("OK"))
+                .andExpect(jsonPath("$.data[0].data.id").value(carl.getId().toString()))
+                .andExpect(jsonPath("$.data[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.data[1].data").doesNotExist())
+                .andExpect(jsonPath("$.data[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.data[2].error").value("id: must be a UUID"))
+                .andExpect(jsonPath("$.data[3].status").value("OK"))
+                .andExpect(jsonPath("$.data[3].data.employee_name").value("Ann Lee"))
+                .andExpect(jsonPath("$.data[4].status").value("INVALID"))
+                .andExpect(jsonPath("$.data[4].error").value("id: must not be null"));
+    }
+
+    @Test
+    void batchCreateAddsTheValidInputsAndReportsTheInvalidOnes() throws Exception {
+        final var inputs = List.of(
+                Map.of("name", "Dana Park", "salary", 70_000, "age", 28, "title", "Analyst"),
+                Map.of("name", "Eve Stone", "salary", 60_000, "age", 12, "title", "Intern"),
+                Map.of("name", "Finn Cole", "salary", 75_000, "age", 33, "title", "Engineer"));
+        mockMvc.perform(post("/api/v1/employee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputs)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(3))
+                .andExpect(jsonPath("$.data[0].status").value("OK"))
+                .andExpect(jsonPath("$.data[0].data.employee_name").value("Dana Park"))
+                .andExpect(jsonPath("$.data[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.data[1].error").value("age: must be greater than or equal to 16"))
+                .andExpect(jsonPath("$.data[2].status").value("OK"))
+                .andExpect(jsonPath("$.data[2].data.employee_name").value("Finn Cole"));
+
+        Assertions.assertEquals(5, store.size());
+    }
+
+    @Test
+    void batchDeleteRemovesByIdInRequestOrder() throws Exception {
+        final var ids = List.of(
+                bob.getId().toString(),
+                "42",
+                bob.getId().toString(),
+                ann.getId().toString());
+        mockMvc.perform(delete("/api/v1/employee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(4))
+                .andExpect(jsonPath("$.data[0].status").value("OK"))
+                .andExpect(jsonPath("$.data[0].data.id").value(bob.getId().toString()))
+                .andExpect(jsonPath("$.data[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.data[2].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.data[3].status").value("OK"));
+
+        Assertions.assertEquals(List.of(carl), store.snapshot().employees());
+    }
+
+    @Test
+    void batchRejectsMoreThanAThousandItems() throws Exception {
+        final var ids = Collections.nCopies(1_001, ann.getId().toString());
+        mockMvc.perform(post("/api/v1/employee/batch/get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Batch size must not exceed 1000."));
+
+        mockMvc.perform(post("/api/v1/employee/batch/get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids.subList(0, 1_000))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1_000));
+    }
+
+    @Test
+    void batchRejectsABodyThatIsNotAList() throws Exception {
+        mockMvc.perform(delete("/api/v1/employee/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": \"%s\"}]".formatted(ann.getId())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("Failed to process request."));
+
+        Assertions.assertEquals(3, store.size());
+    }
+
+    private static MockMvc mockMvc(HeapMockEmployeeStore store) {
+        final var service = new MockEmployeeService(
+                new Faker(Locale.US),
+                store,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        final var cache = new EmployeeListResponseCache(store, new ObjectMapper(), new ServerProperties(), 10_000);
+        return MockMvcBuilders.standaloneSetup(new MockEmployeeController(service, cache))
+                .setControllerAdvice(new MockEmployeeControllerAdvice())
+                .build();
+    }
+
+    private static MockEmployee employee(String name, int salary, int age) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .age(age)
+                .title("Accountant")
+                .build();
+    }
+}
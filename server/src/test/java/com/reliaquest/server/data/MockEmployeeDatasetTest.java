@@ -0,0 +1,76 @@
+package com.reliaquest.server.data;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockEmployeeDatasetTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryFieldIncludingNulls() throws IOException {
+        final var employees = List.of(
+                new MockEmployee(UUID.randomUUID(), "Ann Lee", 90_000, 30, "Accountant", "ann.lee@company.com"),
+                new MockEmployee(new UUID(Long.MIN_VALUE, -1), null, Integer.MAX_VALUE, 0, null, null),
+                new MockEmployee(new UUID(0, 0), "", 0, Integer.MIN_VALUE, "", ""),
+                new MockEmployee(UUID.randomUUID(), "Zoë Ørsted 山田", 1, 75, "Ingénieur ☃", "zoë@company.com"));
+        final var path = directory.resolve("employees.bin");
+
+        MockEmployeeDataset.write(path, employees);
+
+        Assertions.assertEquals(employees, MockEmployeeDataset.read(path));
+        Assertions.assertEquals(employees, MockEmployeeDataset.read(ByteBuffer.wrap(Files.readAllBytes(path))));
+    }
+
+    @Test
+    void roundTripsAGeneratedDataset() throws IOException {
+        final var employees = new MockEmployeeGenerator(Locale.US, 7).generate(1_000);
+        final var path = directory.resolve("employees.bin");
+
+        MockEmployeeDataset.write(path, employees);
+
+        Assertions.assertEquals(employees, MockEmployeeDataset.read(path));
+    }
+
+    @Test
+    void writeReplacesAnExistingDatasetWithoutLeavingATempFile() throws IOException {
+        final var path = directory.resolve("employees.bin");
+        MockEmployeeDataset.write(path, new MockEmployeeGenerator(Locale.US, 7).generate(100));
+        final var employees = List.of(new MockEmployee(UUID.randomUUID(), "Ann Lee", 90_000, 30, null, null));
+
+        MockEmployeeDataset.write(path, employees);
+
+        Assertions.assertEquals(employees, MockEmployeeDataset.read(path));
+        try (final var files = Files.list(directory)) {
+            Assertions.assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    void rejectsAFileThatIsNotADataset() throws IOException {
+        final var path = directory.resolve("employees.bin");
+        Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        Assertions.assertThrows(IOException.class, () -> MockEmployeeDataset.read(path));
+        Assertions.assertThrows(IOException.class, () -> MockEmployeeDataset.read(ByteBuffer.allocate(4)));
+    }
+
+    @Test
+    void rejectsAStringTooLongForItsLengthPrefix() {
+        final var employee = new MockEmployee(UUID.randomUUID(), "a".repeat(0xFFFF), 90_000, 30, null, null);
+
+        Assertions.assertThrows(
+                IOException.class,
+                () -> MockEmployeeDataset.write(directory.resolve("employees.bin"), List.of(employee)));
+    }
+}
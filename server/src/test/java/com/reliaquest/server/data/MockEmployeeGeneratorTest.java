@@ -0,0 +1,73 @@
+package com.reliaquest.server.data;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeGeneratorTest {
+
+    private static final int COUNT = 2 * MockEmployeeGenerator.PARTITION_SIZE + 500;
+
+    @Test
+    void sameSeedGeneratesTheSameEmployeesWhateverTheParallelism() throws Exception {
+        final var generator = new MockEmployeeGenerator(Locale.US, 7);
+
+        final var sequential = generate(generator, 1);
+        final var parallel = generate(generator, 8);
+
+        Assertions.assertEquals(COUNT, sequential.size());
+        Assertions.assertEquals(sequential, parallel);
+        Assertions.assertEquals(sequential, generate(new MockEmployeeGenerator(Locale.US, 7), 3));
+    }
+
+    @Test
+    void partitionsDoNotDependOnTheTotalCount() {
+        final var generator = new MockEmployeeGenerator(Locale.US, 7);
+
+        Assertions.assertEquals(
+                generator.generate(COUNT).subList(0, MockEmployeeGenerator.PARTITION_SIZE + 1),
+                generator.generate(MockEmployeeGenerator.PARTITION_SIZE + 1));
+    }
+
+    @Test
+    void differentSeedsGenerateDifferentEmployees() {
+        final var first = new MockEmployeeGenerator(Locale.US, 7).generate(100);
+        final var second = new MockEmployeeGenerator(Locale.US, 8).generate(100);
+
+        for (int i = 0; i < first.size(); i++) {
+            Assertions.assertNotEquals(first.get(i).getId(), second.get(i).getId());
+        }
+    }
+
+    @Test
+    void generatesDistinctVersion4IdsAndValidFields() {
+        final var employees = new MockEmployeeGenerator(Locale.US, 7).generate(COUNT);
+
+        final var ids = new HashSet<>();
+        for (final var employee : employees) {
+            Assertions.assertTrue(ids.add(employee.getId()), employee.getId().toString());
+            Assertions.assertEquals(4, employee.getId().version());
+            Assertions.assertEquals(2, employee.getId().variant());
+            Assertions.assertFalse(employee.getName().isBlank());
+            Assertions.assertTrue(employee.getSalary() >= 30_000 && employee.getSalary() < 500_000);
+            Assertions.assertTrue(employee.getAge() >= 16 && employee.getAge() < 70);
+            Assertions.assertTrue(employee.getEmail().endsWith("@company.com"), employee.getEmail());
+        }
+    }
+
+    /*
+     * A parallel stream runs in the pool of the thread that starts it, so this bounds how many threads take part.
+     */
+    private static List<MockEmployee> generate(MockEmployeeGenerator generator, int threads) throws Exception {
+        final var pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> generator.generate(COUNT)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
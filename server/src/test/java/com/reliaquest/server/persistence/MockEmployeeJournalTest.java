@@ -0,0 +1,213 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockEmployeeJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysCreatesAndDeletesInOrder() throws IOException {
+        final var ann = employee("Ann Lee");
+        final var bob = employee("Bob Lee");
+        try (final var journal = journal(1)) {
+            journal.appendCreate(ann).join();
+            journal.appendCreate(bob).join();
+            journal.appendDelete(ann.getId()).join();
+        }
+
+        final var replayed = new Recorder();
+        Assertions.assertEquals(3, MockEmployeeJournal.replay(directory, 0, replayed));
+        Assertions.assertEquals(List.of("+" + ann.getId(), "+" + bob.getId(), "-" + ann.getId()), replayed.events);
+        Assertions.assertEquals(bob, replayed.created.get(1));
+    }
+
+    @Test
+    void appendsAfterCloseFailAtOnce() throws IOException {
+        final var journal = journal(1);
+        journal.appendCreate(employee("Ann Lee")).join();
+        journal.close();
+
+        final var create = journal.appendCreate(employee("Bob Lee"));
+        final var delete = journal.appendDelete(UUID.randomUUID());
+        final var roll = journal.roll();
+
+        for (final var future : List.of(create, delete, roll)) {
+            Assertions.assertTrue(future.isCompletedExceptionally());
+            final var failure = Assertions.assertThrows(CompletionException.class, future::join);
+            Assertions.assertInstanceOf(IOException.class, failure.getCause());
+        }
+        Assertions.assertEquals(1, journal.lastSeq());
+        Assertions.assertEquals(1, MockEmployeeJournal.replay(directory, 0, new Recorder()));
+    }
+
+    @Test
+    void ignoresTornTail() throws IOException {
+        final var ann = employee("Ann Lee");
+        try (final var journal = journal(1)) {
+            journal.appendCreate(ann).join();
+            journal.appendCreate(employee("Bob Lee")).join();
+        }
+        final var segment = onlySegment();
+        try (final var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        final var replayed = new Recorder();
+        Assertions.assertEquals(1, MockEmployeeJournal.replay(directory, 0, replayed));
+        Assertions.assertEquals(List.of("+" + ann.getId()), replayed.events);
+    }
+
+    @Test
+    void ignoresTailWithBadChecksum() throws IOException {
+        final var ann = employee("Ann Lee");
+        try (final var journal = journal(1)) {
+            journal.appendCreate(ann).join();
+            journal.appendCreate(employee("Bob Lee")).join();
+        }
+        final var segment = onlySegment();
+        try (final var channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final var last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.put(0, (byte) (last.get(0) ^ 1)).rewind();
+            channel.write(last, channel.size() - 1);
+        }
+
+        final var replayed = new Recorder();
+        Assertions.assertEquals(1, MockEmployeeJournal.replay(directory, 0, replayed));
+        Assertions.assertEquals(List.of("+" + ann.getId()), replayed.events);
+    }
+
+    @Test
+    void skipsRecordsUpToAfterSeq() throws IOException {
+        final var bob = employee("Bob Lee");
+        try (final var journal = journal(1)) {
+            journal.appendCreate(employee("Ann Lee")).join();
+            journal.appendCreate(bob).join();
+        }
+
+        final var replayed = new Recorder();
+        Assertions.assertEquals(2, MockEmployeeJournal.replay(directory, 1, replayed));
+        Assertions.assertEquals(List.of("+" + bob.getId()), replayed.events);
+    }
+
+    @Test
+    void deleteSegmentsUpToKeepsSegmentsWithLaterRecords() throws IOException {
+        final var carl = employee("Carl Lee");
+        try (final var journal = journal(1)) {
+            journal.appendCreate(employee("Ann Lee")).join();
+            journal.appendCreate(employee("Bob Lee")).join();
+            Assertions.assertEquals(2, journal.roll().join());
+            journal.appendCreate(carl).join();
+            Assertions.assertEquals(2, segments().size());
+
+            journal.deleteSegmentsUpTo(1);
+            Assertions.assertEquals(2, segments().size());
+            journal.deleteSegmentsUpTo(2);
+            Assertions.assertEquals(1, segments().size());
+        }
+
+        final var replayed = new Recorder();
+        Assertions.assertEquals(3, MockEmployeeJournal.replay(directory, 2, replayed));
+        Assertions.assertEquals(List.of("+" + carl.getId()), replayed.events);
+    }
+
+    @Test
+    void appendsContinueInTheNewSegmentAfterARoll() throws IOException {
+        try (final var journal = journal(1)) {
+            journal.appendCreate(employee("Ann Lee")).join();
+            journal.roll().join();
+            journal.roll().join();
+            journal.appendCreate(employee("Bob Lee")).join();
+        }
+
+        Assertions.assertEquals(2, MockEmployeeJournal.replay(directory, 0, new Recorder()));
+    }
+
+    @Test
+    void keepsWritingTheCurrentSegmentWhenARollFails() throws IOException {
+        final var bob = employee("Bob Lee");
+        try (final var journal = journal(1)) {
+            journal.appendCreate(employee("Ann Lee")).join();
+            final var segment = onlySegment();
+            final var replayed = new Recorder();
+            try (final var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                Files.delete(segment);
+                Files.delete(directory);
+
+                Assertions.assertThrows(
+                        CompletionException.class, () -> journal.roll().join());
+                journal.appendCreate(bob).join();
+
+                final var bytes = ByteBuffer.allocate((int) channel.size());
+                channel.read(bytes, 0);
+                Files.createDirectories(directory);
+                Files.write(segment, bytes.array());
+            }
+            Assertions.assertEquals(2, MockEmployeeJournal.replay(directory, 0, replayed));
+            Assertions.assertEquals("+" + bob.getId(), replayed.events.get(1));
+        }
+    }
+
+    private MockEmployeeJournal journal(long nextSeq) throws IOException {
+        return new MockEmployeeJournal(
+                directory, nextSeq, MockEmployeeJournal.FsyncPolicy.ALWAYS, Duration.ofMillis(1));
+    }
+
+    private Path onlySegment() throws IOException {
+        final var segments = segments();
+        Assertions.assertEquals(1, segments.size());
+        return segments.get(0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("journal-"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(90_000)
+                .age(30)
+                .title("Accountant")
+                .email(name.toLowerCase().replace(' ', '.') + "@company.com")
+                .build();
+    }
+
+    private static class Recorder implements MockEmployeeJournal.Replay {
+
+        private final List<String> events = new ArrayList<>();
+        private final List<MockEmployee> created = new ArrayList<>();
+
+        @Override
+        public void created(MockEmployee employee) {
+            events.add("+" + employee.getId());
+            created.add(employee);
+        }
+
+        @Override
+        public void deleted(UUID id) {
+            events.add("-" + id);
+        }
+    }
+}
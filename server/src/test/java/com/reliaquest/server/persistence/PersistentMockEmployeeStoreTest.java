@@ -0,0 +1,95 @@
+package com.reliaquest.server.persistence;
+
+import static com.reliaquest.server.persistence.MockEmployeeJournalTest.employee;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.HeapMockEmployeeStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentMockEmployeeStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversTheLatestSnapshotAndTheJournalAfterIt() throws IOException {
+        final var ann = employee("Ann Lee");
+        final var bob = employee("Bob Lee");
+        final var carl = employee("Carl Lee");
+        final var crashed = open(() -> List.of(ann));
+        try {
+            crashed.add(bob);
+            crashed.snapshotNow();
+            crashed.add(carl);
+            crashed.removeById(ann.getId());
+
+            Assertions.assertEquals(
+                    2, files("snapshot-").size() + files("journal-").size());
+            try (final var recovered = open(() -> Assertions.fail("Regenerated the initial dataset."))) {
+                Assertions.assertEquals(List.of(bob, carl), recovered.snapshot().employees());
+                Assertions.assertTrue(recovered.findById(ann.getId()).isEmpty());
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void snapshotSupersedesOlderSnapshotsAndSegments() throws IOException {
+        final var ann = employee("Ann Lee");
+        try (final var store = open(() -> List.of(ann))) {
+            store.add(employee("Bob Lee"));
+            store.snapshotNow();
+            store.removeByName("Bob Lee");
+            store.snapshotNow();
+
+            Assertions.assertEquals(List.of(directory.resolve("snapshot-%020d.bin".formatted(2))), files("snapshot-"));
+            Assertions.assertEquals(1, files("journal-").size());
+        }
+        try (final var store = open(() -> Assertions.fail("Regenerated the initial dataset."))) {
+            Assertions.assertEquals(List.of(ann), store.snapshot().employees());
+        }
+    }
+
+    @Test
+    void mutationsAfterCloseFailAndAreUndone() throws IOException {
+        final var ann = employee("Ann Lee");
+        final var store = open(() -> List.of(ann));
+        store.close();
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            Assertions.assertThrows(CompletionException.class, () -> store.add(employee("Bob Lee")));
+            Assertions.assertThrows(CompletionException.class, () -> store.removeById(ann.getId()));
+        });
+        Assertions.assertEquals(List.of(ann), store.snapshot().employees());
+    }
+
+    private PersistentMockEmployeeStore open(Supplier<? extends Collection<MockEmployee>> initialEmployees)
+            throws IOException {
+        return PersistentMockEmployeeStore.open(
+                directory,
+                MockEmployeeJournal.FsyncPolicy.ALWAYS,
+                Duration.ofMillis(1),
+                Duration.ofHours(1),
+                initialEmployees,
+                HeapMockEmployeeStore::new);
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
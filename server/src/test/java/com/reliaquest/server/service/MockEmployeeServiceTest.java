@@ -0,0 +1,108 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.ColumnarMockEmployeeStore;
+import com.reliaquest.server.store.HeapMockEmployeeStore;
+import com.reliaquest.server.store.MockEmployeeStore;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class MockEmployeeServiceTest {
+
+    private static final int WRITERS = 4;
+    private static final int EMPLOYEES_PER_WRITER = 2_000;
+
+    @ParameterizedTest
+    @EnumSource(MockEmployeeStore.Type.class)
+    void salaryStatsMatchTheStoreAfterConcurrentCreatesAndDeletes(MockEmployeeStore.Type type) {
+        final var store = type == MockEmployeeStore.Type.HEAP
+                ? new HeapMockEmployeeStore(List.of())
+                : new ColumnarMockEmployeeStore(List.of());
+        final var service = new MockEmployeeService(
+                new Faker(Locale.US),
+                store,
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        final var executor = Executors.newFixedThreadPool(WRITERS * 2);
+        try {
+            final var writers = new ArrayList<CompletableFuture<Void>>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                final var names = names(writer);
+                writers.add(CompletableFuture.runAsync(
+                        () -> {
+                            for (int i = 0; i < names.size(); i++) {
+                                service.create(input(names.get(i), 1_000 + (i * 7_919) % 500_000));
+                            }
+                        },
+                        executor));
+                writers.add(CompletableFuture.runAsync(
+                        () -> {
+                            for (int i = 0; i < names.size(); i += 2) {
+                                final var delete = new DeleteMockEmployeeInput();
+                                delete.setName(names.get(i));
+                                while (!service.delete(delete)) {
+                                    Thread.onSpinWait();
+                                }
+                            }
+                        },
+                        executor));
+            }
+            CompletableFuture.allOf(writers.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        final var employees = store.snapshot().employees();
+        final var stats = service.salaryStats(Integer.MAX_VALUE);
+        Assertions.assertEquals(WRITERS * EMPLOYEES_PER_WRITER / 2, employees.size());
+        Assertions.assertEquals(employees.size(), stats.count());
+        Assertions.assertEquals(
+                employees.stream()
+                        .map(MockEmployee::getSalary)
+                        .min(Comparator.naturalOrder())
+                        .orElseThrow(),
+                stats.minSalary());
+        Assertions.assertEquals(
+                employees.stream()
+                        .map(MockEmployee::getSalary)
+                        .max(Comparator.naturalOrder())
+                        .orElseThrow(),
+                stats.maxSalary());
+        Assertions.assertEquals(ids(employees), ids(stats.topEarners()));
+        Assertions.assertEquals(employees.size(), stats.topEarners().size());
+    }
+
+    private static List<String> names(int writer) {
+        final var names = new ArrayList<String>(EMPLOYEES_PER_WRITER);
+        for (int i = 0; i < EMPLOYEES_PER_WRITER; i++) {
+            names.add("Employee " + writer + "-" + i);
+        }
+        return names;
+    }
+
+    private static CreateMockEmployeeInput input(String name, int salary) {
+        final var input = new CreateMockEmployeeInput();
+        input.setName(name);
+        input.setSalary(salary);
+        input.setAge(30);
+        input.setTitle("Accountant");
+        return input;
+    }
+
+    private static Set<Object> ids(List<MockEmployee> employees) {
+        return employees.stream().map(MockEmployee::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,52 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeSearch;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class HeapMockEmployeeStoreTest {
+
+    private final MockEmployee ann = employee("Ann Lee", 90_000);
+    private final MockEmployee bob = employee("Bob Leeson", 80_000);
+    private final MockEmployee carl = employee("Carl Smith", 70_000);
+    private final MockEmployeeStore store = new HeapMockEmployeeStore(List.of(ann, bob, carl));
+
+    @Test
+    void removeByIdOfUnknownIdLeavesTheStoreAlone() {
+        final var version = store.version();
+
+        Assertions.assertTrue(store.removeById(UUID.randomUUID()).isEmpty());
+        Assertions.assertEquals(version, store.version());
+        Assertions.assertEquals(List.of(ann, bob, carl), store.snapshot().employees());
+    }
+
+    @Test
+    void removeByIdRemovesThatEmployee() {
+        Assertions.assertEquals(bob, store.removeById(bob.getId()).orElseThrow());
+
+        Assertions.assertEquals(List.of(ann, carl), store.snapshot().employees());
+        Assertions.assertTrue(store.findById(bob.getId()).isEmpty());
+        Assertions.assertTrue(store.removeById(bob.getId()).isEmpty());
+    }
+
+    @Test
+    void searchMatchesInSnapshotOrder() {
+        Assertions.assertEquals(List.of(ann, bob), store.search(new MockEmployeeSearch("LEE", null, null, null, null)));
+        Assertions.assertEquals(
+                List.of(bob, carl), store.search(new MockEmployeeSearch(null, null, 80_000, null, null)));
+        Assertions.assertEquals(List.of(bob), store.search(new MockEmployeeSearch("lee", 75_000, 85_000, 30, 30)));
+    }
+
+    private static MockEmployee employee(String name, int salary) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .age(30)
+                .title("Accountant")
+                .build();
+    }
+}
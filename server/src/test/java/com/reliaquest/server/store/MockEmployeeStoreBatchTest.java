@@ -0,0 +1,140 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.persistence.MockEmployeeJournal;
+import com.reliaquest.server.persistence.PersistentMockEmployeeStore;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class MockEmployeeStoreBatchTest {
+
+    private final MockEmployee ann = employee("Ann Lee");
+    private final MockEmployee bob = employee("Bob Leeson");
+    private final MockEmployee carl = employee("Carl Smith");
+
+    private final List<Closeable> opened = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void close() throws IOException {
+        for (final var store : opened) {
+            store.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Kind.class)
+    void findAllByIdAnswersInRequestOrder(Kind kind) throws IOException {
+        final var store = open(kind, List.of(ann, bob, carl));
+        final var unknown = UUID.randomUUID();
+
+        Assertions.assertEquals(
+                List.of(Optional.of(carl), Optional.empty(), Optional.of(ann), Optional.of(carl)),
+                store.findAllById(List.of(carl.getId(), unknown, ann.getId(), carl.getId())));
+        Assertions.assertEquals(List.of(), store.findAllById(List.of()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Kind.class)
+    void addAllAppendsInOneMutation(Kind kind) throws IOException {
+        final var store = open(kind, List.of(ann));
+        final var version = store.version();
+        final var added = new ArrayList<MockEmployee>();
+        store.addListener(new MockEmployeeStore.Listener() {
+            @Override
+            public void added(MockEmployee employee) {
+                added.add(employee);
+            }
+
+            @Override
+            public void removed(MockEmployee employee) {
+                Assertions.fail("Removed " + employee);
+            }
+        });
+
+        Assertions.assertEquals(List.of(bob, carl), store.addAll(List.of(bob, carl)));
+
+        Assertions.assertEquals(version + 1, store.version());
+        Assertions.assertEquals(List.of(ann, bob, carl), store.snapshot().employees());
+        Assertions.assertEquals(List.of(bob, carl), added);
+        Assertions.assertEquals(Optional.of(carl), store.findById(carl.getId()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Kind.class)
+    void removeAllByIdRemovesEachEmployeeOnceInOneMutation(Kind kind) throws IOException {
+        final var store = open(kind, List.of(ann, bob, carl));
+        final var version = store.version();
+
+        Assertions.assertEquals(
+                List.of(Optional.of(carl), Optional.empty(), Optional.of(ann), Optional.empty()),
+                store.removeAllById(List.of(carl.getId(), UUID.randomUUID(), ann.getId(), carl.getId())));
+
+        Assertions.assertEquals(version + 1, store.version());
+        Assertions.assertEquals(List.of(bob), store.snapshot().employees());
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertTrue(store.findById(ann.getId()).isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Kind.class)
+    void removeAllByIdOfUnknownIdsLeavesTheStoreAlone(Kind kind) throws IOException {
+        final var store = open(kind, List.of(ann, bob));
+        final var version = store.version();
+
+        Assertions.assertEquals(
+                List.of(Optional.empty(), Optional.empty()),
+                store.removeAllById(List.of(UUID.randomUUID(), carl.getId())));
+
+        Assertions.assertEquals(version, store.version());
+        Assertions.assertEquals(List.of(ann, bob), store.snapshot().employees());
+    }
+
+    private MockEmployeeStore open(Kind kind, List<MockEmployee> employees) throws IOException {
+        return switch (kind) {
+            case HEAP -> new HeapMockEmployeeStore(employees);
+            case COLUMNAR -> new ColumnarMockEmployeeStore(employees);
+            case PERSISTENT -> {
+                final var store = PersistentMockEmployeeStore.open(
+                        directory,
+                        MockEmployeeJournal.FsyncPolicy.ALWAYS,
+                        Duration.ofMillis(1),
+                        Duration.ofHours(1),
+                        () -> employees,
+                        HeapMockEmployeeStore::new);
+                opened.add(store);
+                yield store;
+            }
+        };
+    }
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(90_000)
+                .age(30)
+                .title("Accountant")
+                .email(name.toLowerCase().replace(' ', '.') + "@company.com")
+                .build();
+    }
+
+    enum Kind {
+        HEAP,
+        COLUMNAR,
+        PERSISTENT
+    }
+}
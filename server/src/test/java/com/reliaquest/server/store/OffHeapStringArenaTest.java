@@ -0,0 +1,67 @@
+package com.reliaquest.server.store;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class OffHeapStringArenaTest {
+
+    @Test
+    void emptyAndNullStringsTakeNoSpace() {
+        final var arena = new OffHeapStringArena();
+
+        Assertions.assertEquals(OffHeapStringArena.EMPTY, arena.put(""));
+        Assertions.assertEquals(OffHeapStringArena.NULL, arena.put(null));
+        Assertions.assertEquals("", OffHeapStringArena.get(arena.chunks(), OffHeapStringArena.EMPTY));
+        Assertions.assertNull(OffHeapStringArena.get(arena.chunks(), OffHeapStringArena.NULL));
+        Assertions.assertEquals(0, arena.offHeapBytes());
+    }
+
+    @Test
+    void roundTripsUtf8() {
+        final var arena = new OffHeapStringArena();
+        final var ref = arena.put("Zo\u00eb \u0141ukasiewicz \u674e");
+
+        Assertions.assertEquals("Zo\u00eb \u0141ukasiewicz \u674e", OffHeapStringArena.get(arena.chunks(), ref));
+    }
+
+    @Test
+    void startsANewChunkOnceTheCurrentOneIsFull() {
+        final var arena = new OffHeapStringArena();
+        final var value = "x".repeat(OffHeapStringArena.CHUNK_SIZE / 32);
+        final var refs = new ArrayList<Long>();
+        for (int i = 0; i < 32; i++) {
+            refs.add(arena.put(value));
+        }
+        Assertions.assertEquals(OffHeapStringArena.CHUNK_SIZE, arena.offHeapBytes());
+
+        Assertions.assertEquals(OffHeapStringArena.EMPTY, arena.put(""));
+        final var next = arena.put("next");
+        Assertions.assertEquals(2L * OffHeapStringArena.CHUNK_SIZE, arena.offHeapBytes());
+        Assertions.assertEquals("next", OffHeapStringArena.get(arena.chunks(), next));
+        for (final var ref : refs) {
+            Assertions.assertEquals(value, OffHeapStringArena.get(arena.chunks(), ref));
+        }
+    }
+
+    @Test
+    void olderChunkArraysStillDecodeEarlierStrings() {
+        final var arena = new OffHeapStringArena();
+        final var first = arena.put("first");
+        final var chunks = arena.chunks();
+        final var value = "y".repeat(0xFFFF);
+        for (int i = 0; i < 5 * OffHeapStringArena.CHUNK_SIZE / value.length(); i++) {
+            arena.put(value);
+        }
+
+        Assertions.assertNotSame(chunks, arena.chunks());
+        Assertions.assertEquals("first", OffHeapStringArena.get(chunks, first));
+    }
+
+    @Test
+    void rejectsStringsLongerThanTheLengthField() {
+        final var arena = new OffHeapStringArena();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> arena.put("z".repeat(0x10000)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.reliaquest.server.store;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RowScanTest {
+
+    private static final int ROWS = RowScan.SHARD_SIZE * 7 + 123;
+
+    @Test
+    void matchingKeepsRowOrderAcrossShards() {
+        final var expected =
+                IntStream.range(0, ROWS).filter(row -> row % 3 == 0).toArray();
+
+        Assertions.assertArrayEquals(expected, RowScan.matching(ROWS, row -> row % 3 == 0));
+    }
+
+    @Test
+    void matchingHandlesNoRowsAndFullShards() {
+        Assertions.assertArrayEquals(new int[0], RowScan.matching(0, row -> true));
+        Assertions.assertArrayEquals(new int[0], RowScan.matching(ROWS, row -> false));
+        Assertions.assertArrayEquals(IntStream.range(0, ROWS).toArray(), RowScan.matching(ROWS, row -> true));
+    }
+
+    @Test
+    void firstReturnsTheLowestMatch() {
+        final var lowest = RowScan.SHARD_SIZE * 2 + 5;
+
+        Assertions.assertEquals(lowest, RowScan.first(ROWS, row -> row == lowest || row > RowScan.SHARD_SIZE * 3));
+        Assertions.assertEquals(ROWS - 1, RowScan.first(ROWS, row -> row == ROWS - 1));
+        Assertions.assertEquals(-1, RowScan.first(ROWS, row -> false));
+        Assertions.assertEquals(-1, RowScan.first(0, row -> true));
+    }
+}
@@ -0,0 +1,209 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.store.HeapMockEmployeeStore;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+class EmployeeListResponseCacheTest {
+
+    private static final String SMILE = EmployeeListResponseCache.APPLICATION_SMILE.toString();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+    private final HeapMockEmployeeStore store = new HeapMockEmployeeStore(employees(20));
+
+    @Test
+    void servesTheSameBytesUntilTheStoreVersionChanges() throws IOException {
+        final var cache = new EmployeeListResponseCache(store, objectMapper, compression(true, 0), 10_000);
+        final var first = bytes(cache.get(null, null, null));
+
+        Assertions.assertArrayEquals(first, bytes(cache.get(null, null, null)));
+        Assertions.assertEquals(expectedJson(), objectMapper.readTree(first));
+
+        final var added = store.add(employee(20));
+        final var afterCreate = bytes(cache.get(null, null, null));
+        Assertions.assertEquals(
+                21, objectMapper.readTree(afterCreate).get("data").size());
+        Assertions.assertEquals(expectedJson(), objectMapper.readTree(afterCreate));
+
+        store.removeById(added.getId());
+        store.removeById(store.snapshot().employees().get(0).getId());
+        final var afterDelete = bytes(cache.get(null, null, null));
+        Assertions.assertEquals(
+                19, objectMapper.readTree(afterDelete).get("data").size());
+        Assertions.assertEquals(expectedJson(), objectMapper.readTree(afterDelete));
+    }
+
+    @Test
+    void negotiatesJsonOrSmileFromTheAcceptHeader() throws IOException {
+        final var cache = new EmployeeListResponseCache(store, objectMapper, compression(false, 0), 10_000);
+
+        final var json = cache.get("application/json", null, null);
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, json.mediaType());
+        final var smile = cache.get(SMILE, null, null);
+        Assertions.assertEquals(EmployeeListResponseCache.APPLICATION_SMILE, smile.mediaType());
+        Assertions.assertEquals(
+                EmployeeListResponseCache.APPLICATION_SMILE,
+                cache.get("application/json;q=0.5, " + SMILE, null, null).mediaType());
+        Assertions.assertEquals(
+                MediaType.APPLICATION_JSON, cache.get("text/html", null, null).mediaType());
+        Assertions.assertEquals(
+                MediaType.APPLICATION_JSON,
+                cache.get("not a media type", null, null).mediaType());
+
+        final var smileBytes = bytes(smile);
+        Assertions.assertArrayEquals(
+                smileMapper.writeValueAsBytes(
+                        Response.handledWith(store.snapshot().employees())),
+                smileBytes);
+        // Smile carries ids as binary, so compare the fields both formats write as text
+        final var jsonData = objectMapper.readTree(bytes(json)).get("data");
+        final var smileData = smileMapper.readTree(smileBytes).get("data");
+        Assertions.assertEquals(jsonData.size(), smileData.size());
+        for (int i = 0; i < jsonData.size(); i++) {
+            Assertions.assertEquals(
+                    jsonData.get(i).get("employee_name"), smileData.get(i).get("employee_name"));
+            Assertions.assertEquals(
+                    jsonData.get(i).get("employee_title"), smileData.get(i).get("employee_title"));
+        }
+        Assertions.assertEquals(smileBytes.length, smile.contentLength());
+    }
+
+    @Test
+    void gzipVariantDecodesToTheIdentityBody() throws IOException {
+        final var cache = new EmployeeListResponseCache(store, objectMapper, compression(true, 0), 10_000);
+        final var identity = cache.get(null, null, null);
+        final var gzip = cache.get(null, "deflate, GZIP", null);
+
+        Assertions.assertFalse(identity.gzip());
+        Assertions.assertTrue(gzip.gzip());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, gzip.mediaType());
+        final var compressed = bytes(gzip);
+        Assertions.assertEquals(compressed.length, gzip.contentLength());
+        Assertions.assertTrue(compressed.length < identity.contentLength());
+        Assertions.assertArrayEquals(bytes(identity), gunzip(compressed));
+    }
+
+    @Test
+    void gzipAppliesOnlyWhereServerCompressionWould() throws IOException {
+        final var enabled = new EmployeeListResponseCache(store, objectMapper, compression(true, 0), 10_000);
+        Assertions.assertTrue(enabled.get(null, "gzip", null).gzip());
+        Assertions.assertFalse(enabled.get(null, null, null).gzip());
+        Assertions.assertFalse(enabled.get(null, "br, deflate", null).gzip());
+        // Smile is not among the default compressible mime types
+        Assertions.assertFalse(enabled.get(SMILE, "gzip", null).gzip());
+
+        final var disabled = new EmployeeListResponseCache(store, objectMapper, compression(false, 0), 10_000);
+        Assertions.assertFalse(disabled.get(null, "gzip", null).gzip());
+
+        final var size = enabled.get(null, null, null).contentLength();
+        final var atMinimum = new EmployeeListResponseCache(store, objectMapper, compression(true, size), 10_000);
+        Assertions.assertTrue(atMinimum.get(null, "gzip", null).gzip());
+        final var belowMinimum =
+                new EmployeeListResponseCache(store, objectMapper, compression(true, size + 1), 10_000);
+        Assertions.assertFalse(belowMinimum.get(null, "gzip", null).gzip());
+
+        final var smileCompressible = compression(true, 0);
+        smileCompressible.getCompression().setMimeTypes(new String[] {"application/json", SMILE});
+        final var smileGzip =
+                new EmployeeListResponseCache(store, objectMapper, smileCompressible, 10_000).get(SMILE, "gzip", null);
+        Assertions.assertTrue(smileGzip.gzip());
+        Assertions.assertArrayEquals(
+                smileMapper.writeValueAsBytes(
+                        Response.handledWith(store.snapshot().employees())),
+                gunzip(bytes(smileGzip)));
+    }
+
+    @Test
+    void streamsTheSameBytesAsItCachesAboveCacheMax() throws IOException {
+        final var serverProperties = compression(true, 0);
+        serverProperties.getCompression().setMimeTypes(new String[] {"application/json", SMILE});
+        final var cached = new EmployeeListResponseCache(store, objectMapper, serverProperties, 10_000);
+        final var streamed = new EmployeeListResponseCache(store, objectMapper, serverProperties, 5);
+
+        for (final var accept : new String[] {"application/json", SMILE}) {
+            final var cachedIdentity = cached.get(accept, null, null);
+            final var streamedIdentity = streamed.get(accept, null, null);
+            Assertions.assertEquals(-1, streamedIdentity.contentLength());
+            Assertions.assertEquals(cachedIdentity.mediaType(), streamedIdentity.mediaType());
+            Assertions.assertArrayEquals(bytes(cachedIdentity), bytes(streamedIdentity), accept);
+
+            // streamed gzip uses a faster level, so compare what the client decodes
+            final var cachedGzip = cached.get(accept, "gzip", null);
+            final var streamedGzip = streamed.get(accept, "gzip", null);
+            Assertions.assertTrue(cachedGzip.gzip());
+            Assertions.assertTrue(streamedGzip.gzip());
+            Assertions.assertArrayEquals(gunzip(bytes(cachedGzip)), gunzip(bytes(streamedGzip)), accept);
+            Assertions.assertArrayEquals(bytes(cachedIdentity), gunzip(bytes(streamedGzip)), accept);
+        }
+    }
+
+    @Test
+    void streamsFromTheSnapshotTakenWhenTheBodyWasRequested() throws IOException {
+        final var streamed = new EmployeeListResponseCache(store, objectMapper, compression(false, 0), 5);
+        final var body = streamed.get(null, null, null);
+        final var expected = objectMapper.writeValueAsBytes(
+                Response.handledWith(store.snapshot().employees()));
+
+        store.add(employee(20));
+
+        Assertions.assertArrayEquals(expected, bytes(body));
+    }
+
+    private JsonNode expectedJson() {
+        return objectMapper.valueToTree(Response.handledWith(store.snapshot().employees()));
+    }
+
+    static ServerProperties compression(boolean enabled, long minResponseBytes) {
+        final var serverProperties = new ServerProperties();
+        serverProperties.getCompression().setEnabled(enabled);
+        serverProperties.getCompression().setMinResponseSize(DataSize.ofBytes(minResponseBytes));
+        return serverProperties;
+    }
+
+    static byte[] bytes(EmployeeListResponseCache.Body body) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] bytes) throws IOException {
+        try (final var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    static List<MockEmployee> employees(int count) {
+        final var employees = new ArrayList<MockEmployee>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(employee(i));
+        }
+        return employees;
+    }
+
+    private static MockEmployee employee(int i) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name("Employee " + i)
+                .salary(50_000 + i * 1_000)
+                .age(20 + i % 40)
+                .title(i % 3 == 0 ? null : "Accountant")
+                .email("employee" + i + "@company.com")
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FaultInjectionFilterTest {
+
+    private static final long SEED = 42;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void nthRequestOfAProfileDrawsFromTheSeedTheProfileAndN() throws Exception {
+        final var filter = new FaultInjectionFilter(
+                SEED, List.of(profile("GET", "/a/**", 0.5, 503), profile(null, "/b/**", 0.5, 503)), objectMapper);
+
+        for (long n = 0; n < 200; n++) {
+            Assertions.assertEquals(fails(SEED, 0, n, 0.5), injectedStatus(filter, "GET", "/a/x") != null, "a " + n);
+            Assertions.assertEquals(fails(SEED, 1, n, 0.5), injectedStatus(filter, "PUT", "/b/x") != null, "b " + n);
+        }
+    }
+
+    @Test
+    void sameSeedReproducesEachProfileRegardlessOfInterleaving() throws Exception {
+        final var profiles = List.of(profile(null, "/a/**", 0.3, 503), profile(null, "/b/**", 0.3, 503));
+        final var alternating = new FaultInjectionFilter(SEED, profiles, objectMapper);
+        final var grouped = new FaultInjectionFilter(SEED, profiles, objectMapper);
+
+        final var alternatingA = new ArrayList<Integer>();
+        final var alternatingB = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            alternatingA.add(injectedStatus(alternating, "GET", "/a/x"));
+            alternatingB.add(injectedStatus(alternating, "GET", "/b/x"));
+        }
+        final var groupedB = new ArrayList<Integer>();
+        final var groupedA = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            groupedB.add(injectedStatus(grouped, "GET", "/b/x"));
+        }
+        for (int i = 0; i < 100; i++) {
+            groupedA.add(injectedStatus(grouped, "GET", "/a/x"));
+        }
+
+        Assertions.assertEquals(alternatingA, groupedA);
+        Assertions.assertEquals(alternatingB, groupedB);
+        Assertions.assertNotEquals(alternatingA, alternatingB);
+
+        final var otherSeed = new FaultInjectionFilter(SEED + 1, profiles, objectMapper);
+        final var otherA = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            otherA.add(injectedStatus(otherSeed, "GET", "/a/x"));
+        }
+        Assertions.assertNotEquals(alternatingA, otherA);
+    }
+
+    @Test
+    void failsRequestsAtTheConfiguredRate() throws Exception {
+        final var filter = new FaultInjectionFilter(SEED, List.of(profile(null, "/**", 0.2, 500)), objectMapper);
+
+        var failed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            final var status = injectedStatus(filter, "GET", "/api/v1/employee");
+            if (status != null) {
+                Assertions.assertEquals(500, status);
+                failed++;
+            }
+        }
+        Assertions.assertEquals(0.2, failed / 10_000d, 0.02);
+
+        final var never = new FaultInjectionFilter(SEED, List.of(profile(null, "/**", 0, 500)), objectMapper);
+        final var always = new FaultInjectionFilter(SEED, List.of(profile(null, "/**", 1, 500)), objectMapper);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNull(injectedStatus(never, "GET", "/api/v1/employee"));
+            Assertions.assertEquals(500, injectedStatus(always, "GET", "/api/v1/employee"));
+        }
+    }
+
+    @Test
+    void injectedFailureAnswersWithAnErrorResponse() throws Exception {
+        final var filter = new FaultInjectionFilter(SEED, List.of(profile(null, "/**", 1, 503)), objectMapper);
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/employee"), response, chain);
+
+        Assertions.assertNull(chain.getRequest());
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("application/json", response.getContentType());
+        Assertions.assertEquals(
+                "Injected fault.",
+                objectMapper
+                        .readTree(response.getContentAsByteArray())
+                        .get("error")
+                        .asText());
+    }
+
+    @Test
+    void requestGetsTheFirstMatchingProfile() throws Exception {
+        final var filter = new FaultInjectionFilter(
+                SEED,
+                List.of(
+                        profile("GET", "/api/v1/employee/search", 1, 500),
+                        profile(null, "/api/**", 1, 418),
+                        profile(null, "/**", 1, 503)),
+                objectMapper);
+
+        Assertions.assertEquals(500, injectedStatus(filter, "GET", "/api/v1/employee/search"));
+        Assertions.assertEquals(500, injectedStatus(filter, "get", "/api/v1/employee/search"));
+        Assertions.assertEquals(418, injectedStatus(filter, "POST", "/api/v1/employee/search"));
+        Assertions.assertEquals(418, injectedStatus(filter, "GET", "/api/v1/employee"));
+        Assertions.assertEquals(503, injectedStatus(filter, "GET", "/actuator/health"));
+    }
+
+    @Test
+    void requestMatchingNoProfilePassesThrough() throws Exception {
+        final var filter = new FaultInjectionFilter(SEED, List.of(profile("DELETE", "/api/**", 1, 503)), objectMapper);
+
+        Assertions.assertNull(injectedStatus(filter, "GET", "/api/v1/employee"));
+        Assertions.assertNull(injectedStatus(filter, "DELETE", "/actuator/health"));
+    }
+
+    @Test
+    void withoutProfilesEveryRequestPassesThroughUntouched() throws Exception {
+        final var filter = new FaultInjectionFilter(SEED, List.of(), objectMapper);
+        final var request = new MockHttpServletRequest("GET", "/api/v1/employee");
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        Assertions.assertSame(request, chain.getRequest());
+        Assertions.assertSame(response, chain.getResponse());
+        Assertions.assertEquals(200, response.getStatus());
+    }
+
+    /*
+     * The status the filter answered with, or null when it passed the request on.
+     */
+    private static Integer injectedStatus(FaultInjectionFilter filter, String method, String uri)
+            throws ServletException, IOException {
+        final var response = new MockHttpServletResponse();
+        final var chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return chain.getRequest() == null ? response.getStatus() : null;
+    }
+
+    private static boolean fails(long seed, int profile, long n, double errorRate) {
+        return new SplittableRandom(seed + ((long) profile << 40) + n).nextDouble() < errorRate;
+    }
+
+    private static FaultInjectionProperties.Profile profile(
+            String method, String path, double errorRate, int errorStatus) {
+        return new FaultInjectionProperties.Profile(
+                method,
+                path,
+                FaultInjectionProperties.Latency.NONE,
+                Duration.ZERO,
+                Duration.ZERO,
+                1.0,
+                null,
+                errorRate,
+                errorStatus,
+                null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void weighsThePreviousWindowByItsOverlap() {
+        final var limiter = new SlidingWindowRateLimiter(2, Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+        final var first = limiter.acquire("a");
+        Assertions.assertEquals(new SlidingWindowRateLimiter.Decision(true, 1, 10 * SECOND, 0), first);
+        Assertions.assertTrue(limiter.acquire("a").admitted());
+        final var denied = limiter.acquire("a");
+        Assertions.assertFalse(denied.admitted());
+        Assertions.assertEquals(13 * SECOND, denied.retryAfterNanos());
+
+        // t = 3s .. 14s: the previous window still weighs more than one request
+        for (int second = 3; second < 15; second++) {
+            Assertions.assertFalse(limiter.acquire("a").admitted(), "t = " + second + "s");
+        }
+        Assertions.assertTrue(limiter.acquire("a").admitted());
+    }
+
+    @Test
+    void clientsHaveTheirOwnWindows() {
+        final var limiter = new SlidingWindowRateLimiter(1, Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+        Assertions.assertTrue(limiter.acquire("a").admitted());
+        Assertions.assertFalse(limiter.acquire("a").admitted());
+        Assertions.assertTrue(limiter.acquire("b").admitted());
+    }
+
+    @Test
+    void logicalClockDecisionsIgnoreOtherClients() {
+        final var alone = new SlidingWindowRateLimiter(3, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        final var interleaved = new SlidingWindowRateLimiter(3, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        final var expected = new ArrayList<SlidingWindowRateLimiter.Decision>();
+        final var actual = new ArrayList<SlidingWindowRateLimiter.Decision>();
+        for (int i = 0; i < 40; i++) {
+            expected.add(alone.acquire("a"));
+            for (int j = 0; j < i % 3; j++) {
+                interleaved.acquire("b" + j);
+            }
+            actual.add(interleaved.acquire("a"));
+        }
+
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertTrue(interleaved.isDeterministic());
+    }
+
+    @Test
+    void idleClientStartsOver() {
+        final var limiter = new SlidingWindowRateLimiter(1, Duration.ofSeconds(10), Duration.ofSeconds(30));
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(limiter.acquire("a").admitted());
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveLimitOrWindow() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class, () -> new SlidingWindowRateLimiter(0, Duration.ofSeconds(1), null));
+        Assertions.assertThrows(
+                IllegalArgumentException.class, () -> new SlidingWindowRateLimiter(1, Duration.ZERO, null));
+        Assertions.assertFalse(new SlidingWindowRateLimiter(1, Duration.ofSeconds(1), null).isDeterministic());
+    }
+}